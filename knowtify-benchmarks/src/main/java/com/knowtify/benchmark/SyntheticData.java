@@ -0,0 +1,86 @@
+package com.knowtify.benchmark;
+
+import com.knowtify.repository.TopicAggregateView;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic datasets and repository stubs, so service code can be benchmarked without a database.
+ */
+public final class SyntheticData {
+
+  private static final int SUBJECTS = 12;
+  private static final int AVG_LINKS_PER_TOPIC = 8;
+
+  private SyntheticData() {}
+
+  public record TopicRow(
+          UUID topicId,
+          String subjectName,
+          String topicName,
+          Long studyCount,
+          Integer priorityFlag,
+          LocalDateTime lastStudiedAt
+  ) implements TopicAggregateView {
+    @Override public UUID getTopicId() { return topicId; }
+    @Override public String getSubjectName() { return subjectName; }
+    @Override public String getTopicName() { return topicName; }
+    @Override public Long getStudyCount() { return studyCount; }
+    @Override public Integer getPriorityFlag() { return priorityFlag; }
+    @Override public LocalDateTime getLastStudiedAt() { return lastStudiedAt; }
+  }
+
+  /**
+   * Per-topic aggregate rows equivalent to {@code links} study-entry-topic links,
+   * spread over roughly links / 8 topics in a dozen subjects.
+   */
+  public static List<TopicAggregateView> topicRows(int links, long seed) {
+    Random random = new Random(seed);
+    int topics = Math.max(1, links / AVG_LINKS_PER_TOPIC);
+    LocalDateTime base = LocalDateTime.of(2025, 1, 6, 9, 0);
+
+    List<TopicAggregateView> rows = new ArrayList<>(topics);
+    int remaining = links;
+    for (int i = 0; i < topics; i++) {
+      int count = i == topics - 1
+              ? Math.max(1, remaining)
+              : Math.max(1, Math.min(remaining, 1 + random.nextInt(2 * AVG_LINKS_PER_TOPIC - 1)));
+      remaining -= count;
+      rows.add(new TopicRow(
+              new UUID(seed, i),
+              "Subject " + (i % SUBJECTS),
+              "topic " + i,
+              (long) count,
+              random.nextInt(10) == 0 ? 1 : 0,
+              base.plusMinutes(random.nextInt(60 * 24 * 365))));
+    }
+    return rows;
+  }
+
+  /**
+   * Proxy implementation of a repository interface: methods named in {@code answers} return the
+   * given value, anything else throws.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T stub(Class<T> type, Map<String, Object> answers) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      if (answers.containsKey(method.getName())) {
+        return answers.get(method.getName());
+      }
+      if (method.getDeclaringClass() == Object.class) {
+        return switch (method.getName()) {
+          case "hashCode" -> System.identityHashCode(proxy);
+          case "equals" -> proxy == args[0];
+          default -> type.getSimpleName() + " stub";
+        };
+      }
+      throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+    });
+  }
+}
@@ -0,0 +1,127 @@
+package com.knowtify.entity;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Review scheduling against millions of in-memory review states, with a sorted
+ * (user, dueAt, topic) set standing in for idx_review_states_user_due.
+ * <ul>
+ *   <li>{@code recordEntry}: schedule the topics of one entry (unique-key lookup, SM-2 update,
+ *   index maintenance). Should stay flat as {@code states} grows.</li>
+ *   <li>{@code dueFromIndex}: one user's due reviews as a bounded range scan.</li>
+ *   <li>{@code dueByFullScan}: the same answer by scanning and sorting all of the user's states,
+ *   as a per-request aggregation would.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReviewSchedulerBenchmark {
+
+  private static final int TOPICS_PER_USER = 250;
+  private static final int TOPICS_PER_ENTRY = 4;
+  private static final int DUE_LIMIT = 20;
+  private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+  private record IndexKey(int user, long dueAt, int topic) {}
+
+  private static final Comparator<IndexKey> INDEX_ORDER = Comparator
+      .comparingInt(IndexKey::user)
+      .thenComparingLong(IndexKey::dueAt)
+      .thenComparingInt(IndexKey::topic);
+
+  @Param({"100000", "1000000", "3000000"})
+  public int states;
+
+  private int users;
+  private Map<Long, ReviewState> byUserTopic;
+  private NavigableSet<IndexKey> dueIndex;
+  private Random random;
+  private LocalDateTime clock;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    users = Math.max(1, states / TOPICS_PER_USER);
+    byUserTopic = HashMap.newHashMap(states);
+    dueIndex = new TreeSet<>(INDEX_ORDER);
+    random = new Random(42);
+    clock = START.plusDays(60);
+
+    // A couple of months of history per state so intervals and eases are spread out
+    for (int user = 0; user < users; user++) {
+      for (int topic = 0; topic < TOPICS_PER_USER; topic++) {
+        ReviewState state = ReviewState.builder().build();
+        LocalDateTime studiedAt = START.plusHours(random.nextInt(24 * 30));
+        for (int i = random.nextInt(5); i >= 0; i--) {
+          state.recordStudy(studiedAt, random.nextInt(5) == 0);
+          studiedAt = studiedAt.plusDays(1 + random.nextInt(7));
+        }
+        byUserTopic.put(key(user, topic), state);
+        dueIndex.add(new IndexKey(user, epoch(state.getDueAt()), topic));
+      }
+    }
+  }
+
+  @Benchmark
+  public void recordEntry(Blackhole bh) {
+    int user = random.nextInt(users);
+    clock = clock.plusSeconds(1);
+    for (int i = 0; i < TOPICS_PER_ENTRY; i++) {
+      int topic = random.nextInt(TOPICS_PER_USER);
+      ReviewState state = byUserTopic.get(key(user, topic));
+      dueIndex.remove(new IndexKey(user, epoch(state.getDueAt()), topic));
+      state.recordStudy(clock, i == 0);
+      dueIndex.add(new IndexKey(user, epoch(state.getDueAt()), topic));
+      bh.consume(state);
+    }
+  }
+
+  @Benchmark
+  public void dueFromIndex(Blackhole bh) {
+    int user = random.nextInt(users);
+    NavigableSet<IndexKey> due = dueIndex.subSet(
+        new IndexKey(user, Long.MIN_VALUE, Integer.MIN_VALUE), true,
+        new IndexKey(user, epoch(clock), Integer.MAX_VALUE), true);
+    int n = 0;
+    for (IndexKey k : due) {
+      bh.consume(byUserTopic.get(key(user, k.topic())));
+      if (++n == DUE_LIMIT) break;
+    }
+  }
+
+  @Benchmark
+  public void dueByFullScan(Blackhole bh) {
+    int user = random.nextInt(users);
+    List<ReviewState> due = new ArrayList<>();
+    for (int topic = 0; topic < TOPICS_PER_USER; topic++) {
+      ReviewState state = byUserTopic.get(key(user, topic));
+      if (!state.getDueAt().isAfter(clock)) due.add(state);
+    }
+    due.sort(Comparator.comparing(ReviewState::getDueAt));
+    bh.consume(due.subList(0, Math.min(DUE_LIMIT, due.size())));
+  }
+
+  private static long key(int user, int topic) {
+    return (long) user * TOPICS_PER_USER + topic;
+  }
+
+  private static long epoch(LocalDateTime time) {
+    return time.toEpochSecond(ZoneOffset.UTC);
+  }
+}
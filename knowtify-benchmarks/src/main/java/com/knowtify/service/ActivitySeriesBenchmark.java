@@ -0,0 +1,79 @@
+package com.knowtify.service;
+
+import com.knowtify.repository.DailyActivityView;
+import com.knowtify.service.ActivityRollupService.Granularity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folding a heavy user's daily activity rows (every subject active most days) into the
+ * {@code /stats/timeseries} responses. The database side is one index range scan returning
+ * these rows; this is the rest of the request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivitySeriesBenchmark {
+
+  private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+  private record Row(String subjectName, LocalDate activityDate, int studyCount, int priorityCount)
+      implements DailyActivityView {
+    @Override public String getSubjectName() { return subjectName; }
+    @Override public LocalDate getActivityDate() { return activityDate; }
+    @Override public int getStudyCount() { return studyCount; }
+    @Override public int getPriorityCount() { return priorityCount; }
+  }
+
+  @Param({"365", "1825"})
+  public int days;
+
+  @Param({"12"})
+  public int subjects;
+
+  private LocalDate from;
+  private List<DailyActivityView> rows;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(7);
+    from = TO.minusDays(days - 1);
+    rows = new ArrayList<>(days * subjects);
+    for (int d = 0; d < days; d++) {
+      LocalDate day = from.plusDays(d);
+      for (int s = 0; s < subjects; s++) {
+        if (random.nextInt(10) < 8) {
+          rows.add(new Row("Subject " + s, day, 1 + random.nextInt(20), random.nextInt(3)));
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public Object daily() {
+    return ActivitySeries.of(Granularity.DAY, from, TO, rows).toResponse();
+  }
+
+  @Benchmark
+  public Object weekly() {
+    return ActivitySeries.of(Granularity.WEEK, from, TO, rows).toResponse();
+  }
+
+  @Benchmark
+  public Object monthly() {
+    return ActivitySeries.of(Granularity.MONTH, from, TO, rows).toResponse();
+  }
+
+  @Benchmark
+  public Object heatmap() {
+    return ActivitySeries.of(Granularity.DAY, from, TO, rows).toHeatmap();
+  }
+}
@@ -0,0 +1,67 @@
+package com.knowtify.service;
+
+import com.knowtify.benchmark.SyntheticData;
+import com.knowtify.repository.StudyEntryRepository;
+import com.knowtify.repository.TopicAggregateView;
+import com.knowtify.repository.UserTopicStatsRepository;
+import com.knowtify.util.WeekUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory half of the knowledge map and weekly report: folding per-topic aggregate rows
+ * into subjects, sorting, and building DTOs. Repositories are stubbed to return synthetic rows
+ * equivalent to the given number of study links.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class AggregationBenchmark {
+
+  private static final UUID USER_ID = new UUID(0, 1);
+
+  @Param({"10000", "100000", "1000000"})
+  public int links;
+
+  private KnowledgeMapService knowledgeMapService;
+  private ReportService reportService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    List<TopicAggregateView> rows = SyntheticData.topicRows(links, 42L);
+
+    UserTopicStatsRepository statsRepository = SyntheticData.stub(UserTopicStatsRepository.class, Map.of(
+        "aggregateAllTime", rows,
+        "aggregateWeek", rows));
+    StudyEntryRepository entryRepository = SyntheticData.stub(StudyEntryRepository.class, Map.of(
+        "aggregateTopicsByUserBetween", rows));
+
+    knowledgeMapService = new KnowledgeMapService(entryRepository, statsRepository, null, null, new SimpleMeterRegistry());
+    reportService = new ReportService(statsRepository, new WeekUtil(), new SimpleMeterRegistry(), 20);
+  }
+
+  @Benchmark
+  public void knowledgeMapAllTime(Blackhole bh) {
+    bh.consume(knowledgeMapService.getKnowledgeMap(USER_ID, null, null));
+  }
+
+  @Benchmark
+  public void knowledgeMapDateRange(Blackhole bh) {
+    bh.consume(knowledgeMapService.getKnowledgeMap(USER_ID, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+  }
+
+  @Benchmark
+  public void weeklyReport(Blackhole bh) {
+    bh.consume(reportService.generateWeeklyReport(USER_ID, 2025, 10));
+  }
+}
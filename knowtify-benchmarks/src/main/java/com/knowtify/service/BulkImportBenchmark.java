@@ -0,0 +1,94 @@
+package com.knowtify.service;
+
+import com.knowtify.KnowtifyApplication;
+import com.knowtify.dto.StudyDtos.BulkImportResponse;
+import com.knowtify.entity.User;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.service.BulkImportService.ImportMode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end bulk import throughput in entries/sec: NDJSON read, offline parse, subject/topic
+ * resolution, batched inserts and the derived-table updates, committed per chunk, against an
+ * in-memory H2 database booted with the real application context.
+ * Each invocation imports {@link #LINES} lines for the same user, so the tables grow over the run
+ * the way they do during a large migration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BulkImportBenchmark {
+
+  private static final int LINES = 2_000;
+
+  private static final List<String> SENTENCES = List.of(
+      "I studied binary search trees",
+      "studied !dynamic programming, graphs, hash maps",
+      "struggled with react hooks and confused by useEffect",
+      "Learned photosynthesis, cell respiration, mitosis, meiosis, osmosis",
+      "reviewed supply and demand, then integrals, had trouble with neural networks",
+      "read about the french revolution, some spanish grammar, and quantum mechanics");
+
+  @Param({"100", "500", "2000"})
+  public int chunkSize;
+
+  private ConfigurableApplicationContext context;
+  private BulkImportService importService;
+  private UUID userId;
+  private byte[] body;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(KnowtifyApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:bulk-import-bench;DB_CLOSE_DELAY=-1",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "logging.level.root=WARN",
+            "jwt.secret=bulk-import-benchmark-secret-0123456789abcdef",
+            "gemini.api.key=unused",
+            "gemini.api.base-url=http://localhost:1",
+            "knowtify.import.chunk-size=" + chunkSize)
+        .run();
+    importService = context.getBean(BulkImportService.class);
+    userId = context.getBean(UserRepository.class)
+        .save(User.builder().username("bulk-import-bench").passwordHash("x").build())
+        .getId();
+
+    StringBuilder ndjson = new StringBuilder();
+    LocalDateTime studiedAt = LocalDateTime.of(2025, 1, 1, 8, 0);
+    for (int i = 0; i < LINES; i++) {
+      ndjson.append("{\"sentence\":\"").append(SENTENCES.get(i % SENTENCES.size()))
+          .append("\",\"studiedAt\":\"").append(studiedAt.plusMinutes(37L * i)).append("\"}\n");
+    }
+    body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LINES)
+  public BulkImportResponse importOffline() throws Exception {
+    BulkImportResponse response = importService.importEntries(userId, new ByteArrayInputStream(body), ImportMode.OFFLINE);
+    if (response.getImported() != LINES) {
+      throw new IllegalStateException("Imported " + response.getImported() + " of " + LINES + ": " + response.getErrors());
+    }
+    return response;
+  }
+}
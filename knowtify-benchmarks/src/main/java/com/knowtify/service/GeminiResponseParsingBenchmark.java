@@ -0,0 +1,85 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response handling on recorded model outputs; no network involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeminiResponseParsingBenchmark {
+
+  // Shapes seen from the model: a bare array, a fenced block, an array wrapped in prose, and
+  // output cut off at maxOutputTokens
+  private static final Map<String, String> RECORDED_OUTPUTS = Map.of(
+      "bare", """
+          [{"topic":"binary trees","subject":"Computer Science","priority":false,"reason":"Data structure","confidence":0.95},
+           {"topic":"dynamic programming","subject":"Computer Science","priority":true,"reason":"Marked with !","confidence":0.92}]""",
+      "fenced", """
+          ```json
+          [
+            {"topic": "photosynthesis", "subject": "Biology", "priority": false, "reason": "Plant biology process", "confidence": 0.97},
+            {"topic": "cell respiration", "subject": "Biology", "priority": true, "reason": "Marked with !", "confidence": 0.95},
+            {"topic": "mitosis", "subject": "Biology", "priority": false, "reason": "Cell division", "confidence": 0.96},
+            {"topic": "french revolution", "subject": "History", "priority": false, "reason": "European history", "confidence": 0.9}
+          ]
+          ```""",
+      "prose", """
+          Here are the topics I identified:
+          [{"topic":"integrals","subject":"Mathematics","priority":false,"reason":"Calculus","confidence":0.93}]
+          Let me know if you need anything else.""",
+      "truncated", """
+          [{"topic":"linear algebra","subject":"Mathematics","priority":false,"reason":"Vectors","confidence":0.94},
+           {"topic":"eigenvalues","subject":"Mathematics","priority":true,"reason":"Struggled","confidence":0.91},
+           {"topic":"singular value decomp""");
+
+  @Param({"bare", "fenced", "prose", "truncated"})
+  public String output;
+
+  @Param({"studied !dynamic programming, graphs, hash maps"})
+  public String sentence;
+
+  private GeminiParsingService geminiParsingService;
+  private String response;
+
+  @Setup
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    ParseResultCache cache = new ParseResultCache(100, Duration.ofMinutes(1), false, null, null, null, objectMapper);
+    geminiParsingService = new GeminiParsingService(
+        "benchmark", "benchmark-model", "http://localhost:0",
+        false, 16, Duration.ofMillis(25),
+        Duration.ofSeconds(1), 0, Duration.ofMillis(1),
+        5, Duration.ofSeconds(30),
+        objectMapper, cache,
+        new LocalClassificationService(null, new TopicParsingService(), 0, 0.7),
+        new SimpleMeterRegistry());
+    response = RECORDED_OUTPUTS.get(output);
+  }
+
+  @TearDown
+  public void tearDown() {
+    geminiParsingService.shutdown();
+  }
+
+  @Benchmark
+  public void parseGeminiResponse(Blackhole bh) {
+    bh.consume(geminiParsingService.parseGeminiResponse(response));
+  }
+
+  @Benchmark
+  public void fallbackParsing(Blackhole bh) {
+    bh.consume(geminiParsingService.fallbackParsing(sentence));
+  }
+}
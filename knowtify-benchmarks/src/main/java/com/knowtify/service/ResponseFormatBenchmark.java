@@ -0,0 +1,110 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowtify.benchmark.SyntheticData;
+import com.knowtify.dto.ColumnarDtos;
+import com.knowtify.dto.StudyDtos.DateRange;
+import com.knowtify.dto.StudyDtos.KnowledgeMapResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializing a knowledge map response in each format the API can return: JSON, Smile and CBOR
+ * in row layout, columnar JSON / Smile, and gzip-compressed JSON as the server compression
+ * would send it. Mappers come from {@link Jackson2ObjectMapperBuilder} like the app's converters.
+ * <p>
+ * Times are the serialization cost; each benchmark also reports the size of the response it
+ * wrote as the secondary result {@code bytes}, so payload size per format lands in the JMH
+ * results next to the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int links;
+
+  private ObjectMapper json;
+  private ObjectMapper smile;
+  private ObjectMapper cbor;
+  private KnowledgeMapResponse response;
+  private ByteArrayOutputStream buffer;
+
+  /**
+   * Bytes of the last response written. Assigned rather than accumulated, so the EVENTS counter
+   * reads as bytes per response.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Payload {
+    public long bytes;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    json = Jackson2ObjectMapperBuilder.json().build();
+    smile = Jackson2ObjectMapperBuilder.smile().build();
+    cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+    response = KnowledgeMapResponse.builder()
+        .dateRange(DateRange.builder().build())
+        .subjects(TopicAggregation.of(SyntheticData.topicRows(links, 7L)).subjectSummaries(TopicAggregation.BY_COUNT))
+        .build();
+    buffer = new ByteArrayOutputStream(1 << 16);
+  }
+
+  @Benchmark
+  public byte[] json(Payload payload) throws IOException {
+    return measured(payload, json.writeValueAsBytes(response));
+  }
+
+  @Benchmark
+  public byte[] smile(Payload payload) throws IOException {
+    return measured(payload, smile.writeValueAsBytes(response));
+  }
+
+  @Benchmark
+  public byte[] cbor(Payload payload) throws IOException {
+    return measured(payload, cbor.writeValueAsBytes(response));
+  }
+
+  // Includes the row -> columnar conversion the controller does per request
+  @Benchmark
+  public byte[] columnarJson(Payload payload) throws IOException {
+    return measured(payload, json.writeValueAsBytes(ColumnarDtos.of(response)));
+  }
+
+  @Benchmark
+  public byte[] columnarSmile(Payload payload) throws IOException {
+    return measured(payload, smile.writeValueAsBytes(ColumnarDtos.of(response)));
+  }
+
+  @Benchmark
+  public int gzipJson(Payload payload) throws IOException {
+    int size = gzip(json, response);
+    payload.bytes = size;
+    return size;
+  }
+
+  private static byte[] measured(Payload payload, byte[] body) {
+    payload.bytes = body.length;
+    return body;
+  }
+
+  private int gzip(ObjectMapper mapper, Object value) throws IOException {
+    buffer.reset();
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8192)) {
+      mapper.writeValue(out, value);
+    }
+    return buffer.size();
+  }
+}
@@ -0,0 +1,71 @@
+package com.knowtify.service;
+
+import com.knowtify.service.SubjectService.DefaultSubject;
+import com.knowtify.service.TopicClassifier.CatalogTopic;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded classification throughput (sentences/sec) against a synthetic topic catalogue.
+ * Target: well above 100k ops/s on one core at the 5k-topic catalogue.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class TopicClassifierBenchmark {
+
+  private static final String[] WORDS = {
+      "binary", "search", "trees", "graph", "dynamic", "programming", "cell", "respiration",
+      "organic", "chemistry", "linear", "algebra", "world", "war", "supply", "demand",
+      "neural", "networks", "calculus", "integrals", "poetry", "grammar", "sorting", "hashing"
+  };
+
+  private static final List<String> SENTENCES = List.of(
+      "I studied binary search trees",
+      "studied !dynamic programming, graphs, hash maps",
+      "struggled with react hooks and confused by useEffect",
+      "Learned photosynthesis, cell respiration, mitosis, meiosis, osmosis",
+      "reviewed supply and demand, then integrals, had trouble with neural networks",
+      "read about the french revolution, some spanish grammar, and quantum mechanics");
+
+  @Param({"0", "5000", "50000"})
+  public int catalogSize;
+
+  private TopicClassifier classifier;
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    Map<String, List<String>> keywords = new LinkedHashMap<>();
+    for (DefaultSubject subject : SubjectService.defaultSubjects()) {
+      keywords.put(subject.name(), subject.keywords());
+    }
+    List<String> subjects = new ArrayList<>(keywords.keySet());
+
+    Random random = new Random(42);
+    List<CatalogTopic> catalog = new ArrayList<>(catalogSize);
+    for (int i = 0; i < catalogSize; i++) {
+      String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+      catalog.add(new CatalogTopic(name, subjects.get(random.nextInt(subjects.size()))));
+    }
+    classifier = TopicClassifier.build(new TopicParsingService(), keywords, catalog);
+  }
+
+  @Benchmark
+  public void classify(Blackhole bh) {
+    String sentence = SENTENCES.get(next);
+    next = next + 1 == SENTENCES.size() ? 0 : next + 1;
+    bh.consume(classifier.classify(sentence));
+  }
+}
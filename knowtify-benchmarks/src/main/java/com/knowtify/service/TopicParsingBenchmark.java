@@ -0,0 +1,53 @@
+package com.knowtify.service;
+
+import com.knowtify.util.SentenceTokenizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run with {@code -prof gc} to see bytes allocated per sentence: {@code tokenize} (a reused
+ * tokenizer, as on platform threads) should report ~0 B/op, {@code tokenizeFresh} the buffers a
+ * virtual-thread parse allocates, and {@code parseSentence} only the topic names and the result list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopicParsingBenchmark {
+
+  @Param({
+      "I studied binary trees",
+      "studied !dynamic programming, graphs, hash maps, graphs",
+      "Learned photosynthesis, !cell respiration, mitosis, meiosis, osmosis, diffusion, enzymes, ATP",
+      "I learned quicksort; !binary trees and heaps\nhash maps and Quicksort"
+  })
+  public String sentence;
+
+  private TopicParsingService topicParsingService;
+  private SentenceTokenizer tokenizer;
+
+  @Setup
+  public void setUp() {
+    topicParsingService = new TopicParsingService();
+    tokenizer = new SentenceTokenizer();
+  }
+
+  @Benchmark
+  public int tokenize() {
+    return tokenizer.tokenize(sentence);
+  }
+
+  @Benchmark
+  public int tokenizeFresh() {
+    return new SentenceTokenizer().tokenize(sentence);
+  }
+
+  @Benchmark
+  public void parseSentence(Blackhole bh) {
+    bh.consume(topicParsingService.parseSentence(sentence));
+  }
+}
@@ -0,0 +1,96 @@
+package com.knowtify.service;
+
+import com.knowtify.benchmark.SyntheticData;
+import com.knowtify.dto.StudyDtos.SubjectSummary;
+import com.knowtify.dto.StudyDtos.TopicSummary;
+import com.knowtify.repository.TopicAggregateView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Weekly report folding on heavy-user weeks: the previous groupingBy + full urgent sort
+ * against the shared single-pass {@link TopicAggregation} with bounded top-K selection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeeklyReportAggregationBenchmark {
+
+  private static final int URGENT_LIMIT = 20;
+
+  @Param({"1000", "10000", "100000"})
+  public int links;
+
+  private List<TopicAggregateView> rows;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    rows = SyntheticData.topicRows(links, 7L);
+  }
+
+  @Benchmark
+  public void singlePass(Blackhole bh) {
+    TopicAggregation aggregation = TopicAggregation.of(rows);
+    bh.consume(aggregation.subjectSummaries(TopicAggregation.BY_COUNT));
+    bh.consume(aggregation.recentPriorityTopics(URGENT_LIMIT));
+  }
+
+  // The ReportService fold as it was before the shared accumulator
+  @Benchmark
+  public void groupingByBaseline(Blackhole bh) {
+    Map<String, List<TopicAggregateView>> topicsBySubject = rows.stream()
+        .collect(Collectors.groupingBy(TopicAggregateView::getSubjectName));
+
+    List<SubjectSummary> subjects = new ArrayList<>();
+    List<TopicSummary> urgentTopics = new ArrayList<>();
+
+    for (Map.Entry<String, List<TopicAggregateView>> subjectEntry : topicsBySubject.entrySet()) {
+      List<TopicSummary> topicSummaries = new ArrayList<>();
+      int totalStudies = 0;
+
+      for (TopicAggregateView row : subjectEntry.getValue()) {
+        TopicSummary topicSummary = TopicSummary.builder()
+            .name(row.getTopicName())
+            .count(row.getStudyCount().intValue())
+            .isPriority(row.isAnyPriority())
+            .lastStudiedAt(row.getLastStudiedAt())
+            .build();
+        topicSummaries.add(topicSummary);
+        totalStudies += topicSummary.getCount();
+        if (topicSummary.isPriority()) {
+          urgentTopics.add(topicSummary);
+        }
+      }
+
+      topicSummaries.sort((a, b) -> {
+        int countCompare = Integer.compare(b.getCount(), a.getCount());
+        return countCompare != 0 ? countCompare : a.getName().compareTo(b.getName());
+      });
+      subjects.add(SubjectSummary.builder()
+          .subject(subjectEntry.getKey())
+          .topics(topicSummaries)
+          .totalStudies(totalStudies)
+          .build());
+    }
+
+    subjects.sort((a, b) -> Integer.compare(b.getTotalStudies(), a.getTotalStudies()));
+    urgentTopics.sort((a, b) -> {
+      if (a.getLastStudiedAt() == null && b.getLastStudiedAt() == null) return 0;
+      if (a.getLastStudiedAt() == null) return 1;
+      if (b.getLastStudiedAt() == null) return -1;
+      return b.getLastStudiedAt().compareTo(a.getLastStudiedAt());
+    });
+
+    bh.consume(subjects);
+    bh.consume(urgentTopics);
+  }
+}
@@ -0,0 +1,4 @@
+package com.knowtify.config.jmh_generated;
+public class JwtAuthFilterBenchmark_jmhType extends JwtAuthFilterBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.knowtify.entity.jmh_generated;
+public class ReviewSchedulerBenchmark_jmhType extends ReviewSchedulerBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class ActivitySeriesBenchmark_jmhType extends ActivitySeriesBenchmark_jmhType_B3 {
+}
+
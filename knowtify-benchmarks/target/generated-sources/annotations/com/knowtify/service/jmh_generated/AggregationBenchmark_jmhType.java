@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class AggregationBenchmark_jmhType extends AggregationBenchmark_jmhType_B3 {
+}
+
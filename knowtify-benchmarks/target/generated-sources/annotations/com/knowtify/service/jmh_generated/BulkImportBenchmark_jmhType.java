@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class BulkImportBenchmark_jmhType extends BulkImportBenchmark_jmhType_B3 {
+}
+
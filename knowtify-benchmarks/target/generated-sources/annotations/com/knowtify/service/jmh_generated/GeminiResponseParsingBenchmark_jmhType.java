@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class GeminiResponseParsingBenchmark_jmhType extends GeminiResponseParsingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class ResponseFormatBenchmark_Payload_jmhType extends ResponseFormatBenchmark_Payload_jmhType_B3 {
+}
+
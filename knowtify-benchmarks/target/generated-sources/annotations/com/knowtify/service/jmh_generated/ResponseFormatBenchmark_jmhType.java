@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class ResponseFormatBenchmark_jmhType extends ResponseFormatBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class TopicClassifierBenchmark_jmhType extends TopicClassifierBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class TopicParsingBenchmark_jmhType extends TopicParsingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.knowtify.service.jmh_generated;
+public class WeeklyReportAggregationBenchmark_jmhType extends WeeklyReportAggregationBenchmark_jmhType_B3 {
+}
+
@@ -2,8 +2,10 @@ package com.knowtify;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
 
 @SpringBootApplication
+@PropertySource("classpath:knowtify-defaults.properties")
 public class KnowtifyApplication {
 
 	public static void main(String[] args) {
@@ -24,6 +24,9 @@ public class CorsConfig {
         // Allow all headers
         configuration.setAllowedHeaders(Arrays.asList("*"));
         
+        // Let the browser read pagination headers
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
+        
         // Allow credentials (for JWT tokens)
         configuration.setAllowCredentials(true);
         
@@ -0,0 +1,31 @@
+package com.knowtify.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class IngestionConfig {
+
+  /**
+   * Worker pool for async entry ingestion. Workers are virtual threads, but the pool size
+   * still caps concurrent Gemini calls and the queue caps backlog; overflow is rejected.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService entryIngestionExecutor(
+          @Value("${knowtify.ingestion.workers:16}") int workers,
+          @Value("${knowtify.ingestion.queue-capacity:1000}") int queueCapacity
+  ) {
+    return new ThreadPoolExecutor(
+            workers, workers,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofVirtual().name("entry-ingest-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+}
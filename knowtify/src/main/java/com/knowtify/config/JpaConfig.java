@@ -0,0 +1,33 @@
+package com.knowtify.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+  /**
+   * JDBC batching for inserts/updates. Explicit spring.jpa.properties.* values still win.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer batchingCustomizer(
+          @Value("${knowtify.jpa.batch-size:50}") int batchSize
+  ) {
+    return properties -> {
+      properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+      properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+      properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+    };
+  }
+
+  /**
+   * Per-request SQL statement counting, see {@link QueryCountFilter}.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer queryCountCustomizer() {
+    return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+  }
+}
@@ -1,11 +1,17 @@
 package com.knowtify.config;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.knowtify.util.JwtUtil;
+import com.knowtify.util.JwtUtil.TokenPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -13,11 +19,17 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
@@ -25,6 +37,36 @@ public class JwtAuthFilter extends OncePerRequestFilter {
   private static final String AUTHORIZATION_HEADER = "Authorization";
   private static final String BEARER_PREFIX = "Bearer ";
 
+  // SHA-256 of the token -> verified principal, evicted when the token's exp passes
+  private final Cache<String, CachedPrincipal> verifiedTokens;
+  private final Timer cacheHitTimer;
+  private final Timer verifyTimer;
+
+  private record CachedPrincipal(AuthenticatedUser user, Instant expiresAt) {}
+
+  public JwtAuthFilter(
+      JwtUtil jwtUtil,
+      MeterRegistry meterRegistry,
+      @Value("${knowtify.auth.token-cache.max-size:10000}") long maxSize
+  ) {
+    this.jwtUtil = jwtUtil;
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(Expiry.creating((String key, CachedPrincipal value) ->
+            Duration.between(Instant.now(), value.expiresAt())))
+        .build();
+    this.cacheHitTimer = jwtTimer(meterRegistry, "hit");
+    this.verifyTimer = jwtTimer(meterRegistry, "miss");
+  }
+
+  private static Timer jwtTimer(MeterRegistry registry, String cache) {
+    return Timer.builder("knowtify.auth.jwt")
+        .description("Bearer token resolution time")
+        .tag("cache", cache)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
       throws ServletException, IOException {
@@ -33,12 +75,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     
     if (token != null) {
       try {
-        UUID userId = jwtUtil.getUserIdFromToken(token);
-        String username = jwtUtil.getUsernameFromToken(token);
+        AuthenticatedUser user = authenticate(token);
         
         // Create authentication object with user info
         var authentication = new UsernamePasswordAuthenticationToken(
-          new AuthenticatedUser(userId, username),
+          user,
           null,
           Collections.emptyList() // No roles for MVP
         );
@@ -54,6 +95,41 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
+  /**
+   * Resolves the token to a user, verifying the signature only on the first sighting of a token.
+   * Later requests with the same token are served from the cache until the token expires.
+   */
+  AuthenticatedUser authenticate(String token) {
+    long start = System.nanoTime();
+    String key = hash(token);
+    CachedPrincipal cached = verifiedTokens.getIfPresent(key);
+    if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+      cacheHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return cached.user();
+    }
+
+    try {
+      TokenPrincipal principal = jwtUtil.parsePrincipal(token);
+      AuthenticatedUser user = new AuthenticatedUser(principal.userId(), principal.username());
+      if (principal.expiresAt() != null) {
+        verifiedTokens.put(key, new CachedPrincipal(user, principal.expiresAt()));
+      }
+      return user;
+    } finally {
+      verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // Hash rather than keep raw bearer tokens in memory
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
   private String extractTokenFromHeader(HttpServletRequest request) {
     String authHeader = request.getHeader(AUTHORIZATION_HEADER);
     if (StringUtils.hasText(authHeader) && authHeader.startsWith(BEARER_PREFIX)) {
@@ -0,0 +1,48 @@
+package com.knowtify.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, per route. Only statements run on the
+ * request thread are counted; work handed to executors or async dispatches is not.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    QueryCountInspector.start();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      int queries = QueryCountInspector.stop();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      String uri = pattern != null ? pattern.toString() : "UNKNOWN"; // route template keeps tag cardinality bounded
+
+      DistributionSummary.builder("knowtify.http.db.queries")
+          .description("SQL statements issued per request")
+          .tags("method", request.getMethod(), "uri", uri)
+          .register(meterRegistry)
+          .record(queries);
+      log.debug("{} {} issued {} SQL statements", request.getMethod(), uri, queries);
+    }
+  }
+}
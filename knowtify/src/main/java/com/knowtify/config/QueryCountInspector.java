@@ -0,0 +1,34 @@
+package com.knowtify.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements Hibernate prepares on the current thread while a count is active.
+ * {@link QueryCountFilter} opens a count per request; outside of one this is a no-op.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+  private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+  static void start() {
+    COUNT.set(new int[1]);
+  }
+
+  /**
+   * Ends the count for this thread and returns the number of statements seen.
+   */
+  static int stop() {
+    int[] count = COUNT.get();
+    COUNT.remove();
+    return count == null ? 0 : count[0];
+  }
+
+  @Override
+  public String inspect(String sql) {
+    int[] count = COUNT.get();
+    if (count != null) {
+      count[0]++;
+    }
+    return sql;
+  }
+}
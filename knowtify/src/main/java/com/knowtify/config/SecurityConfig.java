@@ -1,8 +1,11 @@
 package com.knowtify.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -10,6 +13,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
@@ -19,6 +23,7 @@ public class SecurityConfig {
 
   private final JwtAuthFilter jwtAuthFilter;
   private final CorsConfigurationSource corsConfigurationSource; // added after cors integration
+  private final Environment environment;
 
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -27,8 +32,11 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource)) // Add this line
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                    // Async dispatches (long-poll / reactive results) were already authorized on the original request
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     // Public endpoints
                     .requestMatchers("/api/v1/health", "/api/v1/users/register", "/api/v1/users/login").permitAll()
+                    .requestMatchers(onManagementPort()).permitAll() // health checks and the metrics scrape
                     .requestMatchers("/api/v1/dev/**").permitAll() // Keep dev endpoints open for testing
                     .requestMatchers("/h2-console/**").permitAll() // H2 console access
                     // Protected endpoints added after the all time knowledge map update
@@ -48,8 +56,18 @@ public class SecurityConfig {
     return http.build();
   }
 
+  /**
+   * Requests that came in on management.server.port, which only the scraper can reach. This chain
+   * guards that port too, and on the application port actuator stays behind authentication.
+   */
+  private RequestMatcher onManagementPort() {
+    return request -> Integer.toString(request.getLocalPort())
+            .equals(environment.getProperty("local.management.port"));
+  }
+
+  // Cost factor: each +1 doubles hash time; existing hashes keep verifying with the cost they were made with
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(@Value("${knowtify.auth.bcrypt-strength:10}") int strength) {
+    return new BCryptPasswordEncoder(strength);
   }
 }
@@ -0,0 +1,50 @@
+package com.knowtify.config;
+
+import com.knowtify.service.ActivityRollupService;
+import com.knowtify.service.ReviewService;
+import com.knowtify.service.TopicDeduplicationService;
+import com.knowtify.service.UserTopicStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the materialized statistics tables from existing entries.
+ * Runs automatically on an empty stats table, after case-duplicate topics were merged, or on
+ * demand with {@code --knowtify.stats.rebuild=true}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StatsRebuildRunner implements ApplicationRunner {
+
+  private final TopicDeduplicationService topicDeduplicationService;
+  private final UserTopicStatsService userTopicStatsService;
+  private final ReviewService reviewService;
+  private final ActivityRollupService activityRollupService;
+
+  @Value("${knowtify.stats.rebuild:false}")
+  private boolean forceRebuild;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    // Merging topics drops their derived rows, so it forces a full rebuild (merge runs either way)
+    boolean rebuild = topicDeduplicationService.mergeCaseDuplicates() > 0 || forceRebuild;
+
+    if (rebuild || userTopicStatsService.needsBackfill()) {
+      log.info("Rebuilding study statistics (forced={})", rebuild);
+      userTopicStatsService.rebuildAll();
+    }
+    if (rebuild || reviewService.needsBackfill()) {
+      log.info("Rebuilding review schedules (forced={})", rebuild);
+      reviewService.rebuildAll();
+    }
+    if (rebuild || activityRollupService.needsBackfill()) {
+      log.info("Rebuilding daily activity rollup (forced={})", rebuild);
+      activityRollupService.rebuildAll();
+    }
+  }
+}
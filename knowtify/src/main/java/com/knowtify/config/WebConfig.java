@@ -0,0 +1,63 @@
+package com.knowtify.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  /**
+   * Request attribute (Long, millis) a handler sets to give its own async response a timeout
+   * other than the default, e.g. a full-history export that can outlive it.
+   */
+  public static final String ASYNC_TIMEOUT_ATTRIBUTE = WebConfig.class.getName() + ".asyncTimeout";
+
+  private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+  public WebConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    this.objectMapperBuilder = objectMapperBuilder;
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    // Runs before the request goes async, while its timeout can still be changed
+    configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+      @Override
+      public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (request instanceof AsyncWebRequest asyncRequest
+            && request.getAttribute(ASYNC_TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long timeout) {
+          asyncRequest.setTimeout(timeout);
+        }
+      }
+    });
+  }
+
+  /**
+   * Smile and CBOR alongside JSON, chosen by the Accept header. MVC registers both as soon as
+   * the dataformat jars are present, but with a plain mapper; swap in mappers from Boot's builder
+   * so dates and modules match the JSON output. JSON stays first for clients that don't ask.
+   */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // The injected builder is a prototype owned by this config; each call swaps its factory
+    ObjectMapper smile = objectMapperBuilder.smile().build();
+    ObjectMapper cbor = objectMapperBuilder.cbor().build();
+    converters.removeIf(c -> c instanceof MappingJackson2SmileHttpMessageConverter
+        || c instanceof MappingJackson2CborHttpMessageConverter);
+    converters.add(new MappingJackson2SmileHttpMessageConverter(smile));
+    converters.add(new MappingJackson2CborHttpMessageConverter(cbor));
+  }
+}
@@ -4,42 +4,66 @@ import com.knowtify.dto.AuthDtos.*;
 import com.knowtify.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
 public class AuthController {
 
+  private static final String BUSY_MESSAGE = "Server busy, please retry shortly";
+  private static final String RETRY_AFTER_SECONDS = "1";
+
   private final AuthService authService;
 
+  // Hashing runs off the servlet thread; the request completes when the future does
   @PostMapping("/register")
-  public ResponseEntity<RegisterResponse> register(@Valid @RequestBody RegisterRequest request) {
-    try {
-      RegisterResponse response = authService.register(request);
-      return ResponseEntity.status(HttpStatus.CREATED).body(response);
-    } catch (RuntimeException e) {
-      return ResponseEntity.badRequest().body(
-        RegisterResponse.builder()
-          .message(e.getMessage())
-          .build()
-      );
-    }
+  public CompletableFuture<ResponseEntity<RegisterResponse>> register(@Valid @RequestBody RegisterRequest request) {
+    return authService.register(request)
+      .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+      .exceptionally(error -> {
+        Throwable cause = AuthService.unwrap(error);
+        if (cause instanceof RejectedExecutionException) {
+          return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body(RegisterResponse.builder().message(BUSY_MESSAGE).build());
+        }
+        if (cause instanceof DataAccessException) {
+          // Not a duplicate username; don't echo SQL details back to the client
+          return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .body(RegisterResponse.builder().message("Registration failed").build());
+        }
+        return ResponseEntity.badRequest().body(
+          RegisterResponse.builder()
+            .message(cause.getMessage())
+            .build()
+        );
+      });
   }
 
   @PostMapping("/login")
-  public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginRequest request) {
-    try {
-      TokenResponse response = authService.login(request);
-      return ResponseEntity.ok(response);
-    } catch (RuntimeException e) {
-      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
-        TokenResponse.builder()
-          .message(e.getMessage())
-          .build()
-      );
-    }
+  public CompletableFuture<ResponseEntity<TokenResponse>> login(@Valid @RequestBody LoginRequest request) {
+    return authService.login(request)
+      .thenApply(ResponseEntity::ok)
+      .exceptionally(error -> {
+        Throwable cause = AuthService.unwrap(error);
+        if (cause instanceof RejectedExecutionException) {
+          return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body(TokenResponse.builder().message(BUSY_MESSAGE).build());
+        }
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(
+          TokenResponse.builder()
+            .message(cause.getMessage())
+            .build()
+        );
+      });
   }
 }
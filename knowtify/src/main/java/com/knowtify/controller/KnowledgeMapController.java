@@ -1,14 +1,21 @@
 package com.knowtify.controller;
 
 import com.knowtify.config.JwtAuthFilter.AuthenticatedUser;
+import com.knowtify.dto.ColumnarDtos;
+import com.knowtify.dto.StudyDtos.KnowledgeMapChangesResponse;
 import com.knowtify.dto.StudyDtos.KnowledgeMapResponse;
+import com.knowtify.service.DataVersionService;
 import com.knowtify.service.KnowledgeMapService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -20,16 +27,19 @@ import java.util.UUID;
 public class KnowledgeMapController {
 
   private final KnowledgeMapService knowledgeMapService;
+  private final DataVersionService dataVersionService;
 
   @GetMapping
-  public ResponseEntity<KnowledgeMapResponse> getKnowledgeMap(
+  public ResponseEntity<?> getKnowledgeMap(
           @AuthenticationPrincipal AuthenticatedUser user,
           @RequestParam(required = false)
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
           @RequestParam(required = false)
-          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+          @RequestParam(required = false) String layout,
+          WebRequest request) {
 
-    log.info("KM user={}", user != null ? user.userId() : null);
+    log.debug("Knowledge map requested by user={}", user != null ? user.userId() : null);
 
     if (user == null) {
       return ResponseEntity.status(401).build();
@@ -43,9 +53,40 @@ public class KnowledgeMapController {
       return ResponseEntity.badRequest().build();
     }
 
+    // Unchanged since the client's copy: answer 304 from the users row alone
+    long version = dataVersionService.current(user.userId());
+    String etag = DataVersionService.etag(user.userId(), version,
+            (startDate == null ? "km" : "km" + startDate + "_" + endDate) + ResponseVariants.suffix(request, layout));
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+              .varyBy(HttpHeaders.ACCEPT).build();
+    }
+
     KnowledgeMapResponse resp =
             knowledgeMapService.getKnowledgeMap(user.userId(), startDate, endDate);
-    return ResponseEntity.ok(resp);
+    return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT)
+            .body(ResponseVariants.isColumnar(layout) ? ColumnarDtos.of(resp) : resp);
   }
-}
 
+  /**
+   * Topics changed since the client's {@code since} version (0 for everything). The response
+   * carries the version to send next time.
+   */
+  @GetMapping("/changes")
+  public ResponseEntity<KnowledgeMapChangesResponse> getChanges(
+          @AuthenticationPrincipal AuthenticatedUser user,
+          @RequestParam(defaultValue = "0") long since) {
+
+    if (user == null) {
+      return ResponseEntity.status(401).build();
+    }
+    if (since < 0) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(knowledgeMapService.getChanges(user.userId(), since));
+  }
+}
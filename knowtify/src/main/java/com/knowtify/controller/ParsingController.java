@@ -3,27 +3,31 @@ package com.knowtify.controller;
 import com.knowtify.dto.StudyDtos.ParsedTopicDto;
 import com.knowtify.dto.StudyDtos.StudyEntryRequest;
 import com.knowtify.dto.StudyDtos.StudyEntryResponse;
-import com.knowtify.service.TopicParsingService;
+import com.knowtify.service.LocalClassificationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/dev")
 public class ParsingController {
 
-  private final TopicParsingService parsingService;
+  private final LocalClassificationService classificationService;
 
-  public ParsingController(TopicParsingService parsingService) {
-    this.parsingService = parsingService;
+  public ParsingController(LocalClassificationService classificationService) {
+    this.classificationService = classificationService;
   }
 
   @PostMapping("/parse")
   public ResponseEntity<StudyEntryResponse> parse(@RequestBody @Validated StudyEntryRequest req) {
-    var parsed = parsingService.parseSentence(req.getSentence()).stream()
-      .map(p -> ParsedTopicDto.builder().name(p.name()).isPriority(p.isPriority()).build())
+    var parsed = classificationService.classify(req.getSentence()).topics().stream()
+      .map(p -> ParsedTopicDto.builder()
+        .name(p.topic())
+        .subject(p.subject())
+        .isPriority(p.priority())
+        .reason(p.reason())
+        .confidence(p.confidence())
+        .build())
       .toList();
     return ResponseEntity.ok(
       StudyEntryResponse.builder()
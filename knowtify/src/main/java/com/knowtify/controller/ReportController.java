@@ -1,32 +1,80 @@
 package com.knowtify.controller;
 
 import com.knowtify.config.JwtAuthFilter.AuthenticatedUser;
+import com.knowtify.dto.ColumnarDtos;
 import com.knowtify.dto.StudyDtos.WeeklyReportResponse;
+import com.knowtify.service.DataVersionService;
 import com.knowtify.service.ReportService;
-import lombok.RequiredArgsConstructor;
+import com.knowtify.util.WeekUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/v1/reports")
-@RequiredArgsConstructor
 public class ReportController {
 
   private final ReportService reportService;
+  private final DataVersionService dataVersionService;
+  private final WeekUtil weekUtil;
+  private final Duration closedWeekMaxAge;
+
+  public ReportController(
+      ReportService reportService,
+      DataVersionService dataVersionService,
+      WeekUtil weekUtil,
+      @Value("${knowtify.reports.closed-week-max-age:7d}") Duration closedWeekMaxAge) {
+    this.reportService = reportService;
+    this.dataVersionService = dataVersionService;
+    this.weekUtil = weekUtil;
+    this.closedWeekMaxAge = closedWeekMaxAge;
+  }
 
   @GetMapping("/weekly")
-  public ResponseEntity<WeeklyReportResponse> getWeeklyReport(
+  public ResponseEntity<?> getWeeklyReport(
       @AuthenticationPrincipal AuthenticatedUser user,
       @RequestParam(required = false) Integer year,
-      @RequestParam(required = false) Integer week) {
+      @RequestParam(required = false) Integer week,
+      @RequestParam(required = false) String layout,
+      WebRequest request) {
     
     try {
-      WeeklyReportResponse report = reportService.generateWeeklyReport(user.userId(), year, week);
-      return ResponseEntity.ok(report);
+      // Resolve the default week here so the ETag changes when the week rolls over
+      int reportYear = year != null ? year : weekUtil.getCurrentYear();
+      int reportWeek = week != null ? week : weekUtil.getCurrentWeekNumber();
+
+      long version = dataVersionService.current(user.userId());
+      String etag = DataVersionService.etag(user.userId(), version,
+          "wr" + reportYear + "W" + reportWeek + ResponseVariants.suffix(request, layout));
+      CacheControl cacheControl = cacheControlFor(reportYear, reportWeek);
+      if (request.checkNotModified(etag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+            .varyBy(HttpHeaders.ACCEPT).build();
+      }
+
+      WeeklyReportResponse report = reportService.generateWeeklyReport(user.userId(), reportYear, reportWeek);
+      return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT)
+          .body(ResponseVariants.isColumnar(layout) ? ColumnarDtos.of(report) : report);
     } catch (Exception e) {
       // In production, use proper error handling
       return ResponseEntity.internalServerError().build();
     }
   }
+
+  // A week that has ended only changes through backdated imports, so clients may reuse it for
+  // a while; the current week is always revalidated (a cheap 304 while nothing changed).
+  private CacheControl cacheControlFor(int year, int week) {
+    boolean closed = weekUtil.getWeekRange(year, week).getEndDate().isBefore(LocalDate.now());
+    return closed
+        ? CacheControl.maxAge(closedWeekMaxAge).cachePrivate()
+        : CacheControl.noCache().cachePrivate();
+  }
 }
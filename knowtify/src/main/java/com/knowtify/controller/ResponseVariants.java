@@ -0,0 +1,66 @@
+package com.knowtify.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ETag suffix for the representation an analytics request will get. The same data version is
+ * served as JSON, Smile or CBOR and in row or columnar layout, and each is a different document, so
+ * each needs its own ETag (responses also carry {@code Vary: Accept}).
+ */
+final class ResponseVariants {
+
+  static final String COLUMNAR = "columnar";
+
+  private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+  // What the Jackson converters write, in converter order (WebConfig keeps JSON first)
+  private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, SMILE, MediaType.APPLICATION_CBOR);
+
+  private ResponseVariants() {}
+
+  static boolean isColumnar(String layout) {
+    return COLUMNAR.equalsIgnoreCase(layout);
+  }
+
+  static String suffix(WebRequest request, String layout) {
+    String[] accept = request.getHeaderValues(HttpHeaders.ACCEPT);
+    String format = format(accept == null ? List.of() : Arrays.asList(accept));
+    return isColumnar(layout) ? format + "-col" : format;
+  }
+
+  /**
+   * The format MVC's content negotiation will write for these Accept values. The ETag is needed
+   * before the body is written, so the choice is repeated here the way MVC makes it: every
+   * producible type compatible with an accepted one, at that accepted type's quality, sorted by
+   * quality and specificity; ties keep Accept order, then converter order. No Accept, or one MVC
+   * can't parse (it rejects the request anyway), gets JSON.
+   */
+  static String format(List<String> accept) {
+    List<MediaType> compatible = new ArrayList<>();
+    try {
+      for (MediaType acceptable : MediaType.parseMediaTypes(accept)) {
+        for (MediaType producible : PRODUCIBLE) {
+          if (acceptable.isCompatibleWith(producible)) {
+            compatible.add(producible.copyQualityValue(acceptable));
+          }
+        }
+      }
+      MimeTypeUtils.sortBySpecificity(compatible);
+    } catch (IllegalArgumentException e) {
+      return "";
+    }
+    if (compatible.isEmpty()) return "";
+
+    MediaType selected = compatible.get(0);
+    if (SMILE.isCompatibleWith(selected)) return "-smile";
+    if (MediaType.APPLICATION_CBOR.isCompatibleWith(selected)) return "-cbor";
+    return "";
+  }
+}
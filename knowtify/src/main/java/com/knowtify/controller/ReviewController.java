@@ -0,0 +1,39 @@
+package com.knowtify.controller;
+
+import com.knowtify.config.JwtAuthFilter.AuthenticatedUser;
+import com.knowtify.dto.StudyDtos.DueReviewsResponse;
+import com.knowtify.service.ReviewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/reviews")
+@RequiredArgsConstructor
+public class ReviewController {
+
+  private final ReviewService reviewService;
+
+  /**
+   * Topics due for review now, or within the next {@code days} days, most overdue first.
+   */
+  @GetMapping("/due")
+  public ResponseEntity<DueReviewsResponse> getDueReviews(
+      @AuthenticationPrincipal AuthenticatedUser user,
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(defaultValue = "0") int days) {
+
+    if (user == null) {
+      return ResponseEntity.status(401).build();
+    }
+    if (days < 0 || days > 365) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    LocalDateTime dueBy = LocalDateTime.now().plusDays(days);
+    return ResponseEntity.ok(reviewService.findDue(user.userId(), dueBy, limit));
+  }
+}
@@ -0,0 +1,81 @@
+package com.knowtify.controller;
+
+import com.knowtify.config.JwtAuthFilter.AuthenticatedUser;
+import com.knowtify.service.ActivityRollupService;
+import com.knowtify.service.ActivityRollupService.Granularity;
+import com.knowtify.service.DataVersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/stats")
+public class StatsController {
+
+  static final String HEATMAP = "heatmap";
+
+  private final ActivityRollupService activityRollupService;
+  private final DataVersionService dataVersionService;
+  private final int maxDays;
+
+  public StatsController(
+      ActivityRollupService activityRollupService,
+      DataVersionService dataVersionService,
+      @Value("${knowtify.stats.timeseries.max-days:1830}") int maxDays) {
+    this.activityRollupService = activityRollupService;
+    this.dataVersionService = dataVersionService;
+    this.maxDays = maxDays;
+  }
+
+  /**
+   * Study activity per subject over [from, to] (default: the last year) as day, week or month
+   * buckets, or with {@code granularity=heatmap} as daily totals for a calendar heatmap.
+   */
+  @GetMapping("/timeseries")
+  public ResponseEntity<?> getTimeSeries(
+      @AuthenticationPrincipal AuthenticatedUser user,
+      @RequestParam(defaultValue = "week") String granularity,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      WebRequest request) {
+
+    if (user == null) {
+      return ResponseEntity.status(401).build();
+    }
+
+    boolean heatmap = HEATMAP.equalsIgnoreCase(granularity);
+    Granularity resolved = heatmap ? Granularity.DAY : Granularity.parse(granularity);
+    LocalDate end = to != null ? to : LocalDate.now();
+    LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+    if (resolved == null || end.isBefore(start) || ChronoUnit.DAYS.between(start, end) >= maxDays) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    // The resolved range is part of the key, so "last year" revalidates when the day rolls over
+    long version = dataVersionService.current(user.userId());
+    String view = (heatmap ? HEATMAP : resolved.name().toLowerCase(Locale.ROOT)) + start + "_" + end;
+    String etag = DataVersionService.etag(user.userId(), version, "ts" + view + ResponseVariants.suffix(request, null));
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+          .varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    Object body = heatmap
+        ? activityRollupService.getHeatmap(user.userId(), start, end)
+        : activityRollupService.getTimeSeries(user.userId(), resolved, start, end);
+    return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(body);
+  }
+}
@@ -1,33 +1,74 @@
 package com.knowtify.controller;
 
 import com.knowtify.config.JwtAuthFilter.AuthenticatedUser;
+import com.knowtify.config.WebConfig;
 import com.knowtify.dto.StudyDtos;
 import com.knowtify.dto.StudyDtos.*;
+import com.knowtify.service.BulkImportService;
+import com.knowtify.service.BulkImportService.ImportMode;
+import com.knowtify.service.EntryExportService;
+import com.knowtify.service.EntryExportService.ExportFormat;
+import com.knowtify.service.EntryIngestionService;
 import com.knowtify.service.StudyEntryService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/entries")
 @RequiredArgsConstructor
+@Slf4j
 public class StudyEntryController {
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final String RETRY_AFTER_SECONDS = "5";
+
   private final StudyEntryService studyEntryService;
+  private final EntryIngestionService entryIngestionService;
+  private final EntryExportService entryExportService;
+  private final BulkImportService bulkImportService;
+
+  // Only the export streams for this long; other async endpoints keep the default timeout
+  @Value("${knowtify.export.timeout:30m}")
+  private Duration exportTimeout;
 
   @PostMapping
   public ResponseEntity<CreateEntryResponse> createEntry(
       @AuthenticationPrincipal AuthenticatedUser user,
-      @Valid @RequestBody CreateEntryRequest request) {
+      @Valid @RequestBody CreateEntryRequest request,
+      @RequestParam(defaultValue = "false") boolean async) {
     
     try {
+      if (async) {
+        // 202: entry saved as PENDING, poll /{id}/status for the parsed topics
+        CreateEntryResponse response = entryIngestionService.submit(user.userId(), request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+      }
       CreateEntryResponse response = studyEntryService.createStudyEntry(user.userId(), request);
       return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    } catch (RejectedExecutionException e) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+          .body(CreateEntryResponse.builder()
+              .message("Ingestion queue full, please retry shortly")
+              .build());
     } catch (Exception e) {
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
           .body(CreateEntryResponse.builder()
@@ -36,33 +77,133 @@ public class StudyEntryController {
     }
 
   }
-//  @GetMapping("/api/v1/entries")
-//  public ResponseEntity<Object> listRecentEntries(
-//          @AuthenticationPrincipal AuthenticatedUser user,
-//          @RequestParam(defaultValue = "20") int limit
-//  ) {
-//    if (user == null) return ResponseEntity.status(401).build();
-//    List<EntryView> items = studyEntryService.findRecent(user.userId(), limit);
-//    return ResponseEntity.ok(items);
-//  }
-// In StudyEntryController.java
-@GetMapping
-public ResponseEntity<List<StudyDtos.EntryView>> listRecentEntries(
-        @AuthenticationPrincipal AuthenticatedUser user,
-        @RequestParam(defaultValue = "20") int limit
-) {
-  if (user == null) {
-    return ResponseEntity.status(401).build();
+
+  /**
+   * Reactive create: the servlet thread is released while Gemini is called and the
+   * response is written when the Mono completes.
+   */
+  @PostMapping("/reactive")
+  public Mono<ResponseEntity<CreateEntryResponse>> createEntryReactive(
+      @AuthenticationPrincipal AuthenticatedUser user,
+      @Valid @RequestBody CreateEntryRequest request) {
+
+    return studyEntryService.createStudyEntryReactive(user.userId(), request)
+        .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+        .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .body(CreateEntryResponse.builder()
+                .message("Failed to create study entry: " + e.getMessage())
+                .build())));
   }
 
-  System.out.println("📋 Getting recent entries for user: " + user.userId() + ", limit: " + limit);
+  @GetMapping("/{id}/status")
+  public CompletableFuture<ResponseEntity<EntryStatusResponse>> getEntryStatus(
+      @AuthenticationPrincipal AuthenticatedUser user,
+      @PathVariable UUID id,
+      @RequestParam(defaultValue = "0") int waitSeconds) {
+
+    if (user == null) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(401).build());
+    }
 
-  List<StudyDtos.EntryView> items = studyEntryService.findRecent(user.userId(), limit);
+    // Long-poll: hold the response (not the servlet thread) for up to 30s while the entry is PENDING
+    Duration wait = Duration.ofSeconds(Math.max(0, Math.min(waitSeconds, 30)));
+    return entryIngestionService.awaitStatus(user.userId(), id, wait)
+        .thenApply(status -> status
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build()));
+  }
 
-  System.out.println("📊 Found " + items.size() + " recent entries");
+  /**
+   * Bulk import of an NDJSON body, one {"sentence", "studiedAt"} object per line.
+   * mode=gemini sends lines the local classifier isn't sure about to the model (batched when
+   * enabled), mode=offline never calls the model.
+   * Rows are committed in chunks; the response reports counts, throughput and per-line errors.
+   */
+  @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/plain", "application/json"})
+  public ResponseEntity<BulkImportResponse> bulkImport(
+      @AuthenticationPrincipal AuthenticatedUser user,
+      @RequestParam(defaultValue = "gemini") String mode,
+      InputStream body) {
 
-  return ResponseEntity.ok(items);
-}
+    if (user == null) {
+      return ResponseEntity.status(401).build();
+    }
 
+    ImportMode importMode;
+    try {
+      importMode = ImportMode.from(mode);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
 
+    try {
+      return ResponseEntity.ok(bulkImportService.importEntries(user.userId(), body, importMode));
+    } catch (Exception e) {
+      log.error("Bulk import failed for user {}", user.userId(), e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(BulkImportResponse.builder()
+              .mode(importMode.name().toLowerCase(Locale.ROOT))
+              .message("Bulk import failed: " + e.getMessage())
+              .build());
+    }
+  }
+
+  /**
+   * Full history as NDJSON (default) or CSV, streamed page by page so the server's
+   * memory use doesn't depend on how many entries the user has.
+   */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportEntries(
+      @AuthenticationPrincipal AuthenticatedUser user,
+      @RequestParam(defaultValue = "ndjson") String format,
+      HttpServletRequest request) {
+
+    if (user == null) {
+      return ResponseEntity.status(401).build();
+    }
+
+    ExportFormat exportFormat;
+    try {
+      exportFormat = ExportFormat.from(format);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    request.setAttribute(WebConfig.ASYNC_TIMEOUT_ATTRIBUTE, exportTimeout.toMillis());
+    UUID userId = user.userId();
+    StreamingResponseBody body = out -> entryExportService.export(userId, exportFormat, out);
+    return ResponseEntity.ok()
+        .contentType(exportFormat.mediaType)
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"knowtify-entries." + exportFormat.extension + "\"")
+        .body(body);
+  }
+
+  /**
+   * Newest entries first. The response body stays a plain list; the cursor for the next
+   * (older) page is returned in the X-Next-Cursor header when there is one.
+   */
+  @GetMapping
+  public ResponseEntity<List<StudyDtos.EntryView>> listRecentEntries(
+      @AuthenticationPrincipal AuthenticatedUser user,
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(required = false) String cursor) {
+
+    if (user == null) {
+      return ResponseEntity.status(401).build();
+    }
+
+    EntryPage page;
+    try {
+      page = studyEntryService.findRecent(user.userId(), limit, cursor);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getItems());
+  }
 }
@@ -0,0 +1,103 @@
+package com.knowtify.dto;
+
+import com.knowtify.dto.StudyDtos.DateRange;
+import com.knowtify.dto.StudyDtos.KnowledgeMapResponse;
+import com.knowtify.dto.StudyDtos.ReportWeek;
+import com.knowtify.dto.StudyDtos.SubjectSummary;
+import com.knowtify.dto.StudyDtos.TopicSummary;
+import com.knowtify.dto.StudyDtos.WeeklyReportResponse;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar ({@code ?layout=columnar}) variants of the analytics responses. A topic list becomes
+ * parallel arrays, so field names appear once per list instead of once per topic and
+ * timestamps are epoch millis instead of ISO strings.
+ */
+public class ColumnarDtos {
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class ColumnarTopics {
+    private List<String> names;
+    private int[] counts;
+    private String priority;       // one '0'/'1' per topic
+    private Long[] lastStudiedAt;  // epoch millis, null if never studied
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class ColumnarSubjectSummary {
+    private String subject;
+    private int totalStudies;
+    private ColumnarTopics topics;
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class ColumnarKnowledgeMapResponse {
+    private DateRange dateRange;
+    private List<ColumnarSubjectSummary> subjects;
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class ColumnarWeeklyReportResponse {
+    private ReportWeek reportWeek;
+    private List<ColumnarSubjectSummary> subjects;
+    private ColumnarTopics urgentReviewTopics;
+  }
+
+  public static ColumnarKnowledgeMapResponse of(KnowledgeMapResponse response) {
+    return ColumnarKnowledgeMapResponse.builder()
+        .dateRange(response.getDateRange())
+        .subjects(subjects(response.getSubjects()))
+        .build();
+  }
+
+  public static ColumnarWeeklyReportResponse of(WeeklyReportResponse response) {
+    return ColumnarWeeklyReportResponse.builder()
+        .reportWeek(response.getReportWeek())
+        .subjects(subjects(response.getSubjects()))
+        .urgentReviewTopics(topics(response.getUrgentReviewTopics()))
+        .build();
+  }
+
+  private static List<ColumnarSubjectSummary> subjects(List<SubjectSummary> subjects) {
+    List<ColumnarSubjectSummary> result = new ArrayList<>(subjects.size());
+    for (SubjectSummary subject : subjects) {
+      result.add(ColumnarSubjectSummary.builder()
+          .subject(subject.getSubject())
+          .totalStudies(subject.getTotalStudies())
+          .topics(topics(subject.getTopics()))
+          .build());
+    }
+    return result;
+  }
+
+  static ColumnarTopics topics(List<TopicSummary> topics) {
+    int n = topics.size();
+    List<String> names = new ArrayList<>(n);
+    int[] counts = new int[n];
+    char[] priority = new char[n];
+    Long[] lastStudiedAt = new Long[n];
+
+    // Stored timestamps are server-local wall time
+    ZoneId zone = ZoneId.systemDefault();
+    for (int i = 0; i < n; i++) {
+      TopicSummary topic = topics.get(i);
+      names.add(topic.getName());
+      counts[i] = topic.getCount();
+      priority[i] = topic.isPriority() ? '1' : '0';
+      LocalDateTime studiedAt = topic.getLastStudiedAt();
+      lastStudiedAt[i] = studiedAt == null ? null : studiedAt.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    return ColumnarTopics.builder()
+        .names(names)
+        .counts(counts)
+        .priority(new String(priority))
+        .lastStudiedAt(lastStudiedAt)
+        .build();
+  }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -35,9 +36,18 @@ public class StudyDtos {
     private String message;
     private UUID entryId;
     private LocalDateTime studiedAt;
+    private String status; // PENDING | PARSED | FALLBACK | FAILED
     private List<ParsedTopicDto> parsedTopics;
   }
 
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class EntryStatusResponse {
+    private UUID entryId;
+    private String status;
+    private LocalDateTime studiedAt;
+    private List<ParsedTopicDto> parsedTopics; // empty while PENDING
+  }
+
   // ==============================
   // Aliases to match your imports
   // ==============================
@@ -110,6 +120,21 @@ public class StudyDtos {
     private DateRange dateRange; // null means “all time”
     private List<SubjectSummary> subjects;
   }
+  // ---------- Knowledge Map delta sync ----------
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class TopicChange {
+    private String subject;
+    private TopicSummary topic; // the topic's current all-time summary
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class KnowledgeMapChangesResponse {
+    private long since;
+    private long version;            // pass as ?since= on the next call
+    private boolean fullSyncRequired; // reload /knowledge-map instead of patching
+    private List<TopicChange> changes;
+  }
+
   @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
   public static class EntryView {
     private UUID id;
@@ -118,4 +143,101 @@ public class StudyDtos {
     private List<TopicSummary> topics; // reuse existing TopicSummary DTO
   }
 
+  // ---------- History export ----------
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class ExportedEntry {
+    private UUID id;
+    private LocalDateTime studiedAt;
+    private String sentence;
+    private List<ExportedTopic> topics;
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class ExportedTopic {
+    private String name;
+    private String subject;
+    private boolean isPriority;
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class EntryPage {
+    private List<EntryView> items;
+    private String nextCursor; // null when there are no older entries
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class BulkEntryLine {
+    private String sentence;
+    private LocalDateTime studiedAt; // optional, defaults to import time
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class BulkLineError {
+    private long line;
+    private String message;
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class BulkImportResponse {
+    private String mode;
+    private long totalLines;
+    private long imported;
+    private long failed;
+    private int chunksCommitted;
+    private long elapsedMs;
+    private double entriesPerSecond;
+    private List<BulkLineError> errors;
+    private boolean errorsTruncated;
+    private String message; // set when the import stopped early; chunks committed before that are kept
+  }
+
+  // ---------- Spaced-repetition reviews ----------
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class DueReview {
+    private UUID topicId;
+    private String topic;
+    private String subject;
+    private LocalDateTime dueAt;
+    private LocalDateTime lastStudiedAt;
+    private double intervalDays;
+    private double easeFactor;
+    private int repetitions;
+    private int lapses;
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class DueReviewsResponse {
+    private LocalDateTime dueBy;
+    private List<DueReview> items; // most overdue first
+    private boolean hasMore;
+  }
+
+  // ---------- Activity time series ----------
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class TimeSeriesResponse {
+    private String granularity;   // day | week | month
+    private LocalDate from;
+    private LocalDate to;
+    private List<LocalDate> buckets; // start of each day / ISO week / month
+    private int[] totals;            // all subjects, parallel to buckets
+    private List<SubjectSeries> subjects; // most studied first
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class SubjectSeries {
+    private String subject;
+    private int total;
+    private int[] counts; // parallel to buckets
+  }
+
+  @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+  public static class ActivityHeatmapResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private int[] counts; // one per day from 'from', all subjects
+    private int max;
+    private int total;
+    private int activeDays;
+  }
+
 }
@@ -0,0 +1,8 @@
+package com.knowtify.entity;
+
+public enum EntryStatus {
+  PENDING,   // saved, waiting for the ingestion worker
+  PARSED,    // topics extracted by the model
+  FALLBACK,  // topics extracted by the simple local parser
+  FAILED     // ingestion gave up; entry has no topics
+}
@@ -0,0 +1,34 @@
+package com.knowtify.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Persistent tier of the Gemini parse-result cache. Keyed by a hash of the
+ * normalized sentence, model and prompt version.
+ */
+@Entity
+@Table(name = "parse_cache", indexes = {
+        @Index(name = "idx_parse_cache_created_at", columnList = "created_at")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ParseCacheEntry {
+
+  @Id
+  @Column(name = "cache_key", length = 64)
+  private String cacheKey; // SHA-256 hex
+
+  @Column(nullable = false, length = 100)
+  private String model;
+
+  @Column(name = "prompt_version", nullable = false, length = 20)
+  private String promptVersion;
+
+  @Column(nullable = false, length = 8000)
+  private String payload; // JSON array of parsed topics
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+}
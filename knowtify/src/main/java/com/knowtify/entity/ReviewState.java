@@ -0,0 +1,104 @@
+package com.knowtify.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Spaced-repetition schedule for one (user, topic), SM-2 style. Every study of the topic counts
+ * as a review: a regular study passes and grows the interval by the ease factor, a priority
+ * ("struggled") study fails, resetting the interval and lowering the ease.
+ * {@code dueAt} is indexed per user so due reviews are a range scan.
+ */
+@Entity
+@Table(name = "review_states",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "topic_id"}),
+        indexes = {
+                @Index(name = "idx_review_states_user_due", columnList = "user_id, due_at")
+        }
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ReviewState {
+
+  public static final double INITIAL_EASE = 2.5;
+  public static final double MIN_EASE = 1.3;
+
+  // SM-2 answer quality (0-5) a study maps to
+  private static final int QUALITY_PASS = 4;
+  private static final int QUALITY_FAIL = 2;
+
+  // Restudying sooner than this after the last study doesn't count as another review
+  private static final Duration MIN_REVIEW_GAP = Duration.ofHours(12);
+  private static final long SECONDS_PER_DAY = 86_400;
+
+  @Id
+  @UuidV7Id
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "topic_id", nullable = false)
+  private Topic topic;
+
+  @Column(name = "ease_factor", nullable = false)
+  @Builder.Default
+  private double easeFactor = INITIAL_EASE;
+
+  @Column(name = "interval_days", nullable = false)
+  @Builder.Default
+  private double intervalDays = 0;
+
+  // Consecutive passed reviews; 0 after a failed one
+  @Column(name = "repetitions", nullable = false)
+  @Builder.Default
+  private int repetitions = 0;
+
+  @Column(name = "lapses", nullable = false)
+  @Builder.Default
+  private int lapses = 0;
+
+  @Column(name = "last_studied_at")
+  private LocalDateTime lastStudiedAt;
+
+  @Column(name = "due_at", nullable = false)
+  private LocalDateTime dueAt;
+
+  /**
+   * Applies one study of the topic. Constant time; {@code struggled} is the link's priority flag.
+   */
+  public void recordStudy(LocalDateTime studiedAt, boolean struggled) {
+    if (lastStudiedAt != null && studiedAt.isBefore(lastStudiedAt)) {
+      return; // out-of-order (e.g. imported history); the schedule already reflects a later study
+    }
+    if (!struggled && lastStudiedAt != null && dueAt != null
+        && Duration.between(lastStudiedAt, studiedAt).compareTo(MIN_REVIEW_GAP) < 0) {
+      lastStudiedAt = studiedAt; // same-session repeat: no new evidence of retention
+      return;
+    }
+
+    int quality = struggled ? QUALITY_FAIL : QUALITY_PASS;
+    easeFactor = Math.max(MIN_EASE, easeFactor + 0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+
+    if (quality < 3) {
+      repetitions = 0;
+      lapses++;
+      intervalDays = 1;
+    } else {
+      repetitions++;
+      intervalDays = switch (repetitions) {
+        case 1 -> 1;
+        case 2 -> 6;
+        default -> Math.round(intervalDays * easeFactor);
+      };
+    }
+
+    lastStudiedAt = studiedAt;
+    dueAt = studiedAt.plusSeconds((long) (intervalDays * SECONDS_PER_DAY));
+  }
+}
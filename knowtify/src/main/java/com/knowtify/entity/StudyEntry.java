@@ -11,13 +11,14 @@ import java.util.UUID;
 @Entity
 @Table(name = "study_entries", indexes = {
         @Index(name = "idx_study_entries_user", columnList = "user_id"),
-        @Index(name = "idx_study_entries_studied_at", columnList = "studied_at")
+        @Index(name = "idx_study_entries_studied_at", columnList = "studied_at"),
+        @Index(name = "idx_study_entries_user_studied_at", columnList = "user_id, studied_at, id")
 })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class StudyEntry {
 
   @Id
-  @GeneratedValue
+  @UuidV7Id
   private UUID id;
 
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -35,6 +36,11 @@ public class StudyEntry {
   @Column(name = "recorded_at", nullable = false)
   private LocalDateTime recordedAt;
 
+  // Null on rows created before async ingestion existed; those were always parsed inline
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", length = 16)
+  private EntryStatus status;
+
   @OneToMany(mappedBy = "studyEntry", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   @Builder.Default
   private List<StudyEntryTopic> studyEntryTopics = new ArrayList<>();
@@ -48,5 +54,12 @@ public class StudyEntry {
     if (recordedAt == null) {
       recordedAt = now;
     }
+    if (status == null) {
+      status = EntryStatus.PARSED;
+    }
+  }
+
+  public EntryStatus getStatus() {
+    return status == null ? EntryStatus.PARSED : status;
   }
 }
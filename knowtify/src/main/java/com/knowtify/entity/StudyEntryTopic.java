@@ -17,7 +17,7 @@ import java.util.UUID;
 public class StudyEntryTopic {
 
   @Id
-  @GeneratedValue
+  @UuidV7Id
   private UUID id;
 
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -3,13 +3,17 @@ package com.knowtify.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
-@Table(name = "topics", indexes = {
-        @Index(name = "idx_topics_name", columnList = "name"),
-        @Index(name = "idx_topics_subject", columnList = "subject_id")
-})
+@Table(name = "topics",
+        uniqueConstraints = @UniqueConstraint(name = "uk_topics_subject_name_key", columnNames = {"subject_id", "name_key"}),
+        indexes = {
+                @Index(name = "idx_topics_name", columnList = "name"),
+                @Index(name = "idx_topics_subject", columnList = "subject_id")
+        }
+)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Topic {
 
@@ -20,10 +24,26 @@ public class Topic {
   @Column(nullable = false, length = 128)
   private String name; // e.g., "sorting algorithms"
 
+  // nameKey(name); unique per subject, so "React Hooks" and "react hooks " are one topic.
+  // Null only on rows written before the column existed, until TopicService keys them on startup.
+  @Column(name = "name_key", length = 128)
+  private String nameKey;
+
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
   @JoinColumn(name = "subject_id", nullable = false)
   private Subject subject;
 
   @Column(name = "confidence_score")
   private Double confidenceScore; // Gemini's confidence in categorization
+
+  @PrePersist
+  @PreUpdate
+  void fillNameKey() {
+    nameKey = nameKey(name);
+  }
+
+  /** Case- and surrounding-whitespace-insensitive form of a topic name. */
+  public static String nameKey(String name) {
+    return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+  }
 }
@@ -24,6 +24,11 @@ public class User {
   @Column(name = "password_hash", nullable = false, length = 200)
   private String passwordHash;
 
+  // Bumped on every write that changes the user's study data; drives HTTP ETags
+  @Column(name = "data_version", nullable = false)
+  @Builder.Default
+  private long dataVersion = 0;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private Instant createdAt;
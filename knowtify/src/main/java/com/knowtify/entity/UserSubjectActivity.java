@@ -0,0 +1,53 @@
+package com.knowtify.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Materialized per-user, per-subject study counts for one calendar day. Week and month series
+ * are coarsened from these rows on read, so a year of history is at most one row per subject
+ * per active day.
+ */
+@Entity
+@Table(name = "user_subject_daily_activity",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "subject_id", "activity_date"}),
+        indexes = {
+                @Index(name = "idx_user_subject_daily_activity_user_date", columnList = "user_id, activity_date")
+        }
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class UserSubjectActivity {
+
+  @Id
+  @UuidV7Id
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "subject_id", nullable = false)
+  private Subject subject;
+
+  // Local date of studiedAt
+  @Column(name = "activity_date", nullable = false)
+  private LocalDate activityDate;
+
+  // Topic studies (entry-topic links) under the subject that day
+  @Column(name = "study_count", nullable = false)
+  @Builder.Default
+  private int studyCount = 0;
+
+  @Column(name = "priority_count", nullable = false)
+  @Builder.Default
+  private int priorityCount = 0;
+
+  public void record(int studies, int priorities) {
+    studyCount += studies;
+    priorityCount += priorities;
+  }
+}
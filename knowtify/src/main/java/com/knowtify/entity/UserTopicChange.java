@@ -0,0 +1,37 @@
+package com.knowtify.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Last change sequence (the user's data version at the time) at which a topic's all-time
+ * summary changed for a user. Indexed on (user_id, change_seq) so "what changed since v" is a
+ * range scan.
+ */
+@Entity
+@Table(name = "user_topic_changes",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "topic_id"}),
+        indexes = {
+                @Index(name = "idx_user_topic_changes_user_seq", columnList = "user_id, change_seq")
+        }
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class UserTopicChange {
+
+  @Id
+  @UuidV7Id
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "topic_id", nullable = false)
+  private Topic topic;
+
+  @Column(name = "change_seq", nullable = false)
+  private long changeSeq;
+}
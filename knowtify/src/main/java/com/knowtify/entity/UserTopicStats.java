@@ -0,0 +1,60 @@
+package com.knowtify.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized per-user, per-topic study counters bucketed by ISO week.
+ * Maintained on ingest so reports and knowledge maps don't rescan entries.
+ */
+@Entity
+@Table(name = "user_topic_stats",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "topic_id", "week_year", "week_number"}),
+        indexes = {
+                @Index(name = "idx_user_topic_stats_user_week", columnList = "user_id, week_year, week_number")
+        }
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class UserTopicStats {
+
+  @Id
+  @UuidV7Id
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "topic_id", nullable = false)
+  private Topic topic;
+
+  // ISO week-based year and week number of the bucket
+  @Column(name = "week_year", nullable = false)
+  private int weekYear;
+
+  @Column(name = "week_number", nullable = false)
+  private int weekNumber;
+
+  @Column(name = "study_count", nullable = false)
+  @Builder.Default
+  private int studyCount = 0;
+
+  @Column(name = "any_priority", nullable = false)
+  @Builder.Default
+  private boolean anyPriority = false;
+
+  @Column(name = "last_studied_at")
+  private LocalDateTime lastStudiedAt;
+
+  public void record(int studies, boolean priority, LocalDateTime studiedAt) {
+    studyCount += studies;
+    anyPriority = anyPriority || priority;
+    if (studiedAt != null && (lastStudiedAt == null || studiedAt.isAfter(lastStudiedAt))) {
+      lastStudiedAt = studiedAt;
+    }
+  }
+}
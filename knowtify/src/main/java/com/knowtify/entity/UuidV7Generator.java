@@ -0,0 +1,13 @@
+package com.knowtify.entity;
+
+import com.knowtify.util.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+public class UuidV7Generator implements IdentifierGenerator {
+
+  @Override
+  public Object generate(SharedSessionContractImplementor session, Object object) {
+    return UuidV7.generate();
+  }
+}
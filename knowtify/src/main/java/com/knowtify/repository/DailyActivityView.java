@@ -0,0 +1,13 @@
+package com.knowtify.repository;
+
+import java.time.LocalDate;
+
+/**
+ * One (subject, day) activity row, read off the (user_id, activity_date) index.
+ */
+public interface DailyActivityView {
+  String getSubjectName();
+  LocalDate getActivityDate();
+  int getStudyCount();
+  int getPriorityCount();
+}
@@ -0,0 +1,19 @@
+package com.knowtify.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A topic due for review, read straight off the (user_id, due_at) index plus the topic and subject names.
+ */
+public interface DueReviewView {
+  UUID getTopicId();
+  String getTopicName();
+  String getSubjectName();
+  LocalDateTime getDueAt();
+  LocalDateTime getLastStudiedAt();
+  double getIntervalDays();
+  double getEaseFactor();
+  int getRepetitions();
+  int getLapses();
+}
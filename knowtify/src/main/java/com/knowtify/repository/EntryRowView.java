@@ -0,0 +1,13 @@
+package com.knowtify.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Scalar columns of a study entry, without its links.
+ */
+public interface EntryRowView {
+  UUID getId();
+  String getOriginalSentence();
+  LocalDateTime getStudiedAt();
+}
@@ -0,0 +1,13 @@
+package com.knowtify.repository;
+
+import java.util.UUID;
+
+/**
+ * One topic link of a study entry, flattened for batch loading by entry id.
+ */
+public interface EntryTopicView {
+  UUID getEntryId();
+  String getTopicName();
+  String getSubjectName();
+  Boolean getPriority();
+}
@@ -0,0 +1,14 @@
+package com.knowtify.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat (topic, subject, studiedAt, priority) row for a single study entry link, used to backfill aggregates.
+ */
+public interface LinkActivityView {
+  UUID getTopicId();
+  UUID getSubjectId();
+  LocalDateTime getStudiedAt();
+  Boolean getPriority();
+}
@@ -0,0 +1,23 @@
+package com.knowtify.repository;
+
+import com.knowtify.entity.ParseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ParseCacheEntryRepository extends JpaRepository<ParseCacheEntry, String> {
+  // Run through SavepointInserts by ParseResultCache, so a cache failure never affects the caller's transaction
+  String SELECT_ENTRY = "SELECT payload, created_at FROM parse_cache WHERE cache_key = ?";
+  String INSERT_ENTRY = "INSERT INTO parse_cache (cache_key, model, prompt_version, payload, created_at) " +
+          "VALUES (?, ?, ?, ?, ?)";
+  String DELETE_ENTRY = "DELETE FROM parse_cache WHERE cache_key = ?";
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM ParseCacheEntry e WHERE e.createdAt < :cutoff")
+  int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,52 @@
+package com.knowtify.repository;
+
+import com.knowtify.entity.ReviewState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReviewStateRepository extends JpaRepository<ReviewState, UUID> {
+
+  // First study of a topic, run through SavepointInserts so a concurrent creator isn't fatal
+  String INSERT_STATE = "INSERT INTO review_states " +
+          "(id, user_id, topic_id, ease_factor, interval_days, repetitions, lapses, due_at) " +
+          "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  // Unique (user_id, topic_id) lookups for just the topics of one entry, locked for the
+  // read-modify-write of the schedule; topic order keeps concurrent writers from deadlocking
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT rs FROM ReviewState rs WHERE rs.user.id = :userId AND rs.topic.id IN :topicIds " +
+          "ORDER BY rs.topic.id")
+  List<ReviewState> lockByUserAndTopics(@Param("userId") UUID userId,
+                                        @Param("topicIds") Collection<UUID> topicIds);
+
+  // Range scan on idx_review_states_user_due, oldest due first; stops after the limit
+  @Query("SELECT t.id AS topicId, t.name AS topicName, s.name AS subjectName, " +
+          "rs.dueAt AS dueAt, rs.lastStudiedAt AS lastStudiedAt, rs.intervalDays AS intervalDays, " +
+          "rs.easeFactor AS easeFactor, rs.repetitions AS repetitions, rs.lapses AS lapses " +
+          "FROM ReviewState rs " +
+          "JOIN rs.topic t " +
+          "JOIN t.subject s " +
+          "WHERE rs.user.id = :userId AND rs.dueAt <= :dueBy " +
+          "ORDER BY rs.dueAt ASC, t.id ASC")
+  List<DueReviewView> findDue(@Param("userId") UUID userId,
+                              @Param("dueBy") LocalDateTime dueBy,
+                              Limit limit);
+
+  @Modifying
+  @Query("DELETE FROM ReviewState rs WHERE rs.user.id = :userId")
+  int deleteByUserId(@Param("userId") UUID userId);
+
+  @Modifying
+  @Query("DELETE FROM ReviewState rs WHERE rs.topic.id IN :topicIds")
+  int deleteByTopicIds(@Param("topicIds") Collection<UUID> topicIds);
+}
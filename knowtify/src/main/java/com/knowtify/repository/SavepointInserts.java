@@ -0,0 +1,71 @@
+package com.knowtify.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * Conflict-tolerant INSERT of a row guarded by a unique key, inside the caller's transaction.
+ * The statement runs under a JDBC savepoint; on a unique violation only the savepoint is rolled
+ * back, so the transaction stays usable and the caller can update or re-read the row the
+ * concurrent writer created. Works the same on PostgreSQL and H2 (SQLSTATE 23505 on both).
+ * <p>
+ * Plain JDBC on the session's connection on purpose: a failed JPA query would mark the whole
+ * transaction rollback-only. The statement bypasses the persistence context, so rows it
+ * references must already be in the database, not just pending in the session.
+ */
+@Component
+public class SavepointInserts {
+
+  private static final String UNIQUE_VIOLATION = "23505";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Runs {@code sql} with {@code params}. Returns false, having changed nothing, if a row with
+   * the same unique key already exists.
+   */
+  public boolean insertIfAbsent(String sql, Object... params) {
+    return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+      Savepoint savepoint = connection.setSavepoint();
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        for (int i = 0; i < params.length; i++) {
+          statement.setObject(i + 1, params[i]);
+        }
+        statement.executeUpdate();
+      } catch (SQLException e) {
+        connection.rollback(savepoint);
+        if (UNIQUE_VIOLATION.equals(e.getSQLState())) return false;
+        throw e;
+      }
+      connection.releaseSavepoint(savepoint);
+      return true;
+    });
+  }
+
+  /**
+   * Runs {@code work} on the transaction's connection under a savepoint. If it fails, only the
+   * savepoint is rolled back before the exception propagates, so the transaction stays usable.
+   */
+  public <T> T isolated(ReturningWork<T> work) {
+    return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+      Savepoint savepoint = connection.setSavepoint();
+      T result;
+      try {
+        result = work.execute(connection);
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback(savepoint);
+        throw e;
+      }
+      connection.releaseSavepoint(savepoint);
+      return result;
+    });
+  }
+}
@@ -1,13 +1,16 @@
 package com.knowtify.repository;
 
+import com.knowtify.entity.EntryStatus;
 import com.knowtify.entity.StudyEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -33,4 +36,83 @@ public interface StudyEntryRepository extends JpaRepository<StudyEntry, UUID> {
           @Param("userId") UUID userId,
           @Param("startDate") LocalDateTime startDate,
           @Param("endDate") LocalDateTime endDate);
+
+  // Keyset pagination over (studied_at, id), newest first; backed by idx_study_entries_user_studied_at
+  @Query("SELECT se.id AS id, se.originalSentence AS originalSentence, se.studiedAt AS studiedAt " +
+          "FROM StudyEntry se " +
+          "WHERE se.user.id = :userId " +
+          "ORDER BY se.studiedAt DESC, se.id DESC")
+  List<EntryRowView> findLatestRows(@Param("userId") UUID userId, Limit limit);
+
+  @Query("SELECT se.id AS id, se.originalSentence AS originalSentence, se.studiedAt AS studiedAt " +
+          "FROM StudyEntry se " +
+          "WHERE se.user.id = :userId " +
+          "AND (se.studiedAt < :studiedAt OR (se.studiedAt = :studiedAt AND se.id < :id)) " +
+          "ORDER BY se.studiedAt DESC, se.id DESC")
+  List<EntryRowView> findRowsBefore(
+          @Param("userId") UUID userId,
+          @Param("studiedAt") LocalDateTime studiedAt,
+          @Param("id") UUID id,
+          Limit limit);
+
+  // Same keyset, oldest first (used by the history export)
+  @Query("SELECT se.id AS id, se.originalSentence AS originalSentence, se.studiedAt AS studiedAt " +
+          "FROM StudyEntry se " +
+          "WHERE se.user.id = :userId " +
+          "ORDER BY se.studiedAt ASC, se.id ASC")
+  List<EntryRowView> findOldestRows(@Param("userId") UUID userId, Limit limit);
+
+  @Query("SELECT se.id AS id, se.originalSentence AS originalSentence, se.studiedAt AS studiedAt " +
+          "FROM StudyEntry se " +
+          "WHERE se.user.id = :userId " +
+          "AND (se.studiedAt > :studiedAt OR (se.studiedAt = :studiedAt AND se.id > :id)) " +
+          "ORDER BY se.studiedAt ASC, se.id ASC")
+  List<EntryRowView> findRowsAfter(
+          @Param("userId") UUID userId,
+          @Param("studiedAt") LocalDateTime studiedAt,
+          @Param("id") UUID id,
+          Limit limit);
+
+  // Entries left in a status (PENDING after a restart), oldest first
+  @Query("SELECT se.id AS id, se.originalSentence AS originalSentence, se.studiedAt AS studiedAt " +
+          "FROM StudyEntry se " +
+          "WHERE se.status = :status " +
+          "ORDER BY se.studiedAt ASC, se.id ASC")
+  List<EntryRowView> findRowsByStatus(@Param("status") EntryStatus status);
+
+  @Modifying
+  @Query("UPDATE StudyEntry se SET se.status = :to WHERE se.status = :from AND se.studiedAt < :before")
+  int updateStatusBefore(
+          @Param("from") EntryStatus from,
+          @Param("to") EntryStatus to,
+          @Param("before") LocalDateTime before);
+
+  // Knowledge map aggregation: grouped in the DB, no entity hydration
+  @Query("SELECT t.id AS topicId, s.name AS subjectName, t.name AS topicName, " +
+          "COUNT(l) AS studyCount, " +
+          "MAX(CASE WHEN l.isPriority = true THEN 1 ELSE 0 END) AS priorityFlag, " +
+          "MAX(se.studiedAt) AS lastStudiedAt " +
+          "FROM StudyEntryTopic l " +
+          "JOIN l.studyEntry se " +
+          "JOIN l.topic t " +
+          "JOIN t.subject s " +
+          "WHERE se.user.id = :userId " +
+          "GROUP BY t.id, t.name, s.name")
+  List<TopicAggregateView> aggregateTopicsByUser(@Param("userId") UUID userId);
+
+  @Query("SELECT t.id AS topicId, s.name AS subjectName, t.name AS topicName, " +
+          "COUNT(l) AS studyCount, " +
+          "MAX(CASE WHEN l.isPriority = true THEN 1 ELSE 0 END) AS priorityFlag, " +
+          "MAX(se.studiedAt) AS lastStudiedAt " +
+          "FROM StudyEntryTopic l " +
+          "JOIN l.studyEntry se " +
+          "JOIN l.topic t " +
+          "JOIN t.subject s " +
+          "WHERE se.user.id = :userId " +
+          "AND se.studiedAt BETWEEN :from AND :to " +
+          "GROUP BY t.id, t.name, s.name")
+  List<TopicAggregateView> aggregateTopicsByUserBetween(
+          @Param("userId") UUID userId,
+          @Param("from") LocalDateTime from,
+          @Param("to") LocalDateTime to);
 }
@@ -1,9 +1,58 @@
 package com.knowtify.repository;
 
 import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Topic;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface StudyEntryTopicRepository extends JpaRepository<StudyEntryTopic, UUID> {
+
+  @Query("SELECT l.studyEntry.id AS entryId, t.name AS topicName, s.name AS subjectName, l.isPriority AS priority " +
+          "FROM StudyEntryTopic l " +
+          "JOIN l.topic t " +
+          "JOIN t.subject s " +
+          "WHERE l.studyEntry.id IN :entryIds")
+  List<EntryTopicView> findTopicsByEntryIds(@Param("entryIds") Collection<UUID> entryIds);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT t.id AS topicId, t.subject.id AS subjectId, se.studiedAt AS studiedAt, l.isPriority AS priority " +
+          "FROM StudyEntryTopic l " +
+          "JOIN l.studyEntry se " +
+          "JOIN l.topic t " +
+          "WHERE se.user.id = :userId")
+  Stream<LinkActivityView> streamActivityByUser(@Param("userId") UUID userId);
+
+  // Oldest study first, read off idx_study_entries_user_studied_at, for replays that depend on order
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT t.id AS topicId, t.subject.id AS subjectId, se.studiedAt AS studiedAt, l.isPriority AS priority " +
+          "FROM StudyEntryTopic l " +
+          "JOIN l.studyEntry se " +
+          "JOIN l.topic t " +
+          "WHERE se.user.id = :userId " +
+          "ORDER BY se.studiedAt ASC, se.id ASC")
+  Stream<LinkActivityView> streamActivityByUserInStudyOrder(@Param("userId") UUID userId);
+
+  @Query("SELECT DISTINCT se.user.id FROM StudyEntryTopic l JOIN l.studyEntry se WHERE l.topic.id IN :topicIds")
+  List<UUID> findUserIdsByTopicIds(@Param("topicIds") Collection<UUID> topicIds);
+
+  // Links to `from` on entries that already link `to`; repointing them would break the unique key
+  @Modifying
+  @Query("DELETE FROM StudyEntryTopic l WHERE l.topic.id = :from AND l.studyEntry.id IN " +
+          "(SELECT o.studyEntry.id FROM StudyEntryTopic o WHERE o.topic.id = :to)")
+  int deleteLinksDuplicatedOn(@Param("from") UUID from, @Param("to") UUID to);
+
+  @Modifying
+  @Query("UPDATE StudyEntryTopic l SET l.topic = :to WHERE l.topic.id = :from")
+  int repointLinks(@Param("from") UUID from, @Param("to") Topic to);
 }
@@ -7,5 +7,9 @@ import java.util.Optional;
 import java.util.UUID;
 
 public interface SubjectRepository extends JpaRepository<Subject, UUID> {
+
+  // Created through SavepointInserts inside the caller's transaction
+  String INSERT_SUBJECT = "INSERT INTO subjects (id, name, description) VALUES (?, ?, ?)";
+
   Optional<Subject> findByNameIgnoreCase(String name);
 }
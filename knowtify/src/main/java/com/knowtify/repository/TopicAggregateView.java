@@ -0,0 +1,21 @@
+package com.knowtify.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-topic aggregate computed in the database (one row per topic a user has studied).
+ */
+public interface TopicAggregateView {
+  UUID getTopicId();
+  String getSubjectName();
+  String getTopicName();
+  Long getStudyCount();
+  Integer getPriorityFlag(); // 1 if any link was marked priority
+  LocalDateTime getLastStudiedAt();
+
+  default boolean isAnyPriority() {
+    Integer flag = getPriorityFlag();
+    return flag != null && flag > 0;
+  }
+}
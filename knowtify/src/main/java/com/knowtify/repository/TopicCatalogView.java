@@ -0,0 +1,9 @@
+package com.knowtify.repository;
+
+/**
+ * Topic name with its subject, for building the offline classifier's dictionary.
+ */
+public interface TopicCatalogView {
+  String getName();
+  String getSubject();
+}
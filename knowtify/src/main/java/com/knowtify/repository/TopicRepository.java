@@ -1,11 +1,38 @@
 package com.knowtify.repository;
 
 import com.knowtify.entity.Topic;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TopicRepository extends JpaRepository<Topic, UUID> {
-  Optional<Topic> findByNameIgnoreCaseAndSubject_Id(String name, UUID subjectId);
+  // Created through SavepointInserts inside the caller's transaction; name_key is Topic.nameKey(name)
+  String INSERT_TOPIC = "INSERT INTO topics (id, subject_id, name, name_key, confidence_score) " +
+          "VALUES (?, ?, ?, ?, ?)";
+
+  // Served by uk_topics_subject_name_key
+  Optional<Topic> findBySubject_IdAndNameKey(UUID subjectId, String nameKey);
+
+  boolean existsByNameKeyIsNull();
+
+  @Modifying
+  @Query("DELETE FROM Topic t WHERE t.id IN :ids")
+  int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+  // Highest-confidence topics first, so a capped catalogue keeps the most reliable names.
+  // Fallback topics (unknown terms filed under the catch-all subject) are left out, so the
+  // classifier never learns its own guesses back as known topics.
+  @Query("SELECT t.name AS name, s.name AS subject FROM Topic t JOIN t.subject s " +
+          "WHERE t.confidenceScore >= :minConfidence AND s.name <> :excludedSubject " +
+          "ORDER BY t.confidenceScore DESC")
+  List<TopicCatalogView> findCatalog(@Param("minConfidence") double minConfidence,
+                                     @Param("excludedSubject") String excludedSubject,
+                                     Pageable page);
 }
@@ -2,11 +2,25 @@ package com.knowtify.repository;
 
 import com.knowtify.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
   Optional<User> findByUsername(String username);
   boolean existsByUsername(String username);
+
+  @Query("SELECT u.id FROM User u")
+  List<UUID> findAllIds();
+
+  @Query("SELECT u.dataVersion FROM User u WHERE u.id = :userId")
+  Optional<Long> findDataVersion(@Param("userId") UUID userId);
+
+  @Modifying
+  @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.id = :userId")
+  int incrementDataVersion(@Param("userId") UUID userId);
 }
@@ -0,0 +1,44 @@
+package com.knowtify.repository;
+
+import com.knowtify.entity.UserSubjectActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserSubjectActivityRepository extends JpaRepository<UserSubjectActivity, UUID> {
+
+  // First write to a day, run through SavepointInserts so a concurrent creator isn't fatal
+  String INSERT_DAY = "INSERT INTO user_subject_daily_activity " +
+          "(id, user_id, subject_id, activity_date, study_count, priority_count) " +
+          "VALUES (?, ?, ?, ?, ?, ?)";
+
+  // Atomic in-place increment; returns 0 when the day has no row for the subject yet
+  @Modifying
+  @Query("UPDATE UserSubjectActivity a SET " +
+          "a.studyCount = a.studyCount + :studies, " +
+          "a.priorityCount = a.priorityCount + :priorities " +
+          "WHERE a.user.id = :userId AND a.subject.id = :subjectId AND a.activityDate = :day")
+  int increment(@Param("userId") UUID userId,
+                @Param("subjectId") UUID subjectId,
+                @Param("day") LocalDate day,
+                @Param("studies") int studies,
+                @Param("priorities") int priorities);
+
+  @Query("SELECT s.name AS subjectName, a.activityDate AS activityDate, " +
+          "a.studyCount AS studyCount, a.priorityCount AS priorityCount " +
+          "FROM UserSubjectActivity a " +
+          "JOIN a.subject s " +
+          "WHERE a.user.id = :userId AND a.activityDate BETWEEN :from AND :to")
+  List<DailyActivityView> findDaily(@Param("userId") UUID userId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+  @Modifying
+  @Query("DELETE FROM UserSubjectActivity a WHERE a.user.id = :userId")
+  int deleteByUserId(@Param("userId") UUID userId);
+}
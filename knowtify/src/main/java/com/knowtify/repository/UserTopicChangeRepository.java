@@ -0,0 +1,39 @@
+package com.knowtify.repository;
+
+import com.knowtify.entity.UserTopicChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserTopicChangeRepository extends JpaRepository<UserTopicChange, UUID> {
+
+  // Stamps existing rows in one statement; returns how many of the topics already had one
+  @Modifying
+  @Query("UPDATE UserTopicChange c SET c.changeSeq = :seq " +
+          "WHERE c.user.id = :userId AND c.topic.id IN :topicIds")
+  int stamp(@Param("userId") UUID userId,
+            @Param("topicIds") Collection<UUID> topicIds,
+            @Param("seq") long seq);
+
+  @Query("SELECT c.topic.id FROM UserTopicChange c WHERE c.user.id = :userId AND c.topic.id IN :topicIds")
+  List<UUID> findTrackedTopicIds(@Param("userId") UUID userId,
+                                 @Param("topicIds") Collection<UUID> topicIds);
+
+  // Range scan on idx_user_topic_changes_user_seq
+  @Query("SELECT c.topic.id FROM UserTopicChange c " +
+          "WHERE c.user.id = :userId AND c.changeSeq > :since " +
+          "ORDER BY c.changeSeq ASC")
+  List<UUID> findTopicIdsChangedSince(@Param("userId") UUID userId,
+                                      @Param("since") long since,
+                                      Limit limit);
+
+  @Modifying
+  @Query("DELETE FROM UserTopicChange c WHERE c.topic.id IN :topicIds")
+  int deleteByTopicIds(@Param("topicIds") Collection<UUID> topicIds);
+}
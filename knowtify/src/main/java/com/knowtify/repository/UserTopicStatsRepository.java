@@ -0,0 +1,83 @@
+package com.knowtify.repository;
+
+import com.knowtify.entity.UserTopicStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserTopicStatsRepository extends JpaRepository<UserTopicStats, UUID> {
+
+  // First write to a bucket, run through SavepointInserts so a concurrent creator isn't fatal
+  String INSERT_BUCKET = "INSERT INTO user_topic_stats " +
+          "(id, user_id, topic_id, week_year, week_number, study_count, any_priority, last_studied_at) " +
+          "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  // Atomic in-place increment; returns 0 when the bucket does not exist yet
+  @Modifying
+  @Query("UPDATE UserTopicStats st SET " +
+          "st.studyCount = st.studyCount + :studies, " +
+          "st.anyPriority = CASE WHEN :priority = true THEN true ELSE st.anyPriority END, " +
+          "st.lastStudiedAt = CASE WHEN st.lastStudiedAt IS NULL OR st.lastStudiedAt < :studiedAt " +
+          "THEN :studiedAt ELSE st.lastStudiedAt END " +
+          "WHERE st.user.id = :userId AND st.topic.id = :topicId " +
+          "AND st.weekYear = :weekYear AND st.weekNumber = :weekNumber")
+  int increment(@Param("userId") UUID userId,
+                @Param("topicId") UUID topicId,
+                @Param("weekYear") int weekYear,
+                @Param("weekNumber") int weekNumber,
+                @Param("studies") int studies,
+                @Param("priority") boolean priority,
+                @Param("studiedAt") LocalDateTime studiedAt);
+
+  @Query("SELECT t.id AS topicId, s.name AS subjectName, t.name AS topicName, " +
+          "SUM(st.studyCount) AS studyCount, " +
+          "MAX(CASE WHEN st.anyPriority = true THEN 1 ELSE 0 END) AS priorityFlag, " +
+          "MAX(st.lastStudiedAt) AS lastStudiedAt " +
+          "FROM UserTopicStats st " +
+          "JOIN st.topic t " +
+          "JOIN t.subject s " +
+          "WHERE st.user.id = :userId " +
+          "GROUP BY t.id, t.name, s.name")
+  List<TopicAggregateView> aggregateAllTime(@Param("userId") UUID userId);
+
+  // All-time summary of just the given topics (delta sync)
+  @Query("SELECT t.id AS topicId, s.name AS subjectName, t.name AS topicName, " +
+          "SUM(st.studyCount) AS studyCount, " +
+          "MAX(CASE WHEN st.anyPriority = true THEN 1 ELSE 0 END) AS priorityFlag, " +
+          "MAX(st.lastStudiedAt) AS lastStudiedAt " +
+          "FROM UserTopicStats st " +
+          "JOIN st.topic t " +
+          "JOIN t.subject s " +
+          "WHERE st.user.id = :userId AND t.id IN :topicIds " +
+          "GROUP BY t.id, t.name, s.name")
+  List<TopicAggregateView> aggregateAllTimeForTopics(@Param("userId") UUID userId,
+                                                     @Param("topicIds") Collection<UUID> topicIds);
+
+  @Query("SELECT t.id AS topicId, s.name AS subjectName, t.name AS topicName, " +
+          "SUM(st.studyCount) AS studyCount, " +
+          "MAX(CASE WHEN st.anyPriority = true THEN 1 ELSE 0 END) AS priorityFlag, " +
+          "MAX(st.lastStudiedAt) AS lastStudiedAt " +
+          "FROM UserTopicStats st " +
+          "JOIN st.topic t " +
+          "JOIN t.subject s " +
+          "WHERE st.user.id = :userId " +
+          "AND st.weekYear = :weekYear AND st.weekNumber = :weekNumber " +
+          "GROUP BY t.id, t.name, s.name")
+  List<TopicAggregateView> aggregateWeek(@Param("userId") UUID userId,
+                                         @Param("weekYear") int weekYear,
+                                         @Param("weekNumber") int weekNumber);
+
+  @Modifying
+  @Query("DELETE FROM UserTopicStats st WHERE st.user.id = :userId")
+  int deleteByUserId(@Param("userId") UUID userId);
+
+  @Modifying
+  @Query("DELETE FROM UserTopicStats st WHERE st.topic.id IN :topicIds")
+  int deleteByTopicIds(@Param("topicIds") Collection<UUID> topicIds);
+}
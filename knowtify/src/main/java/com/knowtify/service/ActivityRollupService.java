@@ -0,0 +1,183 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.ActivityHeatmapResponse;
+import com.knowtify.dto.StudyDtos.TimeSeriesResponse;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.User;
+import com.knowtify.entity.UserSubjectActivity;
+import com.knowtify.repository.DailyActivityView;
+import com.knowtify.repository.LinkActivityView;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.repository.SubjectRepository;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.repository.UserSubjectActivityRepository;
+import com.knowtify.util.UuidV7;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-user, per-subject daily activity rollup ({@link UserSubjectActivity}) on
+ * ingest and serves activity time series from it. A year of history for one user is at most
+ * 365 rows per subject, read with one range scan on (user_id, activity_date) and folded by
+ * {@link ActivitySeries}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityRollupService {
+
+  public enum Granularity {
+    DAY, WEEK, MONTH;
+
+    /** Case-insensitive name, or null if {@code value} isn't one. */
+    public static Granularity parse(String value) {
+      if (value == null) return null;
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        return null;
+      }
+    }
+  }
+
+  private final UserSubjectActivityRepository userSubjectActivityRepository;
+  private final StudyEntryTopicRepository studyEntryTopicRepository;
+  private final UserRepository userRepository;
+  private final SubjectRepository subjectRepository;
+  private final SavepointInserts savepointInserts;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Counts the links of a freshly created entry into the user's daily rows. {@code subjectIds}
+   * maps every link's topic id to its subject id as the caller resolved it, so new topics (which
+   * are uninitialized references) aren't loaded just to find their subject.
+   * Runs inside the caller's transaction.
+   */
+  @Transactional
+  public void recordLinks(UUID userId, LocalDateTime studiedAt, List<StudyEntryTopic> links,
+                          Map<UUID, UUID> subjectIds) {
+    if (links == null || links.isEmpty()) return;
+
+    Map<DayKey, int[]> deltas = new TreeMap<>(DayKey.ORDER);
+    for (StudyEntryTopic link : links) {
+      addLink(deltas, link, studiedAt, subjectIds);
+    }
+    applyDeltas(userId, deltas);
+  }
+
+  /**
+   * Bulk variant of {@link #recordLinks} for links of many entries, each with its own studiedAt;
+   * one statement per (subject, day) touched.
+   */
+  @Transactional
+  public void recordEntryLinks(UUID userId, Collection<StudyEntryTopic> links, Map<UUID, UUID> subjectIds) {
+    if (links == null || links.isEmpty()) return;
+
+    Map<DayKey, int[]> deltas = new TreeMap<>(DayKey.ORDER);
+    for (StudyEntryTopic link : links) {
+      addLink(deltas, link, link.getStudyEntry().getStudiedAt(), subjectIds);
+    }
+    applyDeltas(userId, deltas);
+  }
+
+  private static void addLink(Map<DayKey, int[]> deltas, StudyEntryTopic link, LocalDateTime studiedAt,
+                              Map<UUID, UUID> subjectIds) {
+    DayKey key = new DayKey(subjectIds.get(link.getTopic().getId()), studiedAt.toLocalDate());
+    int[] delta = deltas.computeIfAbsent(key, k -> new int[2]);
+    delta[0]++;
+    if (Boolean.TRUE.equals(link.getIsPriority())) delta[1]++;
+  }
+
+  /**
+   * Increment, else insert, else (a concurrent writer inserted first) increment again. Days are
+   * visited in key order, so two entries touching the same rows lock them in the same order and
+   * can't deadlock each other.
+   */
+  private void applyDeltas(UUID userId, Map<DayKey, int[]> deltas) {
+    deltas.forEach((key, delta) -> {
+      if (increment(userId, key, delta) > 0) return;
+      boolean inserted = savepointInserts.insertIfAbsent(UserSubjectActivityRepository.INSERT_DAY,
+          UuidV7.generate(), userId, key.subjectId(), key.day(), delta[0], delta[1]);
+      if (!inserted) {
+        increment(userId, key, delta);
+      }
+    });
+  }
+
+  private int increment(UUID userId, DayKey key, int[] delta) {
+    return userSubjectActivityRepository.increment(userId, key.subjectId(), key.day(), delta[0], delta[1]);
+  }
+
+  /**
+   * Study counts per subject over [from, to] at {@code granularity}.
+   */
+  @Transactional(readOnly = true)
+  public TimeSeriesResponse getTimeSeries(UUID userId, Granularity granularity, LocalDate from, LocalDate to) {
+    List<DailyActivityView> rows = userSubjectActivityRepository.findDaily(userId, from, to);
+    return ActivitySeries.of(granularity, from, to, rows).toResponse();
+  }
+
+  /**
+   * Daily totals over [from, to] for a calendar heatmap.
+   */
+  @Transactional(readOnly = true)
+  public ActivityHeatmapResponse getHeatmap(UUID userId, LocalDate from, LocalDate to) {
+    List<DailyActivityView> rows = userSubjectActivityRepository.findDaily(userId, from, to);
+    return ActivitySeries.of(Granularity.DAY, from, to, rows).toHeatmap();
+  }
+
+  /**
+   * Recomputes every user's daily rows from the raw study_entry_topics rows, one transaction
+   * per user.
+   */
+  public int rebuildAll() {
+    int rows = 0;
+    for (UUID userId : userRepository.findAllIds()) {
+      Integer written = transactionTemplate.execute(status -> rebuildUser(userId));
+      rows += written == null ? 0 : written;
+    }
+    log.info("Rebuilt user_subject_daily_activity: {} rows", rows);
+    return rows;
+  }
+
+  private int rebuildUser(UUID userId) {
+    userSubjectActivityRepository.deleteByUserId(userId);
+
+    Map<DayKey, UserSubjectActivity> days = new HashMap<>();
+    User user = userRepository.getReferenceById(userId);
+
+    try (Stream<LinkActivityView> activity = studyEntryTopicRepository.streamActivityByUser(userId)) {
+      activity.forEach(row -> {
+        DayKey key = new DayKey(row.getSubjectId(), row.getStudiedAt().toLocalDate());
+        days.computeIfAbsent(key, k -> UserSubjectActivity.builder()
+                .user(user)
+                .subject(subjectRepository.getReferenceById(k.subjectId()))
+                .activityDate(k.day())
+                .build())
+            .record(1, Boolean.TRUE.equals(row.getPriority()) ? 1 : 0);
+      });
+    }
+
+    userSubjectActivityRepository.saveAll(days.values());
+    return days.size();
+  }
+
+  @Transactional(readOnly = true)
+  public boolean needsBackfill() {
+    return userSubjectActivityRepository.count() == 0 && studyEntryTopicRepository.count() > 0;
+  }
+
+  private record DayKey(UUID subjectId, LocalDate day) {
+    static final Comparator<DayKey> ORDER = Comparator.comparing(DayKey::subjectId)
+        .thenComparing(DayKey::day);
+  }
+}
@@ -0,0 +1,134 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.ActivityHeatmapResponse;
+import com.knowtify.dto.StudyDtos.SubjectSeries;
+import com.knowtify.dto.StudyDtos.TimeSeriesResponse;
+import com.knowtify.repository.DailyActivityView;
+import com.knowtify.service.ActivityRollupService.Granularity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Folds daily (subject, day) activity rows into fixed-size per-subject count arrays at day,
+ * week or month granularity. A row's bucket is index arithmetic on its epoch day, so a range is
+ * one pass over its rows with no per-bucket objects; only days inside [from, to] are counted,
+ * so the first and last week / month buckets may be partial.
+ */
+final class ActivitySeries {
+
+  private final Granularity granularity;
+  private final LocalDate from;
+  private final LocalDate to;
+  private final LocalDate firstBucket;
+  private final int bucketCount;
+  private final int[] totals;
+  private final Map<String, int[]> subjects = new HashMap<>();
+
+  ActivitySeries(Granularity granularity, LocalDate from, LocalDate to) {
+    this.granularity = granularity;
+    this.from = from;
+    this.to = to;
+    this.firstBucket = switch (granularity) {
+      case DAY -> from;
+      case WEEK -> from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> from.withDayOfMonth(1);
+    };
+    this.bucketCount = bucketOf(to) + 1;
+    this.totals = new int[bucketCount];
+  }
+
+  static ActivitySeries of(Granularity granularity, LocalDate from, LocalDate to,
+                           Collection<? extends DailyActivityView> rows) {
+    ActivitySeries series = new ActivitySeries(granularity, from, to);
+    for (DailyActivityView row : rows) {
+      series.add(row.getSubjectName(), row.getActivityDate(), row.getStudyCount());
+    }
+    return series;
+  }
+
+  void add(String subject, LocalDate day, int studies) {
+    if (day.isBefore(from) || day.isAfter(to)) return;
+    int bucket = bucketOf(day);
+    subjects.computeIfAbsent(subject, s -> new int[bucketCount])[bucket] += studies;
+    totals[bucket] += studies;
+  }
+
+  private int bucketOf(LocalDate day) {
+    return switch (granularity) {
+      case DAY -> (int) (day.toEpochDay() - firstBucket.toEpochDay());
+      case WEEK -> (int) ((day.toEpochDay() - firstBucket.toEpochDay()) / 7);
+      case MONTH -> (day.getYear() - firstBucket.getYear()) * 12 + day.getMonthValue() - firstBucket.getMonthValue();
+    };
+  }
+
+  private LocalDate bucketStart(int bucket) {
+    return switch (granularity) {
+      case DAY -> firstBucket.plusDays(bucket);
+      case WEEK -> firstBucket.plusWeeks(bucket);
+      case MONTH -> firstBucket.plusMonths(bucket);
+    };
+  }
+
+  TimeSeriesResponse toResponse() {
+    List<LocalDate> buckets = new ArrayList<>(bucketCount);
+    for (int i = 0; i < bucketCount; i++) {
+      buckets.add(bucketStart(i));
+    }
+
+    List<SubjectSeries> series = new ArrayList<>(subjects.size());
+    subjects.forEach((name, counts) -> series.add(SubjectSeries.builder()
+        .subject(name)
+        .total(sum(counts))
+        .counts(counts)
+        .build()));
+    series.sort((a, b) -> {
+      int c = Integer.compare(b.getTotal(), a.getTotal());
+      return c != 0 ? c : a.getSubject().compareTo(b.getSubject());
+    });
+
+    return TimeSeriesResponse.builder()
+        .granularity(granularity.name().toLowerCase(Locale.ROOT))
+        .from(from)
+        .to(to)
+        .buckets(buckets)
+        .totals(totals)
+        .subjects(series)
+        .build();
+  }
+
+  /**
+   * Calendar heatmap of the day totals; only meaningful at {@link Granularity#DAY}.
+   */
+  ActivityHeatmapResponse toHeatmap() {
+    int max = 0;
+    int total = 0;
+    int activeDays = 0;
+    for (int count : totals) {
+      max = Math.max(max, count);
+      total += count;
+      if (count > 0) activeDays++;
+    }
+    return ActivityHeatmapResponse.builder()
+        .from(from)
+        .to(to)
+        .counts(totals)
+        .max(max)
+        .total(total)
+        .activeDays(activeDays)
+        .build();
+  }
+
+  private static int sum(int[] counts) {
+    int total = 0;
+    for (int count : counts) total += count;
+    return total;
+  }
+}
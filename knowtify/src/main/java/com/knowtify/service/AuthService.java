@@ -4,55 +4,112 @@ import com.knowtify.dto.AuthDtos.*;
 import com.knowtify.entity.User;
 import com.knowtify.repository.UserRepository;
 import com.knowtify.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Password hashing runs on {@link PasswordHashingService}'s pool, so both operations return futures.
+ * A future failed with {@link RejectedExecutionException} means the hashing queue is full.
+ * Registration then persists the user on a virtual thread, so the hashing workers only hash.
+ */
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
+  private static final String UNIQUE_VIOLATION = "23505"; // SQLSTATE on PostgreSQL and H2
+
   private final UserRepository userRepository;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashingService;
   private final JwtUtil jwtUtil;
+  private final MeterRegistry meterRegistry;
+  private final ExecutorService persistExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-  public RegisterResponse register(RegisterRequest request) {
-    // Check if username already exists
-    if (userRepository.existsByUsername(request.getUsername())) {
-      throw new RuntimeException("Username already exists");
-    }
-
-    // Create new user
-    User user = User.builder()
-      .username(request.getUsername())
-      .passwordHash(passwordEncoder.encode(request.getPassword()))
-      .build();
+  @PreDestroy
+  void shutdown() {
+    persistExecutor.shutdown();
+  }
 
-    user = userRepository.save(user);
+  public CompletableFuture<RegisterResponse> register(RegisterRequest request) {
+    return passwordHashingService.encode(request.getPassword())
+      .thenApplyAsync(passwordHash -> {
+        // No existsByUsername pre-check: the unique index on username decides
+        User user;
+        try {
+          user = userRepository.saveAndFlush(User.builder()
+            .username(request.getUsername())
+            .passwordHash(passwordHash)
+            .build());
+        } catch (DataIntegrityViolationException e) {
+          if (isUniqueViolation(e) && userRepository.existsByUsername(request.getUsername())) {
+            throw new RuntimeException("Username already exists");
+          }
+          throw e;
+        }
 
-    return RegisterResponse.builder()
-      .message("User registered successfully")
-      .userId(user.getId().toString())
-      .build();
+        return RegisterResponse.builder()
+          .message("User registered successfully")
+          .userId(user.getId().toString())
+          .build();
+      }, persistExecutor);
   }
 
-  public TokenResponse login(LoginRequest request) {
+  public CompletableFuture<TokenResponse> login(LoginRequest request) {
     // Find user by username
-    User user = userRepository.findByUsername(request.getUsername())
-      .orElseThrow(() -> new RuntimeException("Invalid credentials"));
+    Optional<User> found = userRepository.findByUsername(request.getUsername());
+    if (found.isEmpty()) {
+      recordLogin("invalid");
+      return CompletableFuture.failedFuture(new RuntimeException("Invalid credentials"));
+    }
+    User user = found.get();
 
-    // Check password
-    if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-      throw new RuntimeException("Invalid credentials");
+    // Check password off the request thread
+    return passwordHashingService.matches(request.getPassword(), user.getPasswordHash())
+      .thenApply(matches -> {
+        if (!matches) {
+          throw new RuntimeException("Invalid credentials");
+        }
+
+        // Generate JWT token
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername());
+
+        return TokenResponse.builder()
+          .accessToken(token)
+          .tokenType("bearer")
+          .message("Login successful")
+          .build();
+      })
+      .whenComplete((response, error) -> {
+        if (error == null) {
+          recordLogin("success");
+        } else {
+          recordLogin(unwrap(error) instanceof RejectedExecutionException ? "rejected" : "invalid");
+        }
+      });
+  }
+
+  private static boolean isUniqueViolation(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) return true;
     }
+    return false;
+  }
 
-    // Generate JWT token
-    String token = jwtUtil.generateToken(user.getId(), user.getUsername());
+  public static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+  }
 
-    return TokenResponse.builder()
-      .accessToken(token)
-      .tokenType("bearer")
-      .message("Login successful")
-      .build();
+  private void recordLogin(String outcome) {
+    meterRegistry.counter("knowtify.auth.login", "outcome", outcome).increment();
   }
 }
@@ -0,0 +1,317 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.knowtify.dto.StudyDtos.BulkEntryLine;
+import com.knowtify.dto.StudyDtos.BulkImportResponse;
+import com.knowtify.dto.StudyDtos.BulkLineError;
+import com.knowtify.entity.EntryStatus;
+import com.knowtify.entity.StudyEntry;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.repository.StudyEntryRepository;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.service.GeminiParsingService.ParseOutcome;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Loads NDJSON study logs ({"sentence": ..., "studiedAt": ...} per line).
+ * The body is read line by line and handled in chunks: parse (bounded concurrency), resolve
+ * subjects/topics once per distinct name, then insert entries and links as JDBC batches and
+ * commit. Memory stays proportional to the chunk size, not the file size.
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+
+  public enum ImportMode {
+    GEMINI, OFFLINE;
+
+    public static ImportMode from(String value) {
+      return ImportMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private static final int MAX_SENTENCE_LENGTH = 1000; // same limit as CreateEntryRequest
+  private static final String OFFLINE_SUBJECT = "Other";
+
+  private final StudyEntryRepository studyEntryRepository;
+  private final StudyEntryTopicRepository studyEntryTopicRepository;
+  private final UserRepository userRepository;
+  private final ParseRouter parseRouter;
+  private final LocalClassificationService localClassificationService;
+  private final SubjectService subjectService;
+  private final TopicService topicService;
+  private final UserTopicStatsService userTopicStatsService;
+  private final ReviewService reviewService;
+  private final ActivityRollupService activityRollupService;
+  private final DataVersionService dataVersionService;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final ObjectReader lineReader;
+  private final int chunkSize;
+  private final int maxErrors;
+  private final Semaphore parsePermits;
+  private final ExecutorService parseExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public BulkImportService(
+          StudyEntryRepository studyEntryRepository,
+          StudyEntryTopicRepository studyEntryTopicRepository,
+          UserRepository userRepository,
+          ParseRouter parseRouter,
+          LocalClassificationService localClassificationService,
+          SubjectService subjectService,
+          TopicService topicService,
+          UserTopicStatsService userTopicStatsService,
+          ReviewService reviewService,
+          ActivityRollupService activityRollupService,
+          DataVersionService dataVersionService,
+          PlatformTransactionManager transactionManager,
+          ObjectMapper objectMapper,
+          MeterRegistry meterRegistry,
+          @Value("${knowtify.import.chunk-size:500}") int chunkSize,
+          @Value("${knowtify.import.max-errors:1000}") int maxErrors,
+          @Value("${knowtify.import.parse-concurrency:32}") int parseConcurrency
+  ) {
+    this.studyEntryRepository = studyEntryRepository;
+    this.studyEntryTopicRepository = studyEntryTopicRepository;
+    this.userRepository = userRepository;
+    this.parseRouter = parseRouter;
+    this.localClassificationService = localClassificationService;
+    this.subjectService = subjectService;
+    this.topicService = topicService;
+    this.userTopicStatsService = userTopicStatsService;
+    this.reviewService = reviewService;
+    this.activityRollupService = activityRollupService;
+    this.dataVersionService = dataVersionService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.meterRegistry = meterRegistry;
+    this.lineReader = objectMapper.readerFor(BulkEntryLine.class);
+    this.chunkSize = chunkSize;
+    this.maxErrors = maxErrors;
+    // Shared across imports: caps concurrent model calls; with batching enabled, concurrent
+    // parses are coalesced into batch prompts by GeminiParsingService
+    this.parsePermits = new Semaphore(parseConcurrency);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    parseExecutor.shutdownNow();
+  }
+
+  private record ImportLine(long lineNumber, String sentence, LocalDateTime studiedAt) {}
+
+  private record ParsedLine(ImportLine line, ParseOutcome outcome) {}
+
+  public BulkImportResponse importEntries(UUID userId, InputStream body, ImportMode mode) throws IOException {
+    userRepository.findById(userId)
+        .orElseThrow(() -> new RuntimeException("User not found"));
+
+    long started = System.nanoTime();
+    ImportProgress progress = new ImportProgress(maxErrors);
+    List<ImportLine> chunk = new ArrayList<>(chunkSize);
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    String raw;
+    long lineNumber = 0;
+    while ((raw = reader.readLine()) != null) {
+      lineNumber++;
+      if (raw.isBlank()) continue;
+      progress.totalLines++;
+
+      ImportLine line = readLine(lineNumber, raw, progress);
+      if (line == null) continue;
+
+      chunk.add(line);
+      if (chunk.size() >= chunkSize) {
+        importChunk(userId, chunk, mode, progress);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      importChunk(userId, chunk, mode, progress);
+    }
+
+    long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+    log.info("Bulk import for user {}: {} imported, {} failed in {} ms ({} mode)",
+        userId, progress.imported, progress.failed, elapsedMs, mode);
+
+    return BulkImportResponse.builder()
+        .mode(mode.name().toLowerCase(Locale.ROOT))
+        .totalLines(progress.totalLines)
+        .imported(progress.imported)
+        .failed(progress.failed)
+        .chunksCommitted(progress.chunks)
+        .elapsedMs(elapsedMs)
+        .entriesPerSecond(progress.imported * 1000.0 / elapsedMs)
+        .errors(progress.errors)
+        .errorsTruncated(progress.failed > progress.errors.size())
+        .build();
+  }
+
+  private ImportLine readLine(long lineNumber, String raw, ImportProgress progress) {
+    BulkEntryLine parsed;
+    try {
+      parsed = lineReader.readValue(raw);
+    } catch (JsonProcessingException e) {
+      progress.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+      return null;
+    }
+
+    String sentence = parsed.getSentence() == null ? "" : parsed.getSentence().trim();
+    if (sentence.isEmpty()) {
+      progress.fail(lineNumber, "Sentence is required");
+      return null;
+    }
+    if (sentence.length() > MAX_SENTENCE_LENGTH) {
+      progress.fail(lineNumber, "Sentence must be less than " + MAX_SENTENCE_LENGTH + " characters");
+      return null;
+    }
+    LocalDateTime studiedAt = parsed.getStudiedAt() != null ? parsed.getStudiedAt() : LocalDateTime.now();
+    return new ImportLine(lineNumber, sentence, studiedAt);
+  }
+
+  private void importChunk(UUID userId, List<ImportLine> chunk, ImportMode mode, ImportProgress progress) {
+    List<ParsedLine> parsed = parseChunk(chunk, mode);
+
+    try {
+      Integer saved = transactionTemplate.execute(status -> persistChunk(userId, parsed));
+      progress.imported += saved == null ? 0 : saved;
+      progress.chunks++;
+      log.debug("Bulk import for user {}: chunk {} committed ({} entries so far)",
+          userId, progress.chunks, progress.imported);
+    } catch (Exception e) {
+      log.error("Bulk import chunk failed for user {} (lines {}-{})", userId,
+          chunk.get(0).lineNumber(), chunk.get(chunk.size() - 1).lineNumber(), e);
+      for (ImportLine line : chunk) {
+        progress.fail(line.lineNumber(), "Chunk could not be saved: " + e.getMessage());
+      }
+    }
+  }
+
+  private List<ParsedLine> parseChunk(List<ImportLine> chunk, ImportMode mode) {
+    if (mode == ImportMode.OFFLINE) {
+      return chunk.stream().map(line -> new ParsedLine(line, parseLocally(line.sentence()))).toList();
+    }
+
+    List<CompletableFuture<ParsedLine>> futures = new ArrayList<>(chunk.size());
+    for (ImportLine line : chunk) {
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        parsePermits.acquireUninterruptibly();
+        try {
+          return new ParsedLine(line, parseRouter.parse(line.sentence()));
+        } finally {
+          parsePermits.release();
+        }
+      }, parseExecutor));
+    }
+    return futures.stream().map(CompletableFuture::join).toList();
+  }
+
+  private ParseOutcome parseLocally(String sentence) {
+    return ParseOutcome.fallback(localClassificationService.classify(sentence).topics());
+  }
+
+  private int persistChunk(UUID userId, List<ParsedLine> parsed) {
+    User user = userRepository.getReferenceById(userId);
+
+    // A chunk repeats the same few subjects/topics many times; resolve each distinct name once
+    Map<String, Subject> subjects = new HashMap<>();
+    Map<String, Topic> topics = new HashMap<>();
+
+    List<StudyEntry> entries = new ArrayList<>(parsed.size());
+    List<StudyEntryTopic> links = new ArrayList<>();
+    Map<UUID, UUID> subjectIds = new HashMap<>(); // topic id -> subject id, for the activity rollup
+
+    for (ParsedLine line : parsed) {
+      StudyEntry entry = StudyEntry.builder()
+          .user(user)
+          .originalSentence(line.line().sentence())
+          .studiedAt(line.line().studiedAt())
+          .status(line.outcome().fallback() ? EntryStatus.FALLBACK : EntryStatus.PARSED)
+          .build();
+      entries.add(entry);
+
+      Map<UUID, StudyEntryTopic> linksByTopic = new LinkedHashMap<>(); // one link per topic (unique constraint)
+      for (ParsedTopic parsedTopic : line.outcome().topics()) {
+        if (parsedTopic.topic() == null || parsedTopic.topic().isBlank()) continue;
+        String subjectName = parsedTopic.subject() == null || parsedTopic.subject().isBlank()
+            ? OFFLINE_SUBJECT
+            : parsedTopic.subject();
+
+        Subject subject = subjects.computeIfAbsent(
+            TopicService.normalize(subjectName),
+            k -> subjectService.findOrCreateSubject(subjectName));
+        Topic topic = topics.computeIfAbsent(
+            subject.getId() + "|" + TopicService.normalize(parsedTopic.topic()),
+            k -> topicService.findOrCreateTopic(subject, parsedTopic.topic(), line.outcome().storedConfidence(parsedTopic)));
+
+        StudyEntryTopic link = linksByTopic.computeIfAbsent(topic.getId(), id -> StudyEntryTopic.builder()
+            .studyEntry(entry)
+            .topic(topic)
+            .build());
+        link.setIsPriority(link.getIsPriority() || parsedTopic.priority());
+        subjectIds.put(topic.getId(), subject.getId());
+      }
+      links.addAll(linksByTopic.values());
+      meterRegistry.summary(StudyEntryService.TOPICS_PER_ENTRY).record(linksByTopic.size());
+    }
+
+    studyEntryRepository.saveAll(entries);
+    studyEntryTopicRepository.saveAll(links);
+    userTopicStatsService.recordEntryLinks(userId, links);
+    reviewService.recordEntryLinks(userId, links);
+    activityRollupService.recordEntryLinks(userId, links, subjectIds);
+    dataVersionService.recordChange(userId, links.stream().map(link -> link.getTopic().getId()).toList());
+    return entries.size();
+  }
+
+  private static final class ImportProgress {
+    private final int maxErrors;
+    private final List<BulkLineError> errors = new ArrayList<>();
+    private long totalLines;
+    private long imported;
+    private long failed;
+    private int chunks;
+
+    private ImportProgress(int maxErrors) {
+      this.maxErrors = maxErrors;
+    }
+
+    private void fail(long line, String message) {
+      failed++;
+      if (errors.size() < maxErrors) {
+        errors.add(BulkLineError.builder().line(line).message(message).build());
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.knowtify.service;
+
+import com.knowtify.entity.UserTopicChange;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.repository.UserTopicChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-user data version: a counter bumped in the same transaction as every write to the
+ * user's entries, so "has anything changed?" is a primary-key read on users instead of a
+ * recomputation. Read views turn it into a strong ETag.
+ * <p>
+ * The version doubles as the user's change sequence: each topic touched by a write is stamped
+ * with the new version, so the topics changed since a client's version can be listed directly.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+  private final UserRepository userRepository;
+  private final UserTopicChangeRepository userTopicChangeRepository;
+  private final TopicRepository topicRepository;
+
+  /**
+   * Bumps the user's version and stamps {@code topicIds} with it. Returns the new version.
+   */
+  @Transactional
+  public long recordChange(UUID userId, Collection<UUID> topicIds) {
+    // The update holds the users row lock until commit, so concurrent writers get distinct versions
+    userRepository.incrementDataVersion(userId);
+    long version = current(userId);
+    if (topicIds.isEmpty()) return version;
+
+    Set<UUID> distinct = new HashSet<>(topicIds);
+    if (userTopicChangeRepository.stamp(userId, distinct, version) < distinct.size()) {
+      distinct.removeAll(userTopicChangeRepository.findTrackedTopicIds(userId, distinct));
+      List<UserTopicChange> created = new ArrayList<>(distinct.size());
+      for (UUID topicId : distinct) {
+        created.add(UserTopicChange.builder()
+            .user(userRepository.getReferenceById(userId))
+            .topic(topicRepository.getReferenceById(topicId))
+            .changeSeq(version)
+            .build());
+      }
+      userTopicChangeRepository.saveAll(created);
+    }
+    return version;
+  }
+
+  @Transactional(readOnly = true)
+  public long current(UUID userId) {
+    return userRepository.findDataVersion(userId).orElse(0L);
+  }
+
+  /**
+   * ETag for {@code view} of the user's data at {@code version}. {@code view} must
+   * identify everything else the response depends on (date range, resolved week, ...).
+   * Weak, because the body may go out gzipped or not; Tomcat won't compress a response
+   * that carries a strong ETag.
+   */
+  public static String etag(UUID userId, long version, String view) {
+    String user = Long.toHexString(userId.getMostSignificantBits() ^ userId.getLeastSignificantBits());
+    return "W/\"" + view + "-" + user + "-" + version + "\"";
+  }
+}
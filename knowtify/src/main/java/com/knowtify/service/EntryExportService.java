@@ -0,0 +1,193 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.knowtify.dto.StudyDtos.ExportedEntry;
+import com.knowtify.dto.StudyDtos.ExportedTopic;
+import com.knowtify.repository.EntryRowView;
+import com.knowtify.repository.EntryTopicView;
+import com.knowtify.repository.StudyEntryRepository;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.util.EntryCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a user's full history page by page over the (studied_at, id) keyset.
+ * Each page is read in its own short read-only transaction and written out before the
+ * next one is fetched, so memory and connection hold time don't grow with history size.
+ */
+@Service
+@Slf4j
+public class EntryExportService {
+
+  public enum ExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    public final MediaType mediaType;
+    public final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+      this.mediaType = mediaType;
+      this.extension = extension;
+    }
+
+    public static ExportFormat from(String value) {
+      return ExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private static final String CSV_HEADER = "id,studied_at,sentence,topics,subjects,priority_topics";
+
+  private final StudyEntryRepository studyEntryRepository;
+  private final StudyEntryTopicRepository studyEntryTopicRepository;
+  private final TransactionTemplate readOnly;
+  private final ObjectWriter entryWriter;
+  private final int pageSize;
+
+  public EntryExportService(
+          StudyEntryRepository studyEntryRepository,
+          StudyEntryTopicRepository studyEntryTopicRepository,
+          PlatformTransactionManager transactionManager,
+          ObjectMapper objectMapper,
+          @Value("${knowtify.export.page-size:500}") int pageSize
+  ) {
+    this.studyEntryRepository = studyEntryRepository;
+    this.studyEntryTopicRepository = studyEntryTopicRepository;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    // Each writeValue closes its own generator; it must neither close nor flush the shared writer,
+    // or every row becomes its own network write
+    this.entryWriter = objectMapper.writerFor(ExportedEntry.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Writes every entry of the user, oldest first, to {@code out}. Returns the number of entries written.
+   */
+  public long export(UUID userId, ExportFormat format, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    if (format == ExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write('\n');
+    }
+
+    long written = 0;
+    EntryCursor after = null;
+    while (true) {
+      EntryCursor cursor = after;
+      List<ExportedEntry> page = readOnly.execute(status -> fetchPage(userId, cursor));
+      if (page == null || page.isEmpty()) break;
+
+      for (ExportedEntry entry : page) {
+        if (format == ExportFormat.CSV) {
+          writeCsv(writer, entry);
+        } else {
+          entryWriter.writeValue(writer, entry);
+          writer.write('\n');
+        }
+      }
+      writer.flush(); // push each page to the client instead of buffering the whole export
+      written += page.size();
+
+      if (page.size() < pageSize) break;
+      ExportedEntry last = page.get(page.size() - 1);
+      after = new EntryCursor(last.getStudiedAt(), last.getId());
+    }
+
+    log.debug("Exported {} entries for user {} as {}", written, userId, format);
+    return written;
+  }
+
+  private List<ExportedEntry> fetchPage(UUID userId, EntryCursor after) {
+    List<EntryRowView> rows = after == null
+            ? studyEntryRepository.findOldestRows(userId, Limit.of(pageSize))
+            : studyEntryRepository.findRowsAfter(userId, after.studiedAt(), after.id(), Limit.of(pageSize));
+    if (rows.isEmpty()) return List.of();
+
+    Map<UUID, List<EntryTopicView>> topicsByEntry = studyEntryTopicRepository
+            .findTopicsByEntryIds(rows.stream().map(EntryRowView::getId).toList())
+            .stream()
+            .collect(Collectors.groupingBy(EntryTopicView::getEntryId));
+
+    List<ExportedEntry> page = new ArrayList<>(rows.size());
+    for (EntryRowView row : rows) {
+      page.add(ExportedEntry.builder()
+              .id(row.getId())
+              .studiedAt(row.getStudiedAt())
+              .sentence(row.getOriginalSentence())
+              .topics(topicsByEntry.getOrDefault(row.getId(), Collections.emptyList()).stream()
+                      .map(t -> ExportedTopic.builder()
+                              .name(t.getTopicName())
+                              .subject(t.getSubjectName())
+                              .isPriority(Boolean.TRUE.equals(t.getPriority()))
+                              .build())
+                      .toList())
+              .build());
+    }
+    return page;
+  }
+
+  private static void writeCsv(Writer writer, ExportedEntry entry) throws IOException {
+    writer.write(entry.getId().toString());
+    writer.write(',');
+    writer.write(entry.getStudiedAt().toString());
+    writer.write(',');
+    writer.write(csvField(entry.getSentence()));
+    writer.write(',');
+    writer.write(csvField(joinTopics(entry, false, ExportedTopic::getName)));
+    writer.write(',');
+    writer.write(csvField(joinTopics(entry, false, ExportedTopic::getSubject)));
+    writer.write(',');
+    writer.write(csvField(joinTopics(entry, true, ExportedTopic::getName)));
+    writer.write('\n');
+  }
+
+  private static String joinTopics(ExportedEntry entry, boolean priorityOnly,
+                                   Function<ExportedTopic, String> field) {
+    return entry.getTopics().stream()
+            .filter(t -> !priorityOnly || t.isPriority())
+            .map(field)
+            .collect(Collectors.joining(";"));
+  }
+
+  // RFC 4180: quote when the value contains a delimiter, quote or line break; double inner quotes.
+  // Text a spreadsheet would run as a formula (CSV injection) gets a leading ' so it stays text.
+  static String csvField(String value) {
+    if (value == null || value.isEmpty()) return "";
+    if (isFormulaStart(value.charAt(0))) {
+      value = "'" + value;
+    }
+    boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+  }
+
+  private static boolean isFormulaStart(char c) {
+    return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+  }
+}
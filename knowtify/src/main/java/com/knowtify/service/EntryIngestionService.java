@@ -0,0 +1,152 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.CreateEntryRequest;
+import com.knowtify.dto.StudyDtos.CreateEntryResponse;
+import com.knowtify.dto.StudyDtos.EntryStatusResponse;
+import com.knowtify.entity.EntryStatus;
+import com.knowtify.entity.StudyEntry;
+import com.knowtify.repository.EntryRowView;
+import com.knowtify.service.GeminiParsingService.ParseOutcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async ingest: the request only persists a PENDING entry; parsing and topic linking
+ * happen on the ingestion pool, outside the request thread and its DB connection.
+ * The queue lives in memory, so on startup entries a previous run left PENDING are
+ * queued again (or marked FAILED once older than {@code knowtify.ingestion.resume-max-age}).
+ */
+@Service
+@Slf4j
+public class EntryIngestionService {
+
+  private final StudyEntryService studyEntryService;
+  private final ParseRouter parseRouter;
+  private final ExecutorService ingestionExecutor;
+  private final Duration resumeMaxAge;
+
+  // entryId -> completion signal for long-polling clients; removed once the entry settles
+  private final Map<UUID, CompletableFuture<EntryStatusResponse>> inFlight = new ConcurrentHashMap<>();
+
+  public EntryIngestionService(
+          StudyEntryService studyEntryService,
+          ParseRouter parseRouter,
+          @Qualifier("entryIngestionExecutor") ExecutorService ingestionExecutor,
+          @Value("${knowtify.ingestion.resume-max-age:1h}") Duration resumeMaxAge
+  ) {
+    this.studyEntryService = studyEntryService;
+    this.parseRouter = parseRouter;
+    this.ingestionExecutor = ingestionExecutor;
+    this.resumeMaxAge = resumeMaxAge;
+  }
+
+  /**
+   * Submits the sentence for parsing and returns the PENDING entry.
+   *
+   * @throws RejectedExecutionException if the ingestion queue is full and the client should retry later.
+   *         The PENDING row is saved before the hand-off and deleted again on rejection; if that delete
+   *         is lost (crash, failed transaction), the startup {@link #resumePending() resume} picks the
+   *         row up and parses it, or marks it FAILED once older than the resume window
+   */
+  public CreateEntryResponse submit(UUID userId, CreateEntryRequest request) {
+    StudyEntry entry = studyEntryService.createPendingEntry(userId, request);
+    UUID entryId = entry.getId();
+    String sentence = entry.getOriginalSentence();
+
+    inFlight.put(entryId, new CompletableFuture<>());
+    try {
+      ingestionExecutor.execute(() -> process(entryId, sentence));
+    } catch (RejectedExecutionException e) {
+      // Pool saturated: shed the request rather than parse on the request thread
+      inFlight.remove(entryId);
+      studyEntryService.discardPendingEntry(entryId);
+      throw e;
+    }
+
+    return CreateEntryResponse.builder()
+        .message("Study entry accepted")
+        .entryId(entryId)
+        .studiedAt(entry.getStudiedAt())
+        .status(entry.getStatus().name())
+        .parsedTopics(List.of())
+        .build();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumePending() {
+    List<EntryRowView> pending = studyEntryService.resumablePendingEntries(
+        LocalDateTime.now().minus(resumeMaxAge));
+    int queued = 0;
+    for (EntryRowView entry : pending) {
+      UUID entryId = entry.getId();
+      inFlight.put(entryId, new CompletableFuture<>());
+      try {
+        ingestionExecutor.execute(() -> process(entryId, entry.getOriginalSentence()));
+        queued++;
+      } catch (RejectedExecutionException e) {
+        inFlight.remove(entryId);
+        studyEntryService.markFailed(entryId);
+      }
+    }
+    if (!pending.isEmpty()) {
+      log.info("Re-queued {} of {} PENDING entries left by the previous run", queued, pending.size());
+    }
+  }
+
+  /**
+   * Current status of an entry. If it is still pending and {@code wait} is positive,
+   * completes as soon as the worker finishes or when {@code wait} elapses, whichever comes first.
+   */
+  public CompletableFuture<Optional<EntryStatusResponse>> awaitStatus(UUID userId, UUID entryId, Duration wait) {
+    // Grab the signal before reading the row so a worker finishing in between isn't missed
+    CompletableFuture<EntryStatusResponse> pending = inFlight.get(entryId);
+    Optional<EntryStatusResponse> current = studyEntryService.findEntryStatus(userId, entryId);
+
+    if (current.isEmpty() || pending == null || wait.isZero() || wait.isNegative()
+        || !EntryStatus.PENDING.name().equals(current.get().getStatus())) {
+      return CompletableFuture.completedFuture(current);
+    }
+
+    return pending.copy()
+        .completeOnTimeout(current.get(), wait.toMillis(), TimeUnit.MILLISECONDS)
+        .thenApply(Optional::of);
+  }
+
+  private void process(UUID entryId, String sentence) {
+    CompletableFuture<EntryStatusResponse> done = inFlight.get(entryId);
+    try {
+      ParseOutcome outcome = parseRouter.parse(sentence);
+
+      EntryStatusResponse status = studyEntryService.completePendingEntry(entryId, outcome);
+      if (done != null) done.complete(status);
+    } catch (Exception e) {
+      log.error("Async ingestion failed for entry {}", entryId, e);
+      studyEntryService.markFailed(entryId);
+      if (done != null) {
+        done.complete(EntryStatusResponse.builder()
+            .entryId(entryId)
+            .status(EntryStatus.FAILED.name())
+            .parsedTopics(List.of())
+            .build());
+      }
+    } finally {
+      inFlight.remove(entryId);
+    }
+  }
+}
@@ -1,40 +1,103 @@
 package com.knowtify.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowtify.service.GeminiResponseReader.Candidate;
+import com.knowtify.service.GeminiResponseReader.Topics;
+import com.knowtify.util.CircuitBreaker;
+import com.knowtify.util.MicroBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
 public class GeminiParsingService {
 
+  // Bump whenever createAnalysisPrompt changes so cached results from the old prompt are ignored
+  static final String PROMPT_VERSION = "v1";
+
+  private static final int SINGLE_MAX_OUTPUT_TOKENS = 1000;
+  private static final int BATCH_MAX_OUTPUT_TOKENS = 8192;
+  // Same cap WebClient applies when decoding a body to String
+  private static final int MAX_RESPONSE_BYTES = 256 * 1024;
+
   private final WebClient webClient;
   private final ObjectMapper objectMapper;
+  private final GeminiResponseReader responseReader;
   private final String apiKey;
   private final String model;
+  private final ParseResultCache parseResultCache;
+  private final LocalClassificationService localClassificationService;
+  private final MicroBatcher<String, ParseOutcome> batcher; // null when batching is disabled
+  private final CircuitBreaker circuitBreaker;
+  private final Duration callTimeout;
+  private final int maxRetries;
+  private final Duration retryBackoff;
+  private final MeterRegistry meterRegistry;
 
   public GeminiParsingService(
           @Value("${gemini.api.key}") String apiKey,
           @Value("${gemini.api.model:gemini-2.0-flash-exp}") String model,
           @Value("${gemini.api.base-url}") String baseUrl,
-          ObjectMapper objectMapper
+          @Value("${gemini.batch.enabled:false}") boolean batchEnabled,
+          @Value("${gemini.batch.max-size:16}") int batchMaxSize,
+          @Value("${gemini.batch.window:25ms}") Duration batchWindow,
+          @Value("${gemini.api.timeout:15s}") Duration callTimeout,
+          @Value("${gemini.api.max-retries:2}") int maxRetries,
+          @Value("${gemini.api.retry-backoff:200ms}") Duration retryBackoff,
+          @Value("${gemini.circuit.failure-threshold:5}") int circuitFailureThreshold,
+          @Value("${gemini.circuit.open-duration:30s}") Duration circuitOpenDuration,
+          ObjectMapper objectMapper,
+          ParseResultCache parseResultCache,
+          LocalClassificationService localClassificationService,
+          MeterRegistry meterRegistry
   ) {
     this.apiKey = apiKey;
     this.model = model;
     this.objectMapper = objectMapper;
+    this.responseReader = new GeminiResponseReader(objectMapper.getFactory());
+    this.parseResultCache = parseResultCache;
+    this.localClassificationService = localClassificationService;
+    this.callTimeout = callTimeout;
+    this.maxRetries = maxRetries;
+    this.retryBackoff = retryBackoff;
+    this.meterRegistry = meterRegistry;
+    this.circuitBreaker = new CircuitBreaker(circuitFailureThreshold, circuitOpenDuration);
     this.webClient = WebClient.builder()
             .baseUrl(baseUrl)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, "application/json")
             .build();
+    this.batcher = batchEnabled
+            ? new MicroBatcher<>(this::parseBatch, s -> fallback(s, "batch"), batchMaxSize, batchWindow, "gemini-batch")
+            : null;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (batcher != null) batcher.close();
   }
 
   public static record ParsedTopic(
@@ -45,17 +108,138 @@ public class GeminiParsingService {
           double confidence
   ) {}
 
+  /**
+   * Parsed topics plus where they came from: the model, the local classifier via
+   * {@link ParseRouter} (catalogue topics only), or {@link #fallbackParsing}. A model reply cut
+   * off before the end of its topic array also counts as fallback: the topics read so far are
+   * kept, but the result is incomplete and must not be cached.
+   */
+  public static record ParseOutcome(List<ParsedTopic> topics, Source source) {
+
+    public enum Source { MODEL, LOCAL, FALLBACK }
+
+    static ParseOutcome model(List<ParsedTopic> topics) {
+      return new ParseOutcome(topics, Source.MODEL);
+    }
+
+    static ParseOutcome local(List<ParsedTopic> topics) {
+      return new ParseOutcome(topics, Source.LOCAL);
+    }
+
+    static ParseOutcome fallback(List<ParsedTopic> topics) {
+      return new ParseOutcome(topics, Source.FALLBACK);
+    }
+
+    public boolean fallback() {
+      return source == Source.FALLBACK;
+    }
+
+    /**
+     * Confidence to store on a topic created from this outcome: only the model's own score
+     * qualifies a topic for the classifier catalogue, local guesses are stored without one.
+     */
+    public Double storedConfidence(ParsedTopic topic) {
+      return source == Source.MODEL ? topic.confidence() : null;
+    }
+  }
+
   public List<ParsedTopic> parseStudyEntry(String sentence) {
+    return parse(sentence).topics();
+  }
+
+  public ParseOutcome parse(String sentence) {
+    String cacheKey = parseResultCache.key(sentence, model, PROMPT_VERSION);
+    Optional<List<ParsedTopic>> cached = parseResultCache.get(cacheKey);
+    if (cached.isPresent()) {
+      return ParseOutcome.model(cached.get());
+    }
+
     try {
-      String prompt = createAnalysisPrompt(sentence);
-      String response = callGeminiAPI(prompt);
-      return parseGeminiResponse(response);
+      ParseOutcome outcome = batcher != null
+              ? batcher.submit(sentence).join()
+              : parseSingle(sentence);
+
+      if (!outcome.fallback() && !outcome.topics().isEmpty()) {
+        parseResultCache.put(cacheKey, model, PROMPT_VERSION, outcome.topics());
+      }
+      return outcome;
     } catch (Exception e) {
-      log.error("Gemini parsing failed for: '{}', falling back to simple parsing", sentence, e);
-      return fallbackParsing(sentence);
+      String reason = fallbackReason(e);
+      log.warn("Gemini parsing failed ({}), falling back to simple parsing", reason);
+      log.debug("Gemini failure for '{}'", sentence, e);
+      return fallback(sentence, reason);
     }
   }
 
+  /**
+   * Non-blocking variant of {@link #parse}: the model call runs on the WebClient event loop,
+   * with a timeout, jittered retries on transient errors and the shared circuit breaker.
+   * Any failure resolves to {@link #fallbackParsing}; the returned Mono never errors.
+   */
+  public Mono<ParseOutcome> parseReactive(String sentence) {
+    String cacheKey = parseResultCache.key(sentence, model, PROMPT_VERSION);
+
+    return Mono.fromCallable(() -> parseResultCache.get(cacheKey))
+            .subscribeOn(Schedulers.boundedElastic()) // persistent tier may query the DB
+            .flatMap(cached -> cached.isPresent()
+                    ? Mono.just(ParseOutcome.model(cached.get()))
+                    : callGeminiAPIReactive(createAnalysisPrompt(sentence), SINGLE_MAX_OUTPUT_TOKENS)
+                            .map(this::parseGeminiResponse)
+                            .flatMap(outcome -> outcome.fallback() || outcome.topics().isEmpty()
+                                    ? Mono.just(outcome)
+                                    : Mono.fromRunnable(() -> parseResultCache.put(cacheKey, model, PROMPT_VERSION, outcome.topics()))
+                                            .subscribeOn(Schedulers.boundedElastic())
+                                            .thenReturn(outcome)))
+            // An empty 200 body joins to an empty Mono; callers must still get an outcome
+            .switchIfEmpty(Mono.fromCallable(() -> fallback(sentence, "empty")))
+            .onErrorResume(e -> {
+              String reason = fallbackReason(e);
+              log.warn("Gemini parsing failed ({}), falling back to simple parsing", reason);
+              log.debug("Gemini failure for '{}'", sentence, e);
+              return Mono.just(fallback(sentence, reason));
+            });
+  }
+
+  /**
+   * Local-only parse, used when the model must not be called (e.g. ingestion queue is full).
+   */
+  public ParseOutcome parseOffline(String sentence) {
+    return ParseOutcome.fallback(fallbackParsing(sentence));
+  }
+
+  private ParseOutcome fallback(String sentence, String reason) {
+    meterRegistry.counter("knowtify.gemini.fallback", "reason", reason).increment();
+    return parseOffline(sentence);
+  }
+
+  // Coarse, low-cardinality reason tag for the fallback counter
+  private static String fallbackReason(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof CircuitOpenException) return "circuit_open";
+      if (t instanceof TimeoutException) return "timeout";
+      if (t instanceof WebClientResponseException r) {
+        return r.getStatusCode().value() == 429 ? "rate_limited" : "http_error";
+      }
+      if (t instanceof WebClientRequestException) return "connection";
+      if (t instanceof JsonProcessingException) return "bad_response";
+    }
+    return "error";
+  }
+
+  private static final class CircuitOpenException extends IllegalStateException {
+    private CircuitOpenException() {
+      super("Gemini circuit breaker is open");
+    }
+  }
+
+  private Timer callTimer(String mode, String outcome) {
+    return Timer.builder("knowtify.gemini.call")
+            .description("Gemini generateContent latency, including retries")
+            .tags("mode", mode, "outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+  }
+
   private String createAnalysisPrompt(String sentence) {
     return "Analyze this study entry and extract learning topics with their academic subjects.\n\n" +
             "Input: \"" + sentence + "\"\n\n" +
@@ -71,120 +255,184 @@ public class GeminiParsingService {
             "Example output: [{\"topic\":\"React hooks\",\"subject\":\"Web Development\",\"priority\":true,\"reason\":\"user struggled with concept\",\"confidence\":0.9},{\"topic\":\"quicksort algorithm\",\"subject\":\"Data Structures & Algorithms\",\"priority\":false,\"reason\":\"regular learning\",\"confidence\":0.85}]";
   }
 
-  private String callGeminiAPI(String prompt) {
-    try {
-      var requestBody = Map.of(
-              "contents", List.of(
-                      Map.of("parts", List.of(
-                              Map.of("text", prompt)
-                      ))
-              ),
-              "generationConfig", Map.of(
-                      "temperature", 0.1,
-                      "maxOutputTokens", 1000
-              )
-      );
-
-      String response = webClient.post()
-              .uri("/models/{model}:generateContent?key={apiKey}", model, apiKey)
-              .bodyValue(requestBody)
-              .retrieve()
-              .bodyToMono(String.class)
-              .block();
+  private ParseOutcome parseSingle(String sentence) {
+    String response = callGeminiAPI(createAnalysisPrompt(sentence), SINGLE_MAX_OUTPUT_TOKENS);
+    return parseGeminiResponse(response);
+  }
 
-      return extractContentFromResponse(response);
-    } catch (Exception e) {
-      log.error("Failed to call Gemini API", e);
-      throw new RuntimeException("Gemini API call failed", e);
+  private String createBatchAnalysisPrompt(List<String> sentences) throws JsonProcessingException {
+    Map<String, String> inputs = new LinkedHashMap<>();
+    for (int i = 0; i < sentences.size(); i++) {
+      inputs.put(batchKey(i), sentences.get(i));
     }
+
+    return "Analyze each of these study entries independently and extract learning topics with their academic subjects.\n\n" +
+            "Inputs (JSON object of id -> entry): " + objectMapper.writeValueAsString(inputs) + "\n\n" +
+            "Instructions:\n" +
+            "1. Extract specific topics/concepts studied\n" +
+            "2. Categorize each topic under the most appropriate CS subject\n" +
+            "3. Determine if topic is priority (if user struggled/found difficult/confusing/spent extra time)\n" +
+            "4. Provide confidence score (0.1-1.0)\n\n" +
+            "Available subjects: Data Structures & Algorithms, Operating Systems, Web Development, Database Systems, Machine Learning, Computer Networks, Software Engineering, Mobile Development, DevOps, Cybersecurity, Programming Languages, System Design, Mathematics, Computer Graphics, Other\n\n" +
+            "Respond with ONLY a valid JSON object that has exactly one key per input id, each mapped to that entry's array:\n" +
+            "{\"s0\":[{\"topic\":\"specific topic name\",\"subject\":\"exact subject from list above\",\"priority\":true/false,\"reason\":\"why priority or not\",\"confidence\":0.85}],\"s1\":[...]}\n\n" +
+            "Example inputs: {\"s0\":\"I struggled with React hooks today\",\"s1\":\"learned quicksort\"}\n" +
+            "Example output: {\"s0\":[{\"topic\":\"React hooks\",\"subject\":\"Web Development\",\"priority\":true,\"reason\":\"user struggled with concept\",\"confidence\":0.9}],\"s1\":[{\"topic\":\"quicksort algorithm\",\"subject\":\"Data Structures & Algorithms\",\"priority\":false,\"reason\":\"regular learning\",\"confidence\":0.85}]}";
   }
 
-  private String extractContentFromResponse(String response) throws JsonProcessingException {
-    JsonNode root = objectMapper.readTree(response);
-    // candidates[0].content.parts[0].text
-    JsonNode textNode = root.path("candidates")
-            .path(0)
-            .path("content")
-            .path("parts")
-            .path(0)
-            .path("text");
+  private static String batchKey(int index) {
+    return "s" + index;
+  }
 
-    if (textNode.isMissingNode() || textNode.isNull()) {
-      throw new IllegalStateException("No text found in Gemini response");
+  /**
+   * Batch handler for {@link MicroBatcher}: one model call for the whole batch.
+   * Sentences whose key is missing or malformed in the reply are left out so that only
+   * they are routed to {@link #fallbackParsing}.
+   */
+  private Map<Integer, ParseOutcome> parseBatch(List<String> sentences) {
+    if (sentences.size() == 1) {
+      // Nothing to coalesce; the single-entry prompt is shorter and better tested
+      return Map.of(0, parseSingle(sentences.get(0)));
     }
-    return textNode.asText();
-  }
 
-  private List<ParsedTopic> parseGeminiResponse(String response) {
     try {
-      String jsonPart = response == null ? "" : response.trim();
+      int maxTokens = Math.min(SINGLE_MAX_OUTPUT_TOKENS * sentences.size(), BATCH_MAX_OUTPUT_TOKENS);
+      String response = callGeminiAPI(createBatchAnalysisPrompt(sentences), maxTokens);
 
-      // Strip Markdown code fences if the model added them:
-      if (jsonPart.startsWith("```")) {
-        jsonPart = jsonPart.substring(3).trim(); // remove opening ```
-        if (jsonPart.startsWith("json")) {
-          jsonPart = jsonPart.substring(4).trim(); // remove optional 'json'
+      Map<String, List<ParsedTopic>> byId = responseReader.readTopicsById(response);
+      Map<Integer, ParseOutcome> results = new HashMap<>();
+      for (int i = 0; i < sentences.size(); i++) {
+        List<ParsedTopic> topics = byId.get(batchKey(i));
+        if (topics != null) {
+          results.put(i, ParseOutcome.model(topics));
+        } else {
+          log.warn("Batch reply has no result for '{}', using fallback", sentences.get(i));
         }
       }
-      if (jsonPart.endsWith("```")) {
-        jsonPart = jsonPart.substring(0, jsonPart.length() - 3).trim(); // remove closing ```
-      }
-
-      // If it's not starting with '[', try to extract the array portion
-      if (!jsonPart.startsWith("[")) {
-        int lb = jsonPart.indexOf('[');
-        int rb = jsonPart.lastIndexOf(']');
-        if (lb >= 0 && rb >= lb) {
-          jsonPart = jsonPart.substring(lb, rb + 1).trim();
-        }
-      }
-
-      JsonNode topics = objectMapper.readTree(jsonPart);
-      if (!topics.isArray()) {
-        throw new IllegalArgumentException("Model did not return a JSON array");
-      }
+      return results;
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to parse Gemini batch response", e);
+    }
+  }
 
-      List<ParsedTopic> result = new ArrayList<>();
-      for (JsonNode topicNode : topics) {
-        result.add(new ParsedTopic(
-                topicNode.path("topic").asText(""),
-                topicNode.path("subject").asText("Other"),
-                topicNode.path("priority").asBoolean(false),
-                topicNode.path("reason").asText(""),
-                topicNode.path("confidence").isNumber() ? topicNode.get("confidence").asDouble() : 0.5
-        ));
-      }
-      return result;
+  private String callGeminiAPI(String prompt, int maxOutputTokens) {
+    if (!circuitBreaker.tryAcquire()) {
+      throw new CircuitOpenException();
+    }
+    Timer.Sample sample = Timer.start(meterRegistry);
+    try {
+      DataBuffer body = DataBufferUtils.join(webClient.post()
+                      .uri("/models/{model}:generateContent?key={apiKey}", model, apiKey)
+                      .bodyValue(requestBody(prompt, maxOutputTokens))
+                      .retrieve()
+                      .bodyToFlux(DataBuffer.class), MAX_RESPONSE_BYTES)
+              .timeout(callTimeout)
+              .block();
 
+      String content = readContent(body);
+      circuitBreaker.recordSuccess();
+      sample.stop(callTimer("blocking", "success"));
+      return content;
     } catch (Exception e) {
-      log.error("Failed to parse Gemini response: {}", response, e);
-      throw new RuntimeException("Failed to parse Gemini response", e);
+      circuitBreaker.recordFailure();
+      sample.stop(callTimer("blocking", "error"));
+      log.warn("Failed to call Gemini API: {}", e.toString());
+      throw new RuntimeException("Gemini API call failed", e);
     }
   }
 
-  private List<ParsedTopic> fallbackParsing(String sentence) {
-    List<ParsedTopic> result = new ArrayList<>();
+  private Mono<String> callGeminiAPIReactive(String prompt, int maxOutputTokens) {
+    // Acquire per subscription, so a Mono that is built but never subscribed holds no permit
+    return Mono.defer(() -> {
+      if (!circuitBreaker.tryAcquire()) {
+        return Mono.error(new CircuitOpenException());
+      }
+      Timer.Sample sample = Timer.start(meterRegistry);
+      return DataBufferUtils.join(webClient.post()
+                      .uri("/models/{model}:generateContent?key={apiKey}", model, apiKey)
+                      .bodyValue(requestBody(prompt, maxOutputTokens))
+                      .retrieve()
+                      .bodyToFlux(DataBuffer.class), MAX_RESPONSE_BYTES)
+              .timeout(callTimeout)
+              .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                      .jitter(0.5)
+                      .filter(GeminiParsingService::isTransient))
+              .flatMap(body -> Mono.fromCallable(() -> readContent(body)))
+              .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+              .doOnSuccess(content -> {
+                circuitBreaker.recordSuccess();
+                sample.stop(callTimer("reactive", "success"));
+              })
+              .doOnError(e -> {
+                circuitBreaker.recordFailure();
+                sample.stop(callTimer("reactive", "error"));
+              })
+              // Subscriber went away mid-call: no outcome to record, but the permit must go back
+              .doOnCancel(circuitBreaker::release);
+    });
+  }
 
-    String cleaned = sentence.toLowerCase()
-            .replaceAll("^(i\\s+studied|studied|i\\s+learned|learned)\\s*", "")
-            .trim();
+  private static Map<String, Object> requestBody(String prompt, int maxOutputTokens) {
+    return Map.of(
+            "contents", List.of(
+                    Map.of("parts", List.of(
+                            Map.of("text", prompt)
+                    ))
+            ),
+            "generationConfig", Map.of(
+                    "temperature", 0.1,
+                    "maxOutputTokens", maxOutputTokens
+            )
+    );
+  }
 
-    for (String segment : cleaned.split(",")) {
-      String topic = segment.trim();
-      if (topic.isEmpty()) continue;
+  // Timeouts, connection errors, 429 and 5xx are worth retrying; other 4xx are not
+  private static boolean isTransient(Throwable e) {
+    if (e instanceof WebClientResponseException r) {
+      return r.getStatusCode().is5xxServerError() || r.getStatusCode().value() == 429;
+    }
+    return e instanceof TimeoutException || e instanceof WebClientRequestException;
+  }
 
-      boolean isPriority = topic.startsWith("!");
-      if (isPriority) topic = topic.substring(1).trim();
+  /**
+   * Streams the joined response body through {@link GeminiResponseReader} (no String copy of the
+   * body, no JsonNode tree) and releases the buffer.
+   */
+  private String readContent(DataBuffer body) throws IOException {
+    if (body == null) {
+      throw new IllegalStateException("Empty Gemini response");
+    }
+    Candidate candidate;
+    try (InputStream in = body.asInputStream(true)) {
+      candidate = responseReader.readCandidate(in);
+    }
+    if (candidate.truncated()) {
+      // Whether the topics are usable is decided by the reader: a cut inside the array makes the
+      // outcome a fallback, a cut after it (trailing prose) loses nothing
+      meterRegistry.counter("knowtify.gemini.truncated").increment();
+      log.debug("Gemini output hit maxOutputTokens");
+    }
+    return candidate.text();
+  }
 
-      result.add(new ParsedTopic(
-              topic,
-              "Other",
-              isPriority,
-              isPriority ? "marked with !" : "regular entry",
-              0.3
-      ));
+  // package-private so the JMH benchmarks can drive it directly
+  ParseOutcome parseGeminiResponse(String response) {
+    try {
+      Topics topics = responseReader.readTopics(response);
+      if (!topics.complete()) {
+        log.warn("Gemini output was cut off, keeping {} complete topics as fallback", topics.topics().size());
+        meterRegistry.counter("knowtify.gemini.fallback", "reason", "truncated").increment();
+        return ParseOutcome.fallback(topics.topics());
+      }
+      return ParseOutcome.model(topics.topics());
+    } catch (Exception e) {
+      log.error("Failed to parse Gemini response: {}", response, e);
+      throw new RuntimeException("Failed to parse Gemini response", e);
     }
+  }
 
-    return result;
+  // package-private so the JMH benchmarks can drive it directly
+  List<ParsedTopic> fallbackParsing(String sentence) {
+    return localClassificationService.classify(sentence).topics();
   }
 }
@@ -0,0 +1,234 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader for Gemini generateContent replies, built on Jackson's {@link JsonParser}
+ * rather than {@code JsonNode} trees.
+ * <p>
+ * {@link #readCandidate} walks the HTTP body straight to {@code candidates[0].content.parts[0].text}
+ * and skips everything else. {@link #readTopics} and {@link #readTopicsById} then bind the model
+ * text directly to {@link ParsedTopic}s, starting at the first '[' / '{' so code fences and
+ * surrounding prose are never copied. Both are tolerant of output cut off at
+ * {@code maxOutputTokens}: every topic object completed before the cut is kept.
+ */
+final class GeminiResponseReader {
+
+  static final String FINISH_MAX_TOKENS = "MAX_TOKENS";
+
+  private static final String DEFAULT_SUBJECT = "Other";
+  private static final double DEFAULT_CONFIDENCE = 0.5;
+
+  /**
+   * Text of the first candidate and why generation stopped (null if the reply didn't say).
+   */
+  record Candidate(String text, String finishReason) {
+    boolean truncated() {
+      return FINISH_MAX_TOKENS.equals(finishReason);
+    }
+  }
+
+  /**
+   * Topics read from model text; {@code complete} is false when the array was cut off.
+   */
+  record Topics(List<ParsedTopic> topics, boolean complete) {}
+
+  private final JsonFactory jsonFactory;
+
+  GeminiResponseReader(JsonFactory jsonFactory) {
+    this.jsonFactory = jsonFactory;
+  }
+
+  Candidate readCandidate(InputStream body) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalStateException("Gemini response is not a JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("candidates".equals(field) && value == JsonToken.START_ARRAY) {
+          // Only the first candidate is used; the rest of the body is never read
+          if (parser.nextToken() == JsonToken.START_OBJECT) {
+            return readFirstCandidate(parser);
+          }
+          break;
+        }
+        parser.skipChildren();
+      }
+    }
+    throw new IllegalStateException("No text found in Gemini response");
+  }
+
+  private static Candidate readFirstCandidate(JsonParser parser) throws IOException {
+    String text = null;
+    String finishReason = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("content".equals(field) && value == JsonToken.START_OBJECT) {
+        text = readContentText(parser);
+      } else if ("finishReason".equals(field) && value == JsonToken.VALUE_STRING) {
+        finishReason = parser.getText();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (text == null) {
+      throw new IllegalStateException("No text found in Gemini response");
+    }
+    return new Candidate(text, finishReason);
+  }
+
+  // content.parts[0].text; leaves the parser at the end of the content object
+  private static String readContentText(JsonParser parser) throws IOException {
+    String text = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("parts".equals(field) && value == JsonToken.START_ARRAY) {
+        boolean first = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          if (first && parser.currentToken() == JsonToken.START_OBJECT) {
+            text = readPartText(parser);
+          } else {
+            parser.skipChildren();
+          }
+          first = false;
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return text;
+  }
+
+  private static String readPartText(JsonParser parser) throws IOException {
+    String text = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("text".equals(field) && value == JsonToken.VALUE_STRING) {
+        text = parser.getText();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return text;
+  }
+
+  /**
+   * The topic array in single-entry model text. Throws if no array is found or it was cut off
+   * before its first topic.
+   */
+  Topics readTopics(String text) throws IOException {
+    int start = text == null ? -1 : text.indexOf('[');
+    if (start < 0) {
+      throw new IllegalArgumentException("Model did not return a JSON array");
+    }
+
+    List<ParsedTopic> topics = new ArrayList<>();
+    try (JsonParser parser = parserAt(text, start)) {
+      parser.nextToken(); // START_ARRAY
+      boolean complete = readTopicArray(parser, topics);
+      if (!complete && topics.isEmpty()) {
+        throw new IllegalArgumentException("Model output ended before the first topic");
+      }
+      return new Topics(topics, complete);
+    } catch (IOException e) {
+      // Cut off mid-token; keep what was completed before it
+      if (topics.isEmpty()) throw e;
+      return new Topics(topics, false);
+    }
+  }
+
+  /**
+   * Batch model text: an object of entry id -> topic array. Only arrays that were read to the
+   * end are returned, so a reply cut off mid-entry leaves that entry (and any after it) out.
+   */
+  Map<String, List<ParsedTopic>> readTopicsById(String text) throws IOException {
+    int start = text == null ? -1 : text.indexOf('{');
+    if (start < 0) {
+      throw new IllegalArgumentException("Model did not return a JSON object");
+    }
+
+    Map<String, List<ParsedTopic>> results = new HashMap<>();
+    try (JsonParser parser = parserAt(text, start)) {
+      parser.nextToken(); // START_OBJECT
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String id = parser.currentName();
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+          parser.skipChildren();
+          continue;
+        }
+        List<ParsedTopic> topics = new ArrayList<>();
+        if (!readTopicArray(parser, topics)) break;
+        results.put(id, topics);
+      }
+    } catch (IOException e) {
+      if (results.isEmpty()) throw e;
+    }
+    return results;
+  }
+
+  // Reads the text from offset {@code start} without copying the prefix away
+  private JsonParser parserAt(String text, int start) throws IOException {
+    StringReader reader = new StringReader(text);
+    reader.skip(start);
+    return jsonFactory.createParser(reader);
+  }
+
+  // Parser positioned on START_ARRAY. Returns false if the input ended before END_ARRAY.
+  private static boolean readTopicArray(JsonParser parser, List<ParsedTopic> topics) throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != null) {
+      if (token == JsonToken.END_ARRAY) return true;
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        continue;
+      }
+      ParsedTopic topic = readTopic(parser);
+      if (topic == null) return false;
+      topics.add(topic);
+    }
+    return false;
+  }
+
+  // Parser positioned on START_OBJECT. Returns null if the input ended inside the object.
+  private static ParsedTopic readTopic(JsonParser parser) throws IOException {
+    String topic = "";
+    String subject = DEFAULT_SUBJECT;
+    boolean priority = false;
+    String reason = "";
+    double confidence = DEFAULT_CONFIDENCE;
+
+    JsonToken token;
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (value == null) return null;
+      switch (field) {
+        case "topic" -> topic = value.isScalarValue() ? parser.getValueAsString("") : topic;
+        case "subject" -> subject = value.isScalarValue() ? parser.getValueAsString(DEFAULT_SUBJECT) : subject;
+        case "priority" -> priority = parser.getValueAsBoolean(false);
+        case "reason" -> reason = value.isScalarValue() ? parser.getValueAsString("") : reason;
+        case "confidence" -> confidence = value.isNumeric() ? parser.getDoubleValue() : confidence;
+        default -> { }
+      }
+      parser.skipChildren();
+    }
+    if (token != JsonToken.END_OBJECT) return null;
+    return new ParsedTopic(topic, subject, priority, reason, confidence);
+  }
+}
@@ -1,92 +1,56 @@
 package com.knowtify.service;
 
 import com.knowtify.dto.StudyDtos.DateRange;
+import com.knowtify.dto.StudyDtos.KnowledgeMapChangesResponse;
 import com.knowtify.dto.StudyDtos.KnowledgeMapResponse;
 import com.knowtify.dto.StudyDtos.SubjectSummary;
-import com.knowtify.dto.StudyDtos.TopicSummary;
-import com.knowtify.entity.StudyEntry;
-import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.dto.StudyDtos.TopicChange;
 import com.knowtify.repository.StudyEntryRepository;
-import jakarta.transaction.Transactional;
+import com.knowtify.repository.TopicAggregateView;
+import com.knowtify.repository.UserTopicChangeRepository;
+import com.knowtify.repository.UserTopicStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class KnowledgeMapService {
 
+  // Past this many changed topics a client is better off reloading the full map
+  static final int MAX_CHANGES = 2000;
+
   private final StudyEntryRepository studyEntryRepository;
+  private final UserTopicStatsRepository userTopicStatsRepository;
+  private final UserTopicChangeRepository userTopicChangeRepository;
+  private final DataVersionService dataVersionService;
+  private final MeterRegistry meterRegistry;
 
-  @Transactional
+  @Transactional(readOnly = true)
   public KnowledgeMapResponse getKnowledgeMap(UUID userId, LocalDate start, LocalDate end) {
-    List<StudyEntry> entries;
+    Timer.Sample sample = Timer.start(meterRegistry);
+    List<TopicAggregateView> rows;
     if (start != null && end != null) {
       LocalDateTime from = start.atStartOfDay();
       LocalDateTime to = end.plusDays(1).atStartOfDay().minusNanos(1); // inclusive end
-      entries = studyEntryRepository.findByUser_IdAndStudiedAtBetween(userId, from, to);
+      rows = studyEntryRepository.aggregateTopicsByUserBetween(userId, from, to);
     } else {
-      // If you don't have a dedicated "findAllByUserId", filter in memory
-      entries = studyEntryRepository.findAll().stream()
-          .filter(e -> e.getUser() != null && userId.equals(e.getUser().getId()))
-          .collect(Collectors.toList());
-    }
-
-    // subject -> topic -> accumulator
-    Map<String, Map<String, TopicAccumulator>> subjectTopicMap = new LinkedHashMap<>();
-
-    for (StudyEntry entry : entries) {
-      LocalDateTime studiedAt = entry.getStudiedAt();
-      List<StudyEntryTopic> links = entry.getStudyEntryTopics();
-      if (links == null) continue;
-
-      for (StudyEntryTopic link : links) {
-        if (link.getTopic() == null || link.getTopic().getSubject() == null) continue;
-
-        String subjectName = link.getTopic().getSubject().getName();
-        String topicName = link.getTopic().getName();
-        boolean priority = Boolean.TRUE.equals(link.getIsPriority());
-
-        subjectTopicMap
-            .computeIfAbsent(subjectName, s -> new LinkedHashMap<>())
-            .computeIfAbsent(topicName, t -> new TopicAccumulator())
-            .accumulate(priority, studiedAt);
-      }
+      // All-time map is served from the materialized weekly buckets
+      rows = userTopicStatsRepository.aggregateAllTime(userId);
     }
 
-    List<SubjectSummary> subjects = new ArrayList<>();
-    for (Map.Entry<String, Map<String, TopicAccumulator>> subjEntry : subjectTopicMap.entrySet()) {
-      String subject = subjEntry.getKey();
-      Map<String, TopicAccumulator> topicStats = subjEntry.getValue();
-
-      List<TopicSummary> topics = topicStats.entrySet().stream()
-          .map(e -> TopicSummary.builder()
-              .name(e.getKey())
-              .count(e.getValue().count)
-              .isPriority(e.getValue().anyPriority)
-              .lastStudiedAt(e.getValue().lastStudiedAt)
-              .build())
-          .sorted(Comparator
-              .comparing(TopicSummary::getLastStudiedAt, Comparator.nullsLast(Comparator.reverseOrder()))
-              .thenComparing(TopicSummary::getName))
-          .toList();
-
-      int totalStudies = topics.stream().mapToInt(TopicSummary::getCount).sum();
-
-      subjects.add(SubjectSummary.builder()
-          .subject(subject)
-          .topics(topics)
-          .totalStudies(totalStudies)
-          .build());
-    }
-
-    subjects.sort(Comparator
-        .comparing(SubjectSummary::getTotalStudies, Comparator.reverseOrder())
-        .thenComparing(SubjectSummary::getSubject));
+    TopicAggregation aggregation = TopicAggregation.of(rows);
+    List<SubjectSummary> subjects = aggregation.subjectSummaries(TopicAggregation.BY_RECENCY);
+    aggregation.recordMetrics(meterRegistry, start != null ? "knowledge_map_range" : "knowledge_map", sample);
 
     DateRange range = null;
     if (start != null && end != null) {
@@ -102,17 +66,49 @@ public class KnowledgeMapService {
         .build();
   }
 
-  private static class TopicAccumulator {
-    int count = 0;
-    boolean anyPriority = false;
-    LocalDateTime lastStudiedAt = null;
+  /**
+   * Topics whose all-time summary changed after {@code since}, for patching a client copy of
+   * the map taken at that version. Cost is O(changed topics): a range scan on the change index,
+   * then the summaries of just those topics. {@code since <= 0} returns every topic.
+   */
+  @Transactional(readOnly = true)
+  public KnowledgeMapChangesResponse getChanges(UUID userId, long since) {
+    // Read the version first: anything committed after it is simply sent again next time
+    long version = dataVersionService.current(userId);
+    KnowledgeMapChangesResponse.KnowledgeMapChangesResponseBuilder response = KnowledgeMapChangesResponse.builder()
+        .since(since)
+        .version(version);
+
+    if (since > version) {
+      // Client holds a version this server never issued (e.g. restored database)
+      return response.fullSyncRequired(true).changes(List.of()).build();
+    }
+    if (since == version) {
+      return response.changes(List.of()).build();
+    }
 
-    void accumulate(boolean isPriority, LocalDateTime studiedAt) {
-      count++;
-      anyPriority = anyPriority || isPriority;
-      if (studiedAt != null && (lastStudiedAt == null || studiedAt.isAfter(lastStudiedAt))) {
-        lastStudiedAt = studiedAt;
+    Timer.Sample sample = Timer.start(meterRegistry);
+    List<TopicAggregateView> rows;
+    if (since <= 0) {
+      rows = userTopicStatsRepository.aggregateAllTime(userId);
+    } else {
+      List<UUID> changed = userTopicChangeRepository.findTopicIdsChangedSince(userId, since, Limit.of(MAX_CHANGES + 1));
+      if (changed.size() > MAX_CHANGES) {
+        return response.fullSyncRequired(true).changes(List.of()).build();
       }
+      rows = changed.isEmpty() ? List.of() : userTopicStatsRepository.aggregateAllTimeForTopics(userId, changed);
+    }
+
+    TopicAggregation aggregation = TopicAggregation.of(rows);
+    List<TopicChange> changes = new ArrayList<>(rows.size());
+    for (SubjectSummary subject : aggregation.subjectSummaries(TopicAggregation.BY_RECENCY)) {
+      subject.getTopics().forEach(topic -> changes.add(TopicChange.builder()
+          .subject(subject.getSubject())
+          .topic(topic)
+          .build()));
     }
+    aggregation.recordMetrics(meterRegistry, "knowledge_map_changes", sample);
+
+    return response.changes(changes).build();
   }
 }
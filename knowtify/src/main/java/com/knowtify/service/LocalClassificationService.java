@@ -0,0 +1,93 @@
+package com.knowtify.service;
+
+import com.knowtify.repository.TopicCatalogView;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.service.SubjectService.DefaultSubject;
+import com.knowtify.service.TopicClassifier.CatalogTopic;
+import com.knowtify.service.TopicClassifier.Classification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the current {@link TopicClassifier}. It starts with the subject keyword dictionary only,
+ * picks up the topic catalogue once the app is ready, and is rebuilt in the background when new
+ * topics have been created since the last build. Classification never waits on a rebuild.
+ */
+@Service
+@Slf4j
+public class LocalClassificationService {
+
+  private final TopicRepository topicRepository;
+  private final TopicParsingService topicParsingService;
+  private final Map<String, List<String>> subjectKeywords;
+  private final int maxCatalogTopics;
+  private final double minCatalogConfidence;
+  private final AtomicBoolean catalogChanged = new AtomicBoolean(false);
+
+  private volatile TopicClassifier classifier;
+
+  public LocalClassificationService(
+          TopicRepository topicRepository,
+          TopicParsingService topicParsingService,
+          @Value("${knowtify.classifier.max-catalog-topics:50000}") int maxCatalogTopics,
+          @Value("${knowtify.classifier.min-catalog-confidence:0.7}") double minCatalogConfidence
+  ) {
+    this.topicRepository = topicRepository;
+    this.topicParsingService = topicParsingService;
+    this.maxCatalogTopics = maxCatalogTopics;
+    this.minCatalogConfidence = minCatalogConfidence;
+
+    Map<String, List<String>> keywords = new LinkedHashMap<>();
+    for (DefaultSubject subject : SubjectService.defaultSubjects()) {
+      keywords.put(subject.name(), subject.keywords());
+    }
+    this.subjectKeywords = keywords;
+    this.classifier = TopicClassifier.build(topicParsingService, subjectKeywords, List.of());
+  }
+
+  public Classification classify(String sentence) {
+    return classifier.classify(sentence);
+  }
+
+  /**
+   * Called when a topic is created; the next scheduled refresh rebuilds the dictionary.
+   */
+  public void topicCreated() {
+    catalogChanged.set(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadCatalog() {
+    rebuild();
+  }
+
+  @Scheduled(fixedDelayString = "${knowtify.classifier.refresh-interval:60s}",
+          initialDelayString = "${knowtify.classifier.refresh-interval:60s}")
+  public void refreshIfChanged() {
+    if (catalogChanged.compareAndSet(true, false)) {
+      rebuild();
+    }
+  }
+
+  public void rebuild() {
+    long start = System.nanoTime();
+    List<CatalogTopic> catalog = topicRepository.findCatalog(
+                    minCatalogConfidence, TopicClassifier.OTHER_SUBJECT, PageRequest.ofSize(maxCatalogTopics))
+            .stream()
+            .map((TopicCatalogView t) -> new CatalogTopic(t.getName(), t.getSubject()))
+            .toList();
+    classifier = TopicClassifier.build(topicParsingService, subjectKeywords, catalog);
+    log.debug("Offline classifier rebuilt with {} catalogue topics in {} ms",
+            catalog.size(), (System.nanoTime() - start) / 1_000_000);
+  }
+}
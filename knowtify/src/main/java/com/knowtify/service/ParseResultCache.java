@@ -0,0 +1,199 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy.VarExpiration;
+import com.knowtify.repository.ParseCacheEntryRepository;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed cache of model parse results.
+ * <p>
+ * Tier 1 is a size-bounded in-memory Caffeine cache (W-TinyLFU admission); tier 2 is an
+ * optional table in the application database that survives restarts. Both tiers expire
+ * entries after {@code gemini.cache.ttl}, measured from when the result was first stored: a row
+ * promoted from tier 2 keeps only its remaining lifetime. Only model results are stored; fallback
+ * output is never cached.
+ * <p>
+ * Tier 2 is a best-effort side table and must never fail the entry being ingested. Its statements
+ * are plain JDBC under a savepoint: in the caller's transaction on the same connection, otherwise
+ * in a short transaction of their own. A failure only rolls back the savepoint and reads as a miss.
+ */
+@Component
+@Slf4j
+public class ParseResultCache {
+
+  private static final TypeReference<List<ParsedTopic>> TOPIC_LIST = new TypeReference<>() {};
+
+  private record StoredEntry(String payload, Instant createdAt) {}
+
+  private final Cache<String, List<ParsedTopic>> memory;
+  private final VarExpiration<String, List<ParsedTopic>> memoryExpiry;
+  private final ParseCacheEntryRepository repository;
+  private final SavepointInserts savepointInserts;
+  private final TransactionTemplate tableTx;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+  private final boolean persistent;
+
+  private final LongAdder persistentHits = new LongAdder();
+  private final LongAdder persistentMisses = new LongAdder();
+
+  public static record Stats(long hits, long misses, long evictions, long persistentHits, long persistentMisses, long size) {}
+
+  public ParseResultCache(
+          @Value("${gemini.cache.max-size:10000}") long maxSize,
+          @Value("${gemini.cache.ttl:7d}") Duration ttl,
+          @Value("${gemini.cache.persistent:false}") boolean persistent,
+          ParseCacheEntryRepository repository,
+          SavepointInserts savepointInserts,
+          PlatformTransactionManager transactionManager,
+          ObjectMapper objectMapper
+  ) {
+    this.ttl = ttl;
+    this.persistent = persistent;
+    this.repository = repository;
+    this.savepointInserts = savepointInserts;
+    // Joins the caller's transaction if there is one
+    this.tableTx = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+    this.objectMapper = objectMapper;
+    this.memory = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(Expiry.<String, List<ParsedTopic>>writing((key, topics) -> ttl))
+            .recordStats()
+            .build();
+    this.memoryExpiry = memory.policy().expireVariably().orElseThrow();
+  }
+
+  public String key(String sentence, String model, String promptVersion) {
+    String material = normalize(sentence) + '\u0000' + model + '\u0000' + promptVersion;
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  public Optional<List<ParsedTopic>> get(String key) {
+    List<ParsedTopic> hit = memory.getIfPresent(key);
+    if (hit != null || !persistent) {
+      return Optional.ofNullable(hit);
+    }
+
+    StoredEntry row = inTable("lookup", key, () -> savepointInserts.isolated(connection -> read(connection, key)));
+    if (row == null) {
+      persistentMisses.increment();
+      return Optional.empty();
+    }
+    Duration remaining = Duration.between(Instant.now(), row.createdAt().plus(ttl));
+    if (remaining.isNegative() || remaining.isZero()) {
+      persistentMisses.increment();
+      inTable("cleanup", key, () -> savepointInserts.isolated(connection -> delete(connection, key)));
+      return Optional.empty();
+    }
+
+    List<ParsedTopic> topics;
+    try {
+      topics = objectMapper.readValue(row.payload(), TOPIC_LIST);
+    } catch (JsonProcessingException e) {
+      log.warn("Parse cache entry for key {} is unreadable: {}", key, e.getMessage());
+      return Optional.empty();
+    }
+    persistentHits.increment();
+    memoryExpiry.put(key, topics, remaining); // promote to tier 1 without restarting the TTL
+    return Optional.of(topics);
+  }
+
+  public void put(String key, String model, String promptVersion, List<ParsedTopic> topics) {
+    List<ParsedTopic> value = List.copyOf(topics);
+    memory.put(key, value);
+    if (!persistent) return;
+
+    String payload;
+    try {
+      payload = objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      log.warn("Parse cache write failed for key {}: {}", key, e.getMessage());
+      return;
+    }
+    // A concurrent parse of the same sentence may have stored it first; either row will do
+    inTable("write", key, () -> savepointInserts.insertIfAbsent(ParseCacheEntryRepository.INSERT_ENTRY,
+            key, model, promptVersion, payload, OffsetDateTime.now(ZoneOffset.UTC)));
+  }
+
+  /**
+   * Drops persistent entries older than the TTL. The in-memory tier expires on its own.
+   */
+  public int purgeExpired() {
+    return persistent ? repository.deleteOlderThan(Instant.now().minus(ttl)) : 0;
+  }
+
+  public Stats stats() {
+    var s = memory.stats();
+    return new Stats(s.hitCount(), s.missCount(), s.evictionCount(),
+            persistentHits.sum(), persistentMisses.sum(), memory.estimatedSize());
+  }
+
+  // Exceptions are caught inside the callback, so a joined caller transaction is never marked rollback-only
+  private <T> T inTable(String operation, String key, Supplier<T> statement) {
+    return tableTx.execute(status -> {
+      try {
+        return statement.get();
+      } catch (RuntimeException e) {
+        log.warn("Parse cache {} failed for key {}: {}", operation, key, e.getMessage());
+        return null;
+      }
+    });
+  }
+
+  private static StoredEntry read(Connection connection, String key) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(ParseCacheEntryRepository.SELECT_ENTRY)) {
+      statement.setString(1, key);
+      try (ResultSet rs = statement.executeQuery()) {
+        return rs.next() ? new StoredEntry(rs.getString(1), rs.getObject(2, OffsetDateTime.class).toInstant()) : null;
+      }
+    }
+  }
+
+  private static int delete(Connection connection, String key) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(ParseCacheEntryRepository.DELETE_ENTRY)) {
+      statement.setString(1, key);
+      return statement.executeUpdate();
+    }
+  }
+
+  // Case- and whitespace-insensitive: "Studied  QuickSort " and "studied quicksort" share an entry
+  static String normalize(String sentence) {
+    if (sentence == null) return "";
+    return sentence.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+}
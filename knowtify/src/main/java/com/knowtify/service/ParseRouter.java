@@ -0,0 +1,108 @@
+package com.knowtify.service;
+
+import com.knowtify.service.GeminiParsingService.ParseOutcome;
+import com.knowtify.service.TopicClassifier.Classification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front door for parsing a study sentence. The local classifier runs first; when every topic it
+ * finds is exactly a catalogue topic (names the model produced before) and the sentence scores
+ * at least the threshold, the result is used as is and the model is never called. Unknown terms,
+ * keyword-only guesses, ambiguous subjects or no topics at all escalate to
+ * {@link GeminiParsingService}.
+ * <p>
+ * Metrics: {@code knowtify.parse.route} counts sentences per route and reason (the local share
+ * is local / total), {@code knowtify.parse.latency} has p50/p99 per route, and
+ * {@code knowtify.gemini.calls.avoided} counts model calls skipped.
+ */
+@Service
+@Slf4j
+public class ParseRouter {
+
+  static final String ROUTE_LOCAL = "local";
+  static final String ROUTE_MODEL = "model";
+
+  private final LocalClassificationService localClassificationService;
+  private final GeminiParsingService geminiParsingService;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final double confidenceThreshold;
+
+  public ParseRouter(
+          LocalClassificationService localClassificationService,
+          GeminiParsingService geminiParsingService,
+          MeterRegistry meterRegistry,
+          @Value("${knowtify.parse.routing.enabled:true}") boolean enabled,
+          @Value("${knowtify.parse.routing.confidence-threshold:0.8}") double confidenceThreshold
+  ) {
+    this.localClassificationService = localClassificationService;
+    this.geminiParsingService = geminiParsingService;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.confidenceThreshold = confidenceThreshold;
+  }
+
+  public ParseOutcome parse(String sentence) {
+    long start = System.nanoTime();
+    Classification local = enabled ? localClassificationService.classify(sentence) : null;
+    String escalation = escalationReason(local);
+    if (escalation == null) {
+      record(ROUTE_LOCAL, "confident", start);
+      return ParseOutcome.local(local.topics());
+    }
+
+    ParseOutcome outcome = geminiParsingService.parse(sentence);
+    record(ROUTE_MODEL, escalation, start);
+    return outcome;
+  }
+
+  /**
+   * Non-blocking variant of {@link #parse}. The local pass is cheap enough to run on the
+   * calling thread; only an escalation waits on the model.
+   */
+  public Mono<ParseOutcome> parseReactive(String sentence) {
+    long start = System.nanoTime();
+    Classification local = enabled ? localClassificationService.classify(sentence) : null;
+    String escalation = escalationReason(local);
+    if (escalation == null) {
+      record(ROUTE_LOCAL, "confident", start);
+      return Mono.just(ParseOutcome.local(local.topics()));
+    }
+
+    // Recorded however the call ends, so cancelled requests still show up in the route counts
+    return geminiParsingService.parseReactive(sentence)
+            .doFinally(signal -> record(ROUTE_MODEL, escalation, start));
+  }
+
+  // null when the local result is good enough; otherwise a low-cardinality reason tag.
+  // Confidence alone is not enough: keyword and partial matches are the classifier's own guesses.
+  String escalationReason(Classification classification) {
+    if (classification == null) return "routing_disabled";
+    if (classification.topics().isEmpty()) return "no_topics";
+    if (classification.unknownTerms() > 0) return "unknown_terms";
+    if (classification.knownTopics() < classification.topics().size()) return "not_in_catalogue";
+    if (classification.confidence() < confidenceThreshold) return "low_confidence";
+    return null;
+  }
+
+  private void record(String route, String reason, long startNanos) {
+    meterRegistry.counter("knowtify.parse.route", "route", route, "reason", reason).increment();
+    Timer.builder("knowtify.parse.latency")
+            .description("Sentence parse latency per route")
+            .tag("route", route)
+            .publishPercentiles(0.5, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    if (ROUTE_LOCAL.equals(route)) {
+      meterRegistry.counter("knowtify.gemini.calls.avoided").increment();
+    }
+  }
+}
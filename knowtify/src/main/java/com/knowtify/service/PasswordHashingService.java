@@ -0,0 +1,91 @@
+package com.knowtify.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a login storm burns these workers, not the servlet
+ * threads serving cheap reads. The queue is bounded: when it is full, callers get a failed
+ * future with {@link RejectedExecutionException} right away (mapped to 503), instead of piling up.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+  private final PasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor executor;
+  private final Timer encodeTimer;
+  private final Timer matchTimer;
+  private final Counter rejected;
+
+  public PasswordHashingService(
+          PasswordEncoder passwordEncoder,
+          MeterRegistry meterRegistry,
+          @Value("${knowtify.auth.hash-workers:0}") int workers,
+          @Value("${knowtify.auth.hash-queue-capacity:64}") int queueCapacity
+  ) {
+    this.passwordEncoder = passwordEncoder;
+    int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    // Platform threads: hashing is CPU-bound, so the pool size is the real concurrency limit
+    this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    this.encodeTimer = hashTimer(meterRegistry, "encode");
+    this.matchTimer = hashTimer(meterRegistry, "matches");
+    this.rejected = Counter.builder("knowtify.auth.hash.rejected")
+            .description("Hash requests refused because the queue was full")
+            .register(meterRegistry);
+    Gauge.builder("knowtify.auth.hash.queue", executor, e -> e.getQueue().size())
+            .description("Hash requests waiting for a worker")
+            .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  public CompletableFuture<String> encode(String rawPassword) {
+    return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+    return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+    try {
+      return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      log.warn("Password hashing queue full ({} waiting), rejecting", executor.getQueue().size());
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static Timer hashTimer(MeterRegistry registry, String operation) {
+    return Timer.builder("knowtify.auth.hash")
+            .description("BCrypt time per operation, excluding queue wait")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(registry);
+  }
+}
@@ -1,27 +1,41 @@
 package com.knowtify.service;
 
 import com.knowtify.dto.StudyDtos.*;
-import com.knowtify.entity.StudyEntry;
-import com.knowtify.entity.StudyEntryTopic;
-import com.knowtify.repository.StudyEntryRepository;
+import com.knowtify.repository.TopicAggregateView;
+import com.knowtify.repository.UserTopicStatsRepository;
 import com.knowtify.util.WeekUtil;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.List;
+import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ReportService {
 
-  private final StudyEntryRepository studyEntryRepository;
+  private final UserTopicStatsRepository userTopicStatsRepository;
   private final WeekUtil weekUtil;
+  private final MeterRegistry meterRegistry;
+  private final int urgentLimit;
+
+  public ReportService(
+          UserTopicStatsRepository userTopicStatsRepository,
+          WeekUtil weekUtil,
+          MeterRegistry meterRegistry,
+          @Value("${knowtify.reports.urgent-limit:20}") int urgentLimit
+  ) {
+    this.userTopicStatsRepository = userTopicStatsRepository;
+    this.weekUtil = weekUtil;
+    this.meterRegistry = meterRegistry;
+    this.urgentLimit = urgentLimit;
+  }
 
   @Transactional(readOnly = true)
   public WeeklyReportResponse generateWeeklyReport(UUID userId, Integer year, Integer week) {
@@ -30,89 +44,20 @@ public class ReportService {
     if (week == null) week = weekUtil.getCurrentWeekNumber();
 
     WeekUtil.WeekRange weekRange = weekUtil.getWeekRange(year, week);
-
-    // Get entries for the week
-    LocalDateTime weekStart = weekRange.getStartDate().atStartOfDay();
-    LocalDateTime weekEnd = weekRange.getEndDate().atTime(LocalTime.MAX);
-
-    List<StudyEntry> entries = studyEntryRepository
-            .findByUser_IdAndStudiedAtBetween(userId, weekStart, weekEnd);
-
-    // Collect all study entry topics
-    List<StudyEntryTopic> allTopics = entries.stream()
-            .flatMap(entry -> entry.getStudyEntryTopics().stream())
-            .collect(Collectors.toList());
-
-    // Group by subject
-    Map<String, List<StudyEntryTopic>> topicsBySubject = allTopics.stream()
-            .collect(Collectors.groupingBy(
-                    studyEntryTopic -> studyEntryTopic.getTopic().getSubject().getName()
-            ));
-
-    List<SubjectSummary> subjects = new ArrayList<>();
-    List<TopicSummary> urgentTopics = new ArrayList<>();
-
-    for (Map.Entry<String, List<StudyEntryTopic>> subjectEntry : topicsBySubject.entrySet()) {
-      String subjectName = subjectEntry.getKey();
-      List<StudyEntryTopic> subjectTopics = subjectEntry.getValue();
-
-      // Group by topic name
-      Map<String, List<StudyEntryTopic>> topicGroups = subjectTopics.stream()
-              .collect(Collectors.groupingBy(
-                      studyEntryTopic -> studyEntryTopic.getTopic().getName()
-              ));
-
-      List<TopicSummary> topicSummaries = new ArrayList<>();
-
-      for (Map.Entry<String, List<StudyEntryTopic>> topicGroup : topicGroups.entrySet()) {
-        String topicName = topicGroup.getKey();
-        List<StudyEntryTopic> topicInstances = topicGroup.getValue();
-
-        boolean hasAnyPriority = topicInstances.stream()
-                .anyMatch(StudyEntryTopic::getIsPriority);
-
-        LocalDateTime lastStudied = topicInstances.stream()
-                .map(studyEntryTopic -> studyEntryTopic.getStudyEntry().getStudiedAt())
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-
-        TopicSummary topicSummary = TopicSummary.builder()
-                .name(topicName)
-                .count(topicInstances.size())
-                .isPriority(hasAnyPriority)
-                .lastStudiedAt(lastStudied)
-                .build();
-
-        topicSummaries.add(topicSummary);
-
-        if (hasAnyPriority) {
-          urgentTopics.add(topicSummary);
-        }
-      }
-
-      // Sort topics by count descending, then by name
-      topicSummaries.sort((a, b) -> {
-        int countCompare = Integer.compare(b.getCount(), a.getCount());
-        return countCompare != 0 ? countCompare : a.getName().compareTo(b.getName());
-      });
-
-      subjects.add(SubjectSummary.builder()
-              .subject(subjectName)
-              .topics(topicSummaries)
-              .totalStudies(subjectTopics.size())
-              .build());
-    }
-
-    // Sort subjects by total studies descending
-    subjects.sort((a, b) -> Integer.compare(b.getTotalStudies(), a.getTotalStudies()));
-
-    // Sort urgent topics by last studied descending
-    urgentTopics.sort((a, b) -> {
-      if (a.getLastStudiedAt() == null && b.getLastStudiedAt() == null) return 0;
-      if (a.getLastStudiedAt() == null) return 1;
-      if (b.getLastStudiedAt() == null) return -1;
-      return b.getLastStudiedAt().compareTo(a.getLastStudiedAt());
-    });
+    Timer.Sample sample = Timer.start(meterRegistry);
+
+    // Read the pre-aggregated weekly bucket (one row per topic) instead of rescanning entries
+    LocalDate weekStart = weekRange.getStartDate();
+    List<TopicAggregateView> rows = userTopicStatsRepository.aggregateWeek(
+            userId,
+            weekStart.get(IsoFields.WEEK_BASED_YEAR),
+            weekStart.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+
+    // One pass over the rows; urgent topics are a bounded top-K, not a full sort
+    TopicAggregation aggregation = TopicAggregation.of(rows);
+    List<SubjectSummary> subjects = aggregation.subjectSummaries(TopicAggregation.BY_COUNT);
+    List<TopicSummary> urgentTopics = aggregation.recentPriorityTopics(urgentLimit);
+    aggregation.recordMetrics(meterRegistry, "weekly_report", sample);
 
     return WeeklyReportResponse.builder()
             .reportWeek(ReportWeek.builder()
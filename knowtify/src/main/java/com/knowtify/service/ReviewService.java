@@ -0,0 +1,188 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.DueReview;
+import com.knowtify.dto.StudyDtos.DueReviewsResponse;
+import com.knowtify.entity.ReviewState;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.User;
+import com.knowtify.repository.DueReviewView;
+import com.knowtify.repository.LinkActivityView;
+import com.knowtify.repository.ReviewStateRepository;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.util.UuidV7;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-(user, topic) spaced-repetition schedule ({@link ReviewState}) on ingest and
+ * serves due reviews from the (user_id, due_at) index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewService {
+
+  static final int MAX_DUE_LIMIT = 100;
+
+  private final ReviewStateRepository reviewStateRepository;
+  private final StudyEntryTopicRepository studyEntryTopicRepository;
+  private final UserRepository userRepository;
+  private final TopicRepository topicRepository;
+  private final SavepointInserts savepointInserts;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Schedules the topics of a freshly created entry. One locked lookup for the entry's topics
+   * (plus an insert and a second lookup for topics studied for the first time), then O(1) per
+   * topic. Runs inside the caller's transaction.
+   */
+  @Transactional
+  public void recordLinks(UUID userId, LocalDateTime studiedAt, List<StudyEntryTopic> links) {
+    if (links == null || links.isEmpty()) return;
+
+    List<Study> studies = new ArrayList<>(links.size());
+    for (StudyEntryTopic link : links) {
+      studies.add(new Study(link.getTopic().getId(), studiedAt, link.getIsPriority()));
+    }
+    apply(userId, studies);
+  }
+
+  /**
+   * Bulk variant of {@link #recordLinks} for links of many entries, each with its own studiedAt.
+   * Studies are replayed oldest first so the schedule matches one-by-one ingestion.
+   */
+  @Transactional
+  public void recordEntryLinks(UUID userId, Collection<StudyEntryTopic> links) {
+    if (links == null || links.isEmpty()) return;
+
+    List<Study> studies = new ArrayList<>(links.size());
+    for (StudyEntryTopic link : links) {
+      studies.add(new Study(link.getTopic().getId(), link.getStudyEntry().getStudiedAt(), link.getIsPriority()));
+    }
+    studies.sort(Comparator.comparing(Study::studiedAt));
+    apply(userId, studies);
+  }
+
+  /**
+   * Existing states are locked and updated in place. A topic's first state is inserted under a
+   * savepoint; if a concurrent ingest inserted it first, the insert is a no-op and that writer's
+   * row is locked and updated instead, so neither study is lost. Missing topics are inserted in
+   * id order, like the stats buckets, so two writers can't deadlock on each other's inserts.
+   */
+  private void apply(UUID userId, List<Study> studies) {
+    // topic id -> first study, which seeds due_at until recordStudy sets the real one
+    Map<UUID, LocalDateTime> topics = new TreeMap<>();
+    for (Study study : studies) {
+      topics.putIfAbsent(study.topicId(), study.studiedAt());
+    }
+
+    Map<UUID, ReviewState> states = lock(userId, topics.keySet());
+    if (states.size() < topics.size()) {
+      List<UUID> created = new ArrayList<>(topics.size() - states.size());
+      topics.forEach((topicId, studiedAt) -> {
+        if (states.containsKey(topicId)) return;
+        savepointInserts.insertIfAbsent(ReviewStateRepository.INSERT_STATE,
+            UuidV7.generate(), userId, topicId, ReviewState.INITIAL_EASE, 0.0, 0, 0, studiedAt);
+        created.add(topicId);
+      });
+      states.putAll(lock(userId, created));
+    }
+
+    // Managed entities; the changes flush as updates with the caller's transaction
+    for (Study study : studies) {
+      states.get(study.topicId()).recordStudy(study.studiedAt(), study.struggled());
+    }
+  }
+
+  private Map<UUID, ReviewState> lock(UUID userId, Collection<UUID> topicIds) {
+    Map<UUID, ReviewState> states = HashMap.newHashMap(topicIds.size());
+    for (ReviewState state : reviewStateRepository.lockByUserAndTopics(userId, topicIds)) {
+      states.put(state.getTopic().getId(), state);
+    }
+    return states;
+  }
+
+  /**
+   * Topics due by {@code dueBy}, most overdue first, at most {@code limit}. Reads only the
+   * requested slice of the user's due index.
+   */
+  @Transactional(readOnly = true)
+  public DueReviewsResponse findDue(UUID userId, LocalDateTime dueBy, int limit) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_DUE_LIMIT));
+
+    // One extra row tells whether there is more without counting
+    List<DueReviewView> rows = reviewStateRepository.findDue(userId, dueBy, Limit.of(pageSize + 1));
+    boolean hasMore = rows.size() > pageSize;
+
+    List<DueReview> items = new ArrayList<>(Math.min(rows.size(), pageSize));
+    for (DueReviewView row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+      items.add(DueReview.builder()
+          .topicId(row.getTopicId())
+          .topic(row.getTopicName())
+          .subject(row.getSubjectName())
+          .dueAt(row.getDueAt())
+          .lastStudiedAt(row.getLastStudiedAt())
+          .intervalDays(row.getIntervalDays())
+          .easeFactor(row.getEaseFactor())
+          .repetitions(row.getRepetitions())
+          .lapses(row.getLapses())
+          .build());
+    }
+
+    return DueReviewsResponse.builder()
+        .dueBy(dueBy)
+        .items(items)
+        .hasMore(hasMore)
+        .build();
+  }
+
+  /**
+   * Replays every user's study history into review states. Each user is rebuilt in its own
+   * transaction, like the stats backfill.
+   */
+  public int rebuildAll() {
+    int rows = 0;
+    for (UUID userId : userRepository.findAllIds()) {
+      Integer written = transactionTemplate.execute(status -> rebuildUser(userId));
+      rows += written == null ? 0 : written;
+    }
+    log.info("Rebuilt review_states: {} rows", rows);
+    return rows;
+  }
+
+  private int rebuildUser(UUID userId) {
+    reviewStateRepository.deleteByUserId(userId);
+
+    // Rows arrive oldest first, so each state is replayed in order without sorting the history
+    User user = userRepository.getReferenceById(userId);
+    Map<UUID, ReviewState> states = new HashMap<>();
+    try (Stream<LinkActivityView> activity = studyEntryTopicRepository.streamActivityByUserInStudyOrder(userId)) {
+      activity.forEach(row -> states.computeIfAbsent(row.getTopicId(), topicId -> ReviewState.builder()
+              .user(user)
+              .topic(topicRepository.getReferenceById(topicId))
+              .build())
+          .recordStudy(row.getStudiedAt(), Boolean.TRUE.equals(row.getPriority())));
+    }
+
+    reviewStateRepository.saveAll(states.values());
+    return states.size();
+  }
+
+  @Transactional(readOnly = true)
+  public boolean needsBackfill() {
+    return reviewStateRepository.count() == 0 && studyEntryTopicRepository.count() > 0;
+  }
+
+  private record Study(UUID topicId, LocalDateTime studiedAt, boolean struggled) {}
+}
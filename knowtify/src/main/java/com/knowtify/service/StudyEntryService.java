@@ -4,83 +4,204 @@ import com.knowtify.dto.StudyDtos;
 import com.knowtify.dto.StudyDtos.*;
 import com.knowtify.entity.*;
 import com.knowtify.repository.*;
+import com.knowtify.service.GeminiParsingService.ParseOutcome;
 import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import com.knowtify.util.EntryCursor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StudyEntryService {
 
+  static final String TOPICS_PER_ENTRY = "knowtify.entries.topics";
+
   private final StudyEntryRepository studyEntryRepository;
-  private final TopicRepository topicRepository;
   private final StudyEntryTopicRepository studyEntryTopicRepository;
   private final UserRepository userRepository;
-  private final GeminiParsingService geminiParsingService;
+  private final ParseRouter parseRouter;
   private final SubjectService subjectService;
+  private final TopicService topicService;
+  private final UserTopicStatsService userTopicStatsService;
+  private final ReviewService reviewService;
+  private final ActivityRollupService activityRollupService;
+  private final DataVersionService dataVersionService;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
 
   @Transactional
   public CreateEntryResponse createStudyEntry(UUID userId, CreateEntryRequest request) {
     // Verify user exists
-    User user = userRepository.findById(userId)
+    userRepository.findById(userId)
         .orElseThrow(() -> new RuntimeException("User not found"));
 
-    // Parse sentence with Gemini
-    List<ParsedTopic> parsedTopics = geminiParsingService.parseStudyEntry(request.getSentence());
+    // Local classifier first, Gemini only for sentences it isn't sure about
+    ParseOutcome outcome = parseRouter.parse(request.getSentence());
+
+    return saveParsedEntry(userId, request, outcome);
+  }
+
+  /**
+   * Non-blocking variant of {@link #createStudyEntry}: no thread waits on the model call.
+   * Only the short persistence step runs on a bounded-elastic worker, in its own transaction.
+   */
+  public Mono<CreateEntryResponse> createStudyEntryReactive(UUID userId, CreateEntryRequest request) {
+    return parseRouter.parseReactive(request.getSentence())
+        .publishOn(Schedulers.boundedElastic())
+        .map(outcome -> transactionTemplate.execute(status -> saveParsedEntry(userId, request, outcome)));
+  }
+
+  private CreateEntryResponse saveParsedEntry(UUID userId, CreateEntryRequest request, ParseOutcome outcome) {
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new RuntimeException("User not found"));
 
     // Create study entry
     StudyEntry studyEntry = StudyEntry.builder()
         .user(user)
         .originalSentence(request.getSentence())
         .studiedAt(LocalDateTime.now())
+        .status(statusFor(outcome))
         .build();
 
     studyEntry = studyEntryRepository.save(studyEntry);
 
+    List<ParsedTopicDto> responseTopics = linkTopics(studyEntry, outcome);
+
+    return CreateEntryResponse.builder()
+        .message("Study entry created successfully")
+        .entryId(studyEntry.getId())
+        .studiedAt(studyEntry.getStudiedAt())
+        .status(studyEntry.getStatus().name())
+        .parsedTopics(responseTopics)
+        .build();
+  }
+
+  /**
+   * First half of the async ingest path: persists the raw sentence as PENDING
+   * without calling the model, so the request transaction stays short.
+   */
+  @Transactional
+  public StudyEntry createPendingEntry(UUID userId, CreateEntryRequest request) {
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new RuntimeException("User not found"));
+
+    StudyEntry studyEntry = StudyEntry.builder()
+        .user(user)
+        .originalSentence(request.getSentence())
+        .studiedAt(LocalDateTime.now())
+        .status(EntryStatus.PENDING)
+        .build();
+
+    return studyEntryRepository.save(studyEntry);
+  }
+
+  /**
+   * Second half of the async ingest path: links the parsed topics to a PENDING entry
+   * and flips its status to PARSED or FALLBACK.
+   */
+  @Transactional
+  public EntryStatusResponse completePendingEntry(UUID entryId, ParseOutcome outcome) {
+    StudyEntry studyEntry = studyEntryRepository.findById(entryId)
+        .orElseThrow(() -> new RuntimeException("Study entry not found"));
+
+    if (studyEntry.getStatus() != EntryStatus.PENDING) {
+      log.warn("Entry {} already completed with status {}", entryId, studyEntry.getStatus());
+      return toStatusResponse(studyEntry, List.of());
+    }
+
+    List<ParsedTopicDto> responseTopics = linkTopics(studyEntry, outcome);
+    studyEntry.setStatus(statusFor(outcome));
+
+    return toStatusResponse(studyEntry, responseTopics);
+  }
+
+  @Transactional
+  public void markFailed(UUID entryId) {
+    studyEntryRepository.findById(entryId)
+        .filter(e -> e.getStatus() == EntryStatus.PENDING)
+        .ifPresent(e -> e.setStatus(EntryStatus.FAILED));
+  }
+
+  /**
+   * Drops a PENDING entry that was never handed to a worker (ingestion queue full),
+   * so the client's retry doesn't leave a duplicate behind.
+   */
+  @Transactional
+  public void discardPendingEntry(UUID entryId) {
+    studyEntryRepository.findById(entryId)
+        .filter(e -> e.getStatus() == EntryStatus.PENDING)
+        .ifPresent(studyEntryRepository::delete);
+  }
+
+  /**
+   * PENDING entries whose worker was lost (restart): those saved before {@code staleBefore}
+   * are marked FAILED, the rest are returned to be parsed again.
+   */
+  @Transactional
+  public List<EntryRowView> resumablePendingEntries(LocalDateTime staleBefore) {
+    int failed = studyEntryRepository.updateStatusBefore(EntryStatus.PENDING, EntryStatus.FAILED, staleBefore);
+    if (failed > 0) {
+      log.warn("Marked {} stale PENDING entries FAILED", failed);
+    }
+    return studyEntryRepository.findRowsByStatus(EntryStatus.PENDING);
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<EntryStatusResponse> findEntryStatus(UUID userId, UUID entryId) {
+    return studyEntryRepository.findById(entryId)
+        .filter(e -> userId.equals(e.getUser().getId()))
+        .map(e -> toStatusResponse(e, e.getStudyEntryTopics().stream()
+            .filter(l -> l.getTopic() != null)
+            .map(l -> ParsedTopicDto.builder()
+                .name(l.getTopic().getName())
+                .subject(l.getTopic().getSubject().getName())
+                .isPriority(l.getIsPriority())
+                .confidence(Optional.ofNullable(l.getTopic().getConfidenceScore()).orElse(0.0))
+                .build())
+            .collect(Collectors.toList())));
+  }
+
+  private List<ParsedTopicDto> linkTopics(StudyEntry studyEntry, ParseOutcome outcome) {
     // Process each parsed topic
     List<ParsedTopicDto> responseTopics = new ArrayList<>();
+    Map<UUID, StudyEntryTopic> linksByTopic = new LinkedHashMap<>(); // one link per topic (unique constraint)
+    Map<UUID, UUID> subjectIds = new HashMap<>(); // topic id -> subject id, for the activity rollup
 
-    for (ParsedTopic parsedTopic : parsedTopics) {
+    for (ParsedTopic parsedTopic : outcome.topics()) {
       try {
         // Find or create subject
         Subject subject = subjectService.findOrCreateSubject(parsedTopic.subject());
 
         // Find or create topic
-        Topic topic = topicRepository.findByNameIgnoreCaseAndSubject_Id(
-            parsedTopic.topic(), subject.getId())
-            .orElseGet(() -> {
-              Topic newTopic = Topic.builder()
-                  .name(parsedTopic.topic())
-                  .subject(subject)
-                  .confidenceScore(parsedTopic.confidence())
-                  .build();
-              return topicRepository.save(newTopic);
-            });
+        Topic topic = topicService.findOrCreateTopic(subject, parsedTopic.topic(), outcome.storedConfidence(parsedTopic));
 
         // Create study entry topic link
-        StudyEntryTopic studyEntryTopic = StudyEntryTopic.builder()
+        StudyEntryTopic link = linksByTopic.computeIfAbsent(topic.getId(), id -> StudyEntryTopic.builder()
             .studyEntry(studyEntry)
             .topic(topic)
-            .isPriority(parsedTopic.priority())
-            .build();
-
-        studyEntryTopicRepository.save(studyEntryTopic);
+            .build());
+        link.setIsPriority(link.getIsPriority() || parsedTopic.priority());
+        subjectIds.put(topic.getId(), subject.getId());
 
         // Add to response
         responseTopics.add(ParsedTopicDto.builder()
@@ -97,79 +218,89 @@ public class StudyEntryService {
       }
     }
 
-    return CreateEntryResponse.builder()
-        .message("Study entry created successfully")
-        .entryId(studyEntry.getId())
-        .studiedAt(studyEntry.getStudiedAt())
-        .parsedTopics(responseTopics)
+    // Ids are assigned in Java (UUIDv7), so all links go out as one JDBC batch at flush
+    List<StudyEntryTopic> links = new ArrayList<>(linksByTopic.values());
+    studyEntryTopicRepository.saveAll(links);
+    meterRegistry.summary(TOPICS_PER_ENTRY).record(links.size());
+    userTopicStatsService.recordLinks(studyEntry.getUser().getId(), studyEntry.getStudiedAt(), links);
+    reviewService.recordLinks(studyEntry.getUser().getId(), studyEntry.getStudiedAt(), links);
+    activityRollupService.recordLinks(studyEntry.getUser().getId(), studyEntry.getStudiedAt(), links, subjectIds);
+    dataVersionService.recordChange(studyEntry.getUser().getId(),
+        links.stream().map(link -> link.getTopic().getId()).toList());
+    return responseTopics;
+  }
+
+  private static EntryStatus statusFor(ParseOutcome outcome) {
+    return outcome.fallback() ? EntryStatus.FALLBACK : EntryStatus.PARSED;
+  }
+
+  private EntryStatusResponse toStatusResponse(StudyEntry e, List<ParsedTopicDto> topics) {
+    return EntryStatusResponse.builder()
+        .entryId(e.getId())
+        .status(e.getStatus().name())
+        .studiedAt(e.getStudiedAt())
+        .parsedTopics(topics)
         .build();
   }
-//
-//  public List<StudyDtos.EntryView> findRecent(UUID userId, int limit) {
-//    Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(limit, 100)), Sort.by(Sort.Direction.DESC, "studiedAt"));
-//    Page<StudyEntry> page = studyEntryRepository.findByUser_Id(userId, pageable);
-//    return page.getContent().stream().map(this::toEntryView).toList();
-//  }
-//
-//  private StudyDtos.EntryView toEntryView(StudyEntry e) {
-//    List<StudyEntryTopic> links = Optional.ofNullable(e.getStudyEntryTopics()).orElse(Collections.emptyList());
-//    return StudyDtos.EntryView.builder()
-//            .id(e.getId())
-//            .originalSentence(e.getOriginalSentence())
-//            .studiedAt(e.getStudiedAt())
-//            .topics(
-//                    links.stream()
-//                            .filter(l -> l.getTopic() != null)
-//                            .map(l -> StudyDtos.TopicSummary.builder()
-//                                    .name(l.getTopic().getName())
-//                                    .count(1)
-//                                    .isPriority(Boolean.TRUE.equals(l.getIsPriority()))
-//                                    .lastStudiedAt(e.getStudiedAt())
-//                                    .build())
-//                            .toList()
-//            )
-//            .build();
-//  }
-public List<StudyDtos.EntryView> findRecent(UUID userId, int limit) {
-  System.out.println("🔍 Service: Finding recent entries for user " + userId);
-
-  Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(limit, 100)),
-          Sort.by(Sort.Direction.DESC, "studiedAt"));
-
-  Page<StudyEntry> page = studyEntryRepository.findByUser_Id(userId, pageable);
-
-  System.out.println("📄 Found page with " + page.getContent().size() + " entries");
-
-  List<StudyDtos.EntryView> result = page.getContent().stream()
-          .map(this::toEntryView)
-          .collect(Collectors.toList());
-
-  System.out.println("✅ Converted to " + result.size() + " EntryView objects");
-
-  return result;
-}
+  /**
+   * Two-phase keyset page: entry rows first (index range scan on user_id, studied_at, id),
+   * then the topics of just those ids in one query. Cost is O(page size) at any depth.
+   */
+  @Transactional(readOnly = true)
+  public EntryPage findRecent(UUID userId, int limit, String cursor) {
+    int pageSize = Math.max(1, Math.min(limit, 100));
+    log.debug("Finding recent entries for user {} (limit={}, cursor={})", userId, pageSize, cursor);
+
+    List<EntryRowView> rows = fetchRows(userId, cursor == null ? null : EntryCursor.decode(cursor), pageSize);
+    List<StudyDtos.EntryView> items = toEntryViews(rows);
+
+    String nextCursor = null;
+    if (rows.size() == pageSize) {
+      EntryRowView last = rows.get(rows.size() - 1);
+      nextCursor = new EntryCursor(last.getStudiedAt(), last.getId()).encode();
+    }
 
-  private StudyDtos.EntryView toEntryView(StudyEntry e) {
-    List<StudyEntryTopic> links = Optional.ofNullable(e.getStudyEntryTopics())
-            .orElse(Collections.emptyList());
-
-    return StudyDtos.EntryView.builder()
-            .id(e.getId())
-            .originalSentence(e.getOriginalSentence())
-            .studiedAt(e.getStudiedAt())
-            .topics(
-                    links.stream()
-                            .filter(l -> l.getTopic() != null)
-                            .map(l -> StudyDtos.TopicSummary.builder()
-                                    .name(l.getTopic().getName())
-                                    .count(1)
-                                    .isPriority(Boolean.TRUE.equals(l.getIsPriority()))
-                                    .lastStudiedAt(e.getStudiedAt())
-                                    .build())
-                            .collect(Collectors.toList())
-            )
-            .build();
+    log.debug("Found {} recent entries for user {}", items.size(), userId);
+    return EntryPage.builder()
+        .items(items)
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  List<EntryRowView> fetchRows(UUID userId, EntryCursor after, int pageSize) {
+    return after == null
+        ? studyEntryRepository.findLatestRows(userId, Limit.of(pageSize))
+        : studyEntryRepository.findRowsBefore(userId, after.studiedAt(), after.id(), Limit.of(pageSize));
   }
+
+  List<StudyDtos.EntryView> toEntryViews(List<EntryRowView> rows) {
+    if (rows.isEmpty()) return List.of();
+
+    Map<UUID, List<EntryTopicView>> topicsByEntry = studyEntryTopicRepository
+        .findTopicsByEntryIds(rows.stream().map(EntryRowView::getId).toList())
+        .stream()
+        .collect(Collectors.groupingBy(EntryTopicView::getEntryId));
+
+    List<StudyDtos.EntryView> views = new ArrayList<>(rows.size());
+    for (EntryRowView row : rows) {
+      List<EntryTopicView> links = topicsByEntry.getOrDefault(row.getId(), Collections.emptyList());
+      views.add(StudyDtos.EntryView.builder()
+          .id(row.getId())
+          .originalSentence(row.getOriginalSentence())
+          .studiedAt(row.getStudiedAt())
+          .topics(links.stream()
+              .map(l -> StudyDtos.TopicSummary.builder()
+                  .name(l.getTopicName())
+                  .count(1)
+                  .isPriority(Boolean.TRUE.equals(l.getPriority()))
+                  .lastStudiedAt(row.getStudiedAt())
+                  .build())
+              .collect(Collectors.toList()))
+          .build());
+    }
+    return views;
+  }
+
   @Transactional(readOnly = true)
   public List<StudyEntry> findRecentEntriesForUser(UUID userId, int limit) {
     return studyEntryRepository.findTop10ByUser_IdOrderByStudiedAtDesc(userId);
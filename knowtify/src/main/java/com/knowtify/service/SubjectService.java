@@ -1,45 +1,115 @@
 package com.knowtify.service;
 
 import com.knowtify.entity.Subject;
+import com.knowtify.repository.SavepointInserts;
 import com.knowtify.repository.SubjectRepository;
+import com.knowtify.util.UuidV7;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SubjectService {
 
   private final SubjectRepository subjectRepository;
+  private final SavepointInserts savepointInserts;
 
-  private static final List<String> DEFAULT_SUBJECTS = List.of(
-    "Data Structures & Algorithms",
-    "Operating Systems", 
-    "Web Development",
-    "Database Systems",
-    "Machine Learning",
-    "Computer Networks",
-    "Software Engineering",
-    "Mobile Development",
-    "DevOps",
-    "Cybersecurity",
-    "Programming Languages",
-    "System Design",
-    "Mathematics",
-    "Computer Graphics",
-    "Other"
+  // lower-cased subject name -> id; the catalogue is small and almost never changes
+  private final Map<String, UUID> subjectIds = new ConcurrentHashMap<>();
+
+  /**
+   * Seeded subject with the keywords/aliases the offline classifier uses to recognise it.
+   * Keywords are matched as whole words, case-insensitively.
+   */
+  public static record DefaultSubject(String name, List<String> keywords) {}
+
+  private static final List<DefaultSubject> DEFAULT_SUBJECTS = List.of(
+    new DefaultSubject("Data Structures & Algorithms", List.of(
+      "algorithm", "algorithms", "data structure", "data structures", "array", "arrays", "linked list",
+      "stack", "queue", "heap", "hash map", "hash maps", "hash table", "binary tree", "binary trees",
+      "binary search", "bst", "trie", "graph", "graphs", "bfs", "dfs", "dijkstra", "dynamic programming",
+      "dp", "recursion", "backtracking", "greedy", "sorting", "quicksort", "merge sort", "mergesort",
+      "big o", "time complexity", "two pointers", "sliding window", "union find", "topological sort")),
+    new DefaultSubject("Operating Systems", List.of(
+      "operating system", "operating systems", "os", "process", "processes", "thread", "threads",
+      "scheduling", "cpu scheduling", "deadlock", "deadlocks", "semaphore", "semaphores", "mutex",
+      "paging", "virtual memory", "page table", "memory management", "file system", "kernel",
+      "system calls", "context switch", "race condition", "synchronization")),
+    new DefaultSubject("Web Development", List.of(
+      "web development", "html", "css", "javascript", "js", "typescript", "react", "react hooks",
+      "hooks", "redux", "vue", "angular", "svelte", "next.js", "node", "node.js", "express", "dom",
+      "frontend", "backend", "rest api", "http", "cookies", "cors", "tailwind", "webpack", "vite")),
+    new DefaultSubject("Database Systems", List.of(
+      "database", "databases", "sql", "nosql", "postgres", "postgresql", "mysql", "mongodb", "redis",
+      "normalization", "indexing", "index", "indexes", "joins", "join", "transactions", "acid",
+      "query optimization", "er diagram", "b-tree", "b+ tree", "schema", "orm", "jpa", "hibernate")),
+    new DefaultSubject("Machine Learning", List.of(
+      "machine learning", "ml", "deep learning", "neural network", "neural networks", "cnn", "rnn",
+      "transformer", "transformers", "regression", "linear regression", "logistic regression",
+      "classification", "clustering", "k-means", "gradient descent", "backpropagation", "overfitting",
+      "decision tree", "random forest", "svm", "pytorch", "tensorflow", "nlp", "embeddings")),
+    new DefaultSubject("Computer Networks", List.of(
+      "computer networks", "networking", "network", "tcp", "udp", "ip", "tcp/ip", "osi model", "dns",
+      "routing", "subnetting", "subnet", "http/2", "tls", "ssl", "sockets", "socket", "arp", "dhcp",
+      "congestion control", "bgp", "mac address")),
+    new DefaultSubject("Software Engineering", List.of(
+      "software engineering", "design patterns", "design pattern", "solid", "unit testing", "testing",
+      "tdd", "refactoring", "clean code", "agile", "scrum", "uml", "code review", "git", "version control",
+      "dependency injection", "oop", "object oriented programming")),
+    new DefaultSubject("Mobile Development", List.of(
+      "mobile development", "android", "ios", "swift", "swiftui", "kotlin", "flutter", "dart",
+      "react native", "jetpack compose", "xcode")),
+    new DefaultSubject("DevOps", List.of(
+      "devops", "docker", "kubernetes", "k8s", "ci/cd", "jenkins", "github actions",
+      "terraform", "ansible", "helm", "containers", "container", "deployment", "monitoring", "prometheus")),
+    new DefaultSubject("Cybersecurity", List.of(
+      "cybersecurity", "security", "encryption", "cryptography", "xss", "csrf", "sql injection",
+      "authentication", "authorization", "oauth", "jwt", "hashing", "firewall", "penetration testing",
+      "vulnerability", "rsa", "aes")),
+    new DefaultSubject("Programming Languages", List.of(
+      "programming languages", "java", "python", "c++", "rust", "golang", "haskell",
+      "compilers", "compiler", "interpreter", "type systems", "generics", "closures", "lambda",
+      "garbage collection", "functional programming", "pointers")),
+    new DefaultSubject("System Design", List.of(
+      "system design", "load balancing", "load balancer", "caching", "cache", "sharding", "replication",
+      "microservices", "message queue", "kafka", "rate limiting", "cap theorem", "consistent hashing",
+      "scalability", "cdn", "distributed systems")),
+    new DefaultSubject("Mathematics", List.of(
+      "mathematics", "math", "maths", "calculus", "integrals", "integral", "derivatives", "derivative",
+      "linear algebra", "matrices", "matrix", "eigenvalues", "probability", "statistics",
+      "discrete math", "discrete mathematics", "combinatorics", "number theory", "proofs", "induction")),
+    new DefaultSubject("Computer Graphics", List.of(
+      "computer graphics", "graphics", "opengl", "vulkan", "shaders", "shader", "ray tracing",
+      "rasterization", "webgl", "rendering", "texture mapping", "3d transformations")),
+    new DefaultSubject("Other", List.of())
   );
 
+  /**
+   * The seeded subjects with their classifier keywords.
+   */
+  public static List<DefaultSubject> defaultSubjects() {
+    return DEFAULT_SUBJECTS;
+  }
+
+  public SubjectService(SubjectRepository subjectRepository, SavepointInserts savepointInserts) {
+    this.subjectRepository = subjectRepository;
+    this.savepointInserts = savepointInserts;
+  }
+
   @PostConstruct
   @Transactional
   public void seedSubjects() {
-    for (String subjectName : DEFAULT_SUBJECTS) {
+    for (DefaultSubject defaultSubject : DEFAULT_SUBJECTS) {
+      String subjectName = defaultSubject.name();
       if (!subjectRepository.findByNameIgnoreCase(subjectName).isPresent()) {
         Subject subject = Subject.builder()
             .name(subjectName)
@@ -49,6 +119,9 @@ public class SubjectService {
         log.debug("Seeded subject: {}", subjectName);
       }
     }
+
+    // Warm the name -> id cache with every known subject, not just the defaults
+    subjectRepository.findAll().forEach(s -> subjectIds.put(key(s.getName()), s.getId()));
   }
 
   @Transactional(readOnly = true)
@@ -56,24 +129,55 @@ public class SubjectService {
     return subjectRepository.findByNameIgnoreCase(name.trim());
   }
 
+  /**
+   * Cache hits return an uninitialized reference, which is all callers need to link a topic.
+   */
   @Transactional
   public Subject findOrCreateSubject(String name) {
     String cleanName = name.trim();
-    
-    return subjectRepository.findByNameIgnoreCase(cleanName)
-        .orElseGet(() -> {
-          Subject newSubject = Subject.builder()
-              .name(cleanName)
-              .description("Subject: " + cleanName)
-              .build();
-          Subject saved = subjectRepository.save(newSubject);
-          log.info("Created new subject: {}", cleanName);
-          return saved;
-        });
+
+    UUID cachedId = subjectIds.get(key(cleanName));
+    if (cachedId != null) {
+      return subjectRepository.getReferenceById(cachedId);
+    }
+
+    Subject existing = subjectRepository.findByNameIgnoreCase(cleanName).orElse(null);
+    if (existing != null) {
+      // May be this transaction's own uncommitted insert; only cache what survives the commit
+      UUID existingId = existing.getId();
+      TopicService.runAfterCommit(() -> subjectIds.put(key(cleanName), existingId));
+      return existing;
+    }
+    return create(cleanName);
+  }
+
+  public void evict(String name) {
+    subjectIds.remove(key(name.trim()));
   }
 
   @Transactional(readOnly = true)
   public List<Subject> findAll() {
     return subjectRepository.findAll();
   }
+
+  // Caller's transaction, under a savepoint: a concurrent insert of the same name only undoes ours, then we re-read
+  private Subject create(String cleanName) {
+    UUID id = UuidV7.generate();
+    if (!savepointInserts.insertIfAbsent(SubjectRepository.INSERT_SUBJECT, id, cleanName, "Subject: " + cleanName)) {
+      log.debug("Subject '{}' created concurrently, re-reading", cleanName);
+      Subject winner = subjectRepository.findByNameIgnoreCase(cleanName)
+          .orElseThrow(() -> new IllegalStateException("Subject '" + cleanName + "' conflicted but is not visible"));
+      UUID winnerId = winner.getId();
+      TopicService.runAfterCommit(() -> subjectIds.put(key(cleanName), winnerId));
+      return winner;
+    }
+
+    log.info("Created new subject: {}", cleanName);
+    TopicService.runAfterCommit(() -> subjectIds.put(key(cleanName), id));
+    return subjectRepository.getReferenceById(id);
+  }
+
+  private static String key(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
 }
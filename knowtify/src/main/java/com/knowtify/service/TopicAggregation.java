@@ -0,0 +1,174 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.SubjectSummary;
+import com.knowtify.dto.StudyDtos.TopicSummary;
+import com.knowtify.repository.TopicAggregateView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Single-pass fold of per-topic aggregate rows into subject and topic totals, shared by the
+ * knowledge map and the weekly report. Topics are keyed by id; each row touches one topic and
+ * one subject accumulator, and DTOs are only built once, for the final output.
+ */
+final class TopicAggregation {
+
+  /** Most recently studied first, never-studied last, then by name. */
+  static final Comparator<TopicAccumulator> BY_RECENCY = (a, b) -> {
+    int c = compareRecency(a.lastStudiedAt, b.lastStudiedAt);
+    return c != 0 ? c : a.name.compareTo(b.name);
+  };
+
+  /** Most studied first, then by name. */
+  static final Comparator<TopicAccumulator> BY_COUNT = (a, b) -> {
+    int c = Integer.compare(b.count, a.count);
+    return c != 0 ? c : a.name.compareTo(b.name);
+  };
+
+  private final Map<UUID, TopicAccumulator> topics;
+  private final Map<String, SubjectAccumulator> subjects = new HashMap<>();
+  private long totalStudies = 0;
+
+  TopicAggregation(int expectedTopics) {
+    this.topics = HashMap.newHashMap(expectedTopics);
+  }
+
+  static TopicAggregation of(Collection<? extends TopicAggregateView> rows) {
+    TopicAggregation aggregation = new TopicAggregation(rows.size());
+    for (TopicAggregateView row : rows) {
+      aggregation.add(row);
+    }
+    return aggregation;
+  }
+
+  void add(TopicAggregateView row) {
+    int studies = row.getStudyCount() == null ? 0 : row.getStudyCount().intValue();
+    totalStudies += studies;
+
+    TopicAccumulator topic = topics.get(row.getTopicId());
+    if (topic == null) {
+      SubjectAccumulator subject = subjects.computeIfAbsent(row.getSubjectName(), SubjectAccumulator::new);
+      topic = new TopicAccumulator(row.getTopicName());
+      topics.put(row.getTopicId(), topic);
+      subject.topics.add(topic);
+      subject.totalStudies += studies;
+    } else {
+      subjects.get(row.getSubjectName()).totalStudies += studies;
+    }
+    topic.accumulate(studies, row.isAnyPriority(), row.getLastStudiedAt());
+  }
+
+  /**
+   * Subjects by total studies (descending, then name), each with its topics in {@code topicOrder}.
+   */
+  List<SubjectSummary> subjectSummaries(Comparator<TopicAccumulator> topicOrder) {
+    List<SubjectAccumulator> ordered = new ArrayList<>(subjects.values());
+    ordered.sort((a, b) -> {
+      int c = Integer.compare(b.totalStudies, a.totalStudies);
+      return c != 0 ? c : a.name.compareTo(b.name);
+    });
+
+    List<SubjectSummary> result = new ArrayList<>(ordered.size());
+    for (SubjectAccumulator subject : ordered) {
+      subject.topics.sort(topicOrder);
+      List<TopicSummary> summaries = new ArrayList<>(subject.topics.size());
+      for (TopicAccumulator topic : subject.topics) {
+        summaries.add(topic.toSummary());
+      }
+      result.add(SubjectSummary.builder()
+          .subject(subject.name)
+          .topics(summaries)
+          .totalStudies(subject.totalStudies)
+          .build());
+    }
+    return result;
+  }
+
+  /**
+   * The {@code limit} most recently studied priority topics, newest first. Uses a heap bounded
+   * at {@code limit}, so selecting from n topics costs O(n log limit) rather than a full sort.
+   */
+  List<TopicSummary> recentPriorityTopics(int limit) {
+    if (limit <= 0) return List.of();
+
+    // Worst of the kept candidates on top, so it is the one evicted
+    PriorityQueue<TopicAccumulator> heap = new PriorityQueue<>(Math.min(limit, 64) + 1, BY_RECENCY.reversed());
+    for (TopicAccumulator topic : topics.values()) {
+      if (!topic.anyPriority) continue;
+      heap.offer(topic);
+      if (heap.size() > limit) heap.poll();
+    }
+
+    List<TopicAccumulator> selected = new ArrayList<>(heap);
+    selected.sort(BY_RECENCY);
+    List<TopicSummary> result = new ArrayList<>(selected.size());
+    for (TopicAccumulator topic : selected) {
+      result.add(topic.toSummary());
+    }
+    return result;
+  }
+
+  /**
+   * Stops {@code sample} as the time to build {@code view}, and records how many topics and
+   * studies it covered.
+   */
+  void recordMetrics(MeterRegistry registry, String view, Timer.Sample sample) {
+    sample.stop(registry.timer("knowtify.aggregation", "view", view));
+    registry.summary("knowtify.aggregation.topics", "view", view).record(topics.size());
+    registry.summary("knowtify.aggregation.studies", "view", view).record(totalStudies);
+  }
+
+  private static int compareRecency(LocalDateTime a, LocalDateTime b) {
+    if (a == null) return b == null ? 0 : 1;
+    if (b == null) return -1;
+    return b.compareTo(a);
+  }
+
+  static final class TopicAccumulator {
+    final String name;
+    int count = 0;
+    boolean anyPriority = false;
+    LocalDateTime lastStudiedAt = null;
+
+    TopicAccumulator(String name) {
+      this.name = name;
+    }
+
+    void accumulate(int studies, boolean isPriority, LocalDateTime studiedAt) {
+      count += studies;
+      anyPriority = anyPriority || isPriority;
+      if (studiedAt != null && (lastStudiedAt == null || studiedAt.isAfter(lastStudiedAt))) {
+        lastStudiedAt = studiedAt;
+      }
+    }
+
+    TopicSummary toSummary() {
+      return TopicSummary.builder()
+          .name(name)
+          .count(count)
+          .isPriority(anyPriority)
+          .lastStudiedAt(lastStudiedAt)
+          .build();
+    }
+  }
+
+  private static final class SubjectAccumulator {
+    final String name;
+    final List<TopicAccumulator> topics = new ArrayList<>();
+    int totalStudies = 0;
+
+    SubjectAccumulator(String name) {
+      this.name = name;
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package com.knowtify.service;
+
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import com.knowtify.util.AhoCorasick;
+import com.knowtify.util.AhoCorasick.Match;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, rule-based topic classifier. Segments come from {@link TopicParsingService}; each
+ * segment is scanned once by an Aho–Corasick automaton holding three dictionaries:
+ * known topic names (catalogue), subject keywords/aliases, and "struggled/confusing" cues.
+ * <p>
+ * Confidence per topic reflects how the subject was decided: an exact catalogue hit, a
+ * catalogue topic inside a longer phrase, subject keywords, or nothing (subject "Other").
+ * The sentence confidence is the lowest of its topics, so one unknown term makes the whole
+ * sentence low-confidence.
+ */
+public final class TopicClassifier {
+
+  static final String OTHER_SUBJECT = "Other";
+
+  static final double KNOWN_TOPIC_CONFIDENCE = 0.95;
+  static final double PARTIAL_TOPIC_CONFIDENCE = 0.8;
+  static final double KEYWORD_CONFIDENCE = 0.7;
+  static final double AMBIGUOUS_CONFIDENCE = 0.5;
+  static final double UNKNOWN_CONFIDENCE = 0.3;
+
+  // Phrasing that marks a topic as priority (needs review), matched as whole words
+  static final List<String> PRIORITY_CUES = List.of(
+      "struggled with", "struggling with", "struggled", "struggling",
+      "confused by", "confused about", "confused", "confusing",
+      "had trouble with", "trouble with", "hard time with", "had a hard time with",
+      "difficult", "tricky", "hard to understand",
+      "stuck on", "got stuck on", "didn't understand", "did not understand", "don't understand",
+      "need to review", "needs review", "review again", "revisit",
+      "spent extra time on", "spent a long time on");
+
+  // Filler words left around a topic once cue phrases are cut out
+  private static final Set<String> FILLER = Set.of(
+      "i", "was", "with", "on", "about", "the", "a", "an", "really", "very", "still", "so", "and",
+      "but", "by", "to", "today", "again", "some", "bit", "little", "quite");
+
+  /**
+   * Catalogue entry: a topic name known under a subject.
+   */
+  public static record CatalogTopic(String name, String subject) {}
+
+  /**
+   * Classified topics and the sentence-level confidence (lowest topic confidence, 0 if none).
+   * {@code knownTopics} counts topics that are exactly a catalogue topic.
+   */
+  public static record Classification(List<ParsedTopic> topics, double confidence, int unknownTerms, int knownTopics) {}
+
+  private enum Kind { TOPIC, KEYWORD, PRIORITY_CUE }
+
+  // subject == null on a TOPIC term means the name exists under several subjects
+  private record Term(Kind kind, String subject, String canonical) {}
+
+  private final TopicParsingService segmenter;
+  private final AhoCorasick<Term> automaton;
+  private final int catalogSize;
+
+  private TopicClassifier(TopicParsingService segmenter, AhoCorasick<Term> automaton, int catalogSize) {
+    this.segmenter = segmenter;
+    this.automaton = automaton;
+    this.catalogSize = catalogSize;
+  }
+
+  public static TopicClassifier build(TopicParsingService segmenter,
+                                      Map<String, List<String>> subjectKeywords,
+                                      Collection<CatalogTopic> catalog) {
+    Map<String, Term> terms = new HashMap<>();
+
+    for (Map.Entry<String, List<String>> subject : subjectKeywords.entrySet()) {
+      for (String keyword : subject.getValue()) {
+        terms.putIfAbsent(normalize(keyword), new Term(Kind.KEYWORD, subject.getKey(), keyword));
+      }
+    }
+
+    // Catalogue topics override keywords of the same spelling
+    for (CatalogTopic topic : catalog) {
+      String key = normalize(topic.name());
+      if (key.isEmpty()) continue;
+      Term existing = terms.get(key);
+      if (existing != null && existing.kind() == Kind.TOPIC
+          && (existing.subject() == null || !existing.subject().equalsIgnoreCase(topic.subject()))) {
+        terms.put(key, new Term(Kind.TOPIC, null, existing.canonical()));
+      } else if (existing == null || existing.kind() != Kind.TOPIC) {
+        terms.put(key, new Term(Kind.TOPIC, topic.subject(), topic.name()));
+      }
+    }
+
+    for (String cue : PRIORITY_CUES) {
+      terms.put(normalize(cue), new Term(Kind.PRIORITY_CUE, null, cue));
+    }
+
+    return new TopicClassifier(segmenter, AhoCorasick.build(terms), catalog.size());
+  }
+
+  public int catalogSize() {
+    return catalogSize;
+  }
+
+  public Classification classify(String sentence) {
+    List<TopicParsingService.ParsedTopic> segments = segmenter.parseSentence(sentence);
+    if (segments.isEmpty()) {
+      return new Classification(List.of(), 0.0, 0, 0);
+    }
+
+    Map<String, ParsedTopic> topics = new LinkedHashMap<>();
+    double confidence = 1.0;
+    int unknown = 0;
+
+    for (TopicParsingService.ParsedTopic segment : segments) {
+      ParsedTopic topic = classifySegment(segment.name(), segment.isPriority());
+      if (topic == null) continue;
+
+      confidence = Math.min(confidence, topic.confidence());
+      if (topic.confidence() <= UNKNOWN_CONFIDENCE) unknown++;
+      topics.merge(topic.topic(), topic, (a, b) -> a.priority() || !b.priority() ? a : b);
+    }
+
+    if (topics.isEmpty()) {
+      return new Classification(List.of(), 0.0, 0, 0);
+    }
+    int known = 0;
+    for (ParsedTopic topic : topics.values()) {
+      if (topic.confidence() >= KNOWN_TOPIC_CONFIDENCE) known++;
+    }
+    return new Classification(List.copyOf(topics.values()), confidence, unknown, known);
+  }
+
+  private ParsedTopic classifySegment(String segment, boolean markedPriority) {
+    List<Match<Term>> matches = automaton.findAll(segment);
+
+    boolean priority = markedPriority;
+    List<Match<Term>> cues = null;
+    for (Match<Term> m : matches) {
+      if (m.value().kind() == Kind.PRIORITY_CUE) {
+        priority = true;
+        if (cues == null) cues = new ArrayList<>(2);
+        cues.add(m);
+      }
+    }
+
+    String text = cues == null ? segment : stripCues(segment, cues);
+    if (text.isEmpty()) return null;
+
+    // Exact catalogue topic, or the longest catalogue topic inside the phrase
+    Match<Term> bestTopic = null;
+    for (Match<Term> m : matches) {
+      if (m.value().kind() == Kind.TOPIC && (bestTopic == null || m.length() > bestTopic.length())) {
+        bestTopic = m;
+      }
+    }
+    if (bestTopic != null) {
+      Term term = bestTopic.value();
+      boolean exact = normalize(term.canonical()).equals(text);
+      if (term.subject() != null) {
+        return exact
+            ? topic(term.canonical(), term.subject(), priority, "Known topic", KNOWN_TOPIC_CONFIDENCE)
+            : topic(text, term.subject(), priority, "Contains known topic '" + term.canonical() + "'", PARTIAL_TOPIC_CONFIDENCE);
+      }
+    }
+
+    // Subject keywords: majority vote, ties are ambiguous
+    String subject = null;
+    int best = 0;
+    boolean tie = false;
+    Map<String, Integer> votes = null;
+    for (Match<Term> m : matches) {
+      if (m.value().kind() != Kind.KEYWORD) continue;
+      String voted = m.value().subject();
+      if (votes == null) votes = new HashMap<>(4);
+      int count = votes.merge(voted, 1, Integer::sum);
+      if (count > best) {
+        best = count;
+        subject = voted;
+        tie = false;
+      } else if (count == best && !voted.equals(subject)) {
+        tie = true;
+      }
+    }
+
+    if (subject != null) {
+      return tie || bestTopic != null
+          ? topic(text, subject, priority, "Ambiguous subject keywords", AMBIGUOUS_CONFIDENCE)
+          : topic(text, subject, priority, "Subject keyword", KEYWORD_CONFIDENCE);
+    }
+    if (bestTopic != null) {
+      // Catalogue name exists under several subjects and nothing else disambiguates
+      return topic(text, OTHER_SUBJECT, priority, "Topic exists under several subjects", AMBIGUOUS_CONFIDENCE);
+    }
+    return topic(text, OTHER_SUBJECT, priority, "Unknown term", UNKNOWN_CONFIDENCE);
+  }
+
+  private static ParsedTopic topic(String name, String subject, boolean priority, String reason, double confidence) {
+    return new ParsedTopic(name, subject, priority, priority ? reason + ", flagged for review" : reason, confidence);
+  }
+
+  // Removes cue phrases and the filler words around the rest: "struggled with react hooks" -> "react hooks"
+  private static String stripCues(String segment, List<Match<Term>> cues) {
+    // Longest cue first where cues start at the same place ("struggled with" over "struggled")
+    cues.sort((a, b) -> a.start() != b.start() ? Integer.compare(a.start(), b.start()) : Integer.compare(b.length(), a.length()));
+
+    List<String> words = new ArrayList<>();
+    int from = 0;
+    for (Match<Term> cue : cues) {
+      if (cue.start() < from) continue; // overlaps a cue already cut
+      addWords(segment, from, cue.start(), words);
+      from = cue.end();
+    }
+    addWords(segment, from, segment.length(), words);
+
+    int first = 0;
+    int last = words.size();
+    while (first < last && FILLER.contains(words.get(first))) first++;
+    while (last > first && FILLER.contains(words.get(last - 1))) last--;
+    return String.join(" ", words.subList(first, last));
+  }
+
+  private static void addWords(String text, int from, int to, List<String> words) {
+    int start = -1;
+    for (int i = from; i <= to; i++) {
+      boolean space = i == to || Character.isWhitespace(text.charAt(i));
+      if (space && start >= 0) {
+        words.add(text.substring(start, i));
+        start = -1;
+      } else if (!space && start < 0) {
+        start = i;
+      }
+    }
+  }
+
+  static String normalize(String text) {
+    return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+  }
+}
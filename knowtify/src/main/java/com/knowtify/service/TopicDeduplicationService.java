@@ -0,0 +1,94 @@
+package com.knowtify.service;
+
+import com.knowtify.entity.Topic;
+import com.knowtify.repository.ReviewStateRepository;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.repository.UserTopicChangeRepository;
+import com.knowtify.repository.UserTopicStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Upgrade step for topics stored before {@code topics.name_key} existed, when uniqueness was
+ * case-sensitive: merges topics of one subject whose names differ only in case or surrounding
+ * whitespace, then keys the rest. Once every row has a key this is a single exists query.
+ * <p>
+ * Links of a merged topic move to the surviving one. Rows derived from it (weekly stats, review
+ * state, change stamps) are dropped, so the caller must rebuild the derived tables afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TopicDeduplicationService {
+
+  // Keep a row that is already keyed, else the most confident one
+  private static final Comparator<Topic> SURVIVOR_ORDER = Comparator
+      .comparing((Topic t) -> t.getNameKey() == null)
+      .thenComparing(t -> t.getConfidenceScore() == null ? 0.0 : t.getConfidenceScore(), Comparator.reverseOrder());
+
+  private final TopicRepository topicRepository;
+  private final StudyEntryTopicRepository studyEntryTopicRepository;
+  private final UserTopicStatsRepository userTopicStatsRepository;
+  private final ReviewStateRepository reviewStateRepository;
+  private final UserTopicChangeRepository userTopicChangeRepository;
+  private final DataVersionService dataVersionService;
+
+  /**
+   * Returns how many duplicate topics were merged away.
+   */
+  @Transactional
+  public int mergeCaseDuplicates() {
+    if (!topicRepository.existsByNameKeyIsNull()) return 0;
+
+    Map<String, List<Topic>> groups = new LinkedHashMap<>();
+    for (Topic topic : topicRepository.findAll()) {
+      String key = topic.getSubject().getId() + "|" + Topic.nameKey(topic.getName());
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(topic);
+    }
+
+    Map<UUID, Topic> survivorOf = new LinkedHashMap<>();
+    for (List<Topic> group : groups.values()) {
+      Topic survivor = group.stream().min(SURVIVOR_ORDER).orElseThrow();
+      survivor.setNameKey(Topic.nameKey(survivor.getName()));
+      for (Topic topic : group) {
+        if (topic != survivor) survivorOf.put(topic.getId(), survivor);
+      }
+    }
+    if (survivorOf.isEmpty()) {
+      log.info("Keyed {} topics by normalized name, no duplicates", groups.size());
+      return 0;
+    }
+
+    List<UUID> duplicates = List.copyOf(survivorOf.keySet());
+    List<UUID> survivors = survivorOf.values().stream().map(Topic::getId).distinct().toList();
+    List<UUID> affectedUsers = studyEntryTopicRepository.findUserIdsByTopicIds(duplicates);
+
+    survivorOf.forEach((duplicate, survivor) -> {
+      studyEntryTopicRepository.deleteLinksDuplicatedOn(duplicate, survivor.getId());
+      studyEntryTopicRepository.repointLinks(duplicate, survivor);
+    });
+    userTopicStatsRepository.deleteByTopicIds(duplicates);
+    reviewStateRepository.deleteByTopicIds(duplicates);
+    userTopicChangeRepository.deleteByTopicIds(duplicates);
+    topicRepository.deleteByIds(duplicates);
+
+    // Cached knowledge maps of these users are stale now
+    for (UUID userId : affectedUsers) {
+      dataVersionService.recordChange(userId, survivors);
+    }
+
+    log.info("Merged {} case-duplicate topics into {} for {} users", duplicates.size(), survivors.size(),
+        affectedUsers.size());
+    return duplicates.size();
+  }
+}
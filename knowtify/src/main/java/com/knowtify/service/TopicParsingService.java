@@ -1,41 +1,38 @@
 package com.knowtify.service;
 
+import com.knowtify.util.SentenceTokenizer;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.regex.Pattern;
 
 @Service
 public class TopicParsingService {
 
-  private static final Pattern LEADING_PHRASE = Pattern.compile("^(i\\s+studied|studied|i\\s+learned|learned)\\s*!?", Pattern.CASE_INSENSITIVE);
+  // Tokenizer buffers are reused per platform thread (Tomcat workers run the synchronous create path),
+  // so a parse only allocates the topic names and the result
+  private static final ThreadLocal<SentenceTokenizer> TOKENIZER = ThreadLocal.withInitial(SentenceTokenizer::new);
 
   public static record ParsedTopic(String name, boolean isPriority) {}
 
   public List<ParsedTopic> parseSentence(String sentence) {
-    if (sentence == null || sentence.trim().isEmpty()) {
+    if (sentence == null || sentence.isBlank()) {
       return List.of();
     }
 
-    String cleaned = LEADING_PHRASE.matcher(sentence).replaceFirst("").trim();
+    // Segments come back trimmed and deduplicated, priority if any occurrence was marked with '!'
+    SentenceTokenizer tokenizer = tokenizer();
+    int count = tokenizer.tokenize(sentence);
 
-    Map<String, Boolean> dedup = new LinkedHashMap<>();
-    for (String segment : cleaned.split(",")) {
-      String s = segment == null ? "" : segment.trim();
-      if (s.isEmpty()) continue;
-
-      boolean isPriority = s.startsWith("!");
-      if (isPriority) s = s.substring(1);
-
-      String normalized = s.trim().toLowerCase();
-      if (normalized.isEmpty()) continue;
-
-      // Deduplicate, but if any occurrence marked priority, keep priority true
-      dedup.merge(normalized, isPriority, (oldVal, newVal) -> oldVal || newVal);
+    List<ParsedTopic> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(new ParsedTopic(tokenizer.segment(i), tokenizer.isPriority(i)));
     }
-
-    List<ParsedTopic> result = new ArrayList<>();
-    dedup.forEach((name, prio) -> result.add(new ParsedTopic(name, prio)));
     return result;
   }
+
+  // A virtual thread runs one task and is never reused: a cached tokenizer would only add a
+  // ThreadLocalMap entry that dies with it, so it gets its own
+  static SentenceTokenizer tokenizer() {
+    return Thread.currentThread().isVirtual() ? new SentenceTokenizer() : TOKENIZER.get();
+  }
 }
@@ -0,0 +1,120 @@
+package com.knowtify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.util.UuidV7;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Resolves (subject, topic name) to a Topic with a bounded in-process id cache,
+ * so repeat topics on ingest cost no lookup query.
+ */
+@Service
+@Slf4j
+public class TopicService {
+
+  private final TopicRepository topicRepository;
+  private final SavepointInserts savepointInserts;
+  private final LocalClassificationService localClassificationService;
+
+  // (subjectId, normalized topic name) -> topic id
+  private final Cache<TopicKey, UUID> topicIds;
+
+  private record TopicKey(UUID subjectId, String normalizedName) {}
+
+  public TopicService(
+          TopicRepository topicRepository,
+          SavepointInserts savepointInserts,
+          LocalClassificationService localClassificationService,
+          @Value("${knowtify.topic-cache.max-size:50000}") long maxSize
+  ) {
+    this.topicRepository = topicRepository;
+    this.savepointInserts = savepointInserts;
+    this.localClassificationService = localClassificationService;
+    this.topicIds = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Returns the topic named {@code name} under {@code subject}, creating it if needed.
+   * {@code confidence} is the model's score, or null for a topic the model did not produce.
+   * Must run inside the caller's transaction; a cache hit returns an uninitialized reference (no query).
+   */
+  public Topic findOrCreateTopic(Subject subject, String name, Double confidence) {
+    UUID subjectId = subject.getId();
+    TopicKey key = new TopicKey(subjectId, normalize(name));
+
+    UUID cachedId = topicIds.getIfPresent(key);
+    if (cachedId != null) {
+      return topicRepository.getReferenceById(cachedId);
+    }
+
+    Topic existing = topicRepository.findBySubject_IdAndNameKey(subjectId, key.normalizedName()).orElse(null);
+    if (existing != null) {
+      // The row may be this transaction's own uncommitted insert; only cache what survives the commit
+      UUID existingId = existing.getId();
+      runAfterCommit(() -> topicIds.put(key, existingId));
+      return existing;
+    }
+    return create(key, name, confidence);
+  }
+
+  public void evict(UUID subjectId, String name) {
+    topicIds.invalidate(new TopicKey(subjectId, normalize(name)));
+  }
+
+  public void evictAll() {
+    topicIds.invalidateAll();
+  }
+
+  /**
+   * Inserts in the caller's transaction (no second pooled connection). A concurrent creator of
+   * the same topic makes only the insert's savepoint roll back, and the winner's row is re-read.
+   */
+  private Topic create(TopicKey key, String name, Double confidence) {
+    UUID id = UuidV7.generate();
+    boolean inserted = savepointInserts.insertIfAbsent(TopicRepository.INSERT_TOPIC,
+        id, key.subjectId(), name.trim(), key.normalizedName(), confidence);
+    if (!inserted) {
+      log.debug("Topic '{}' created concurrently, re-reading", name);
+      Topic winner = topicRepository.findBySubject_IdAndNameKey(key.subjectId(), key.normalizedName())
+          .orElseThrow(() -> new IllegalStateException("Topic '" + name + "' conflicted but is not visible"));
+      UUID winnerId = winner.getId();
+      runAfterCommit(() -> topicIds.put(key, winnerId));
+      return winner;
+    }
+
+    // Our row only exists once the caller commits; don't hand its id to other transactions before
+    runAfterCommit(() -> {
+      topicIds.put(key, id);
+      localClassificationService.topicCreated();
+    });
+    return topicRepository.getReferenceById(id);
+  }
+
+  static void runAfterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  static String normalize(String name) {
+    return Topic.nameKey(name);
+  }
+}
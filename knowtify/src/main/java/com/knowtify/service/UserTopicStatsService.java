@@ -0,0 +1,169 @@
+package com.knowtify.service;
+
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.entity.UserTopicStats;
+import com.knowtify.repository.LinkActivityView;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.repository.UserTopicStatsRepository;
+import com.knowtify.util.UuidV7;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserTopicStatsService {
+
+  private final UserTopicStatsRepository userTopicStatsRepository;
+  private final StudyEntryTopicRepository studyEntryTopicRepository;
+  private final UserRepository userRepository;
+  private final TopicRepository topicRepository;
+  private final SavepointInserts savepointInserts;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Folds the links of a freshly created entry into the user's weekly buckets.
+   * Runs inside the caller's transaction.
+   */
+  @Transactional
+  public void recordLinks(UUID userId, LocalDateTime studiedAt, List<StudyEntryTopic> links) {
+    if (links == null || links.isEmpty()) return;
+
+    Map<BucketKey, BucketDelta> deltas = new TreeMap<>(BucketKey.ORDER);
+    for (StudyEntryTopic link : links) {
+      addLink(deltas, link, studiedAt);
+    }
+    applyDeltas(userId, deltas);
+  }
+
+  /**
+   * Bulk variant of {@link #recordLinks}: links of many entries (each carrying its own studiedAt)
+   * are summed per bucket first, so a chunk of imported entries costs one statement per bucket.
+   */
+  @Transactional
+  public void recordEntryLinks(UUID userId, Collection<StudyEntryTopic> links) {
+    if (links == null || links.isEmpty()) return;
+
+    Map<BucketKey, BucketDelta> deltas = new TreeMap<>(BucketKey.ORDER);
+    for (StudyEntryTopic link : links) {
+      addLink(deltas, link, link.getStudyEntry().getStudiedAt());
+    }
+    applyDeltas(userId, deltas);
+  }
+
+  private static void addLink(Map<BucketKey, BucketDelta> deltas, StudyEntryTopic link, LocalDateTime studiedAt) {
+    BucketKey key = new BucketKey(
+        link.getTopic().getId(),
+        studiedAt.get(IsoFields.WEEK_BASED_YEAR),
+        studiedAt.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    deltas.computeIfAbsent(key, k -> new BucketDelta())
+        .add(link.getIsPriority(), studiedAt);
+  }
+
+  /**
+   * Increment, else insert, else (a concurrent writer inserted first) increment again. Buckets
+   * are visited in key order, so two entries touching the same buckets lock them in the same
+   * order and can't deadlock each other.
+   */
+  private void applyDeltas(UUID userId, Map<BucketKey, BucketDelta> deltas) {
+    deltas.forEach((key, delta) -> {
+      if (increment(userId, key, delta) > 0) return;
+      boolean inserted = savepointInserts.insertIfAbsent(UserTopicStatsRepository.INSERT_BUCKET,
+          UuidV7.generate(), userId, key.topicId(), key.weekYear(), key.weekNumber(),
+          delta.studies, delta.priority, delta.lastStudiedAt);
+      if (!inserted) {
+        increment(userId, key, delta);
+      }
+    });
+  }
+
+  private int increment(UUID userId, BucketKey key, BucketDelta delta) {
+    return userTopicStatsRepository.increment(
+        userId, key.topicId(), key.weekYear(), key.weekNumber(),
+        delta.studies, delta.priority, delta.lastStudiedAt);
+  }
+
+  /**
+   * Recomputes every user's buckets from the raw study_entry_topics rows.
+   * Each user is rebuilt in its own transaction so a large backfill never holds one huge session.
+   */
+  public int rebuildAll() {
+    int rows = 0;
+    for (UUID userId : userRepository.findAllIds()) {
+      Integer written = transactionTemplate.execute(status -> rebuildUser(userId));
+      rows += written == null ? 0 : written;
+    }
+    log.info("Rebuilt user_topic_stats: {} rows", rows);
+    return rows;
+  }
+
+  private int rebuildUser(UUID userId) {
+    userTopicStatsRepository.deleteByUserId(userId);
+
+    // (topicId, weekYear, weekNumber) -> bucket
+    Map<BucketKey, UserTopicStats> buckets = new HashMap<>();
+    User user = userRepository.getReferenceById(userId);
+
+    try (Stream<LinkActivityView> activity = studyEntryTopicRepository.streamActivityByUser(userId)) {
+      activity.forEach(row -> {
+        LocalDateTime studiedAt = row.getStudiedAt();
+        BucketKey key = new BucketKey(
+            row.getTopicId(),
+            studiedAt.get(IsoFields.WEEK_BASED_YEAR),
+            studiedAt.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+
+        buckets.computeIfAbsent(key, k -> {
+              Topic topic = topicRepository.getReferenceById(k.topicId());
+              return UserTopicStats.builder()
+                  .user(user)
+                  .topic(topic)
+                  .weekYear(k.weekYear())
+                  .weekNumber(k.weekNumber())
+                  .build();
+            })
+            .record(1, Boolean.TRUE.equals(row.getPriority()), studiedAt);
+      });
+    }
+
+    userTopicStatsRepository.saveAll(buckets.values());
+    return buckets.size();
+  }
+
+  @Transactional(readOnly = true)
+  public boolean needsBackfill() {
+    return userTopicStatsRepository.count() == 0 && studyEntryTopicRepository.count() > 0;
+  }
+
+  private record BucketKey(UUID topicId, int weekYear, int weekNumber) {
+    static final Comparator<BucketKey> ORDER = Comparator.comparing(BucketKey::topicId)
+        .thenComparingInt(BucketKey::weekYear)
+        .thenComparingInt(BucketKey::weekNumber);
+  }
+
+  private static final class BucketDelta {
+    private int studies;
+    private boolean priority;
+    private LocalDateTime lastStudiedAt;
+
+    private void add(boolean isPriority, LocalDateTime studiedAt) {
+      studies++;
+      priority |= isPriority;
+      if (lastStudiedAt == null || studiedAt.isAfter(lastStudiedAt)) {
+        lastStudiedAt = studiedAt;
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.knowtify.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho–Corasick automaton for whole-word dictionary matching.
+ * <p>
+ * One left-to-right pass over the text reports every dictionary pattern it contains, in time
+ * linear in the text length plus the number of matches, independent of dictionary size.
+ * Transitions are stored as sorted char arrays per state (binary searched), so a large
+ * dictionary costs a few arrays rather than a map per node. Matching is case-sensitive;
+ * callers normalize case on both sides.
+ */
+public final class AhoCorasick<V> {
+
+  public record Match<V>(int start, int end, V value) {
+    public int length() {
+      return end - start;
+    }
+  }
+
+  private static final char[] NO_CHARS = new char[0];
+  private static final int[] NO_STATES = new int[0];
+
+  private final char[][] edgeChars;   // per state, sorted outgoing chars
+  private final int[][] edgeTargets;  // per state, target state for the char at the same index
+  private final int[] fail;           // failure link
+  private final int[] output;         // pattern index ending exactly at this state, or -1
+  private final int[] outputLink;     // nearest state on the failure chain with an output, or -1
+  private final int[] patternLengths;
+  private final List<V> values;
+
+  private AhoCorasick(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[] output, int[] outputLink,
+                      int[] patternLengths, List<V> values) {
+    this.edgeChars = edgeChars;
+    this.edgeTargets = edgeTargets;
+    this.fail = fail;
+    this.output = output;
+    this.outputLink = outputLink;
+    this.patternLengths = patternLengths;
+    this.values = values;
+  }
+
+  public static <V> AhoCorasick<V> build(Map<String, V> patterns) {
+    // Mutable trie first; compacted into arrays once the failure links are known
+    List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+    List<Integer> outputs = new ArrayList<>();
+    trie.add(new TreeMap<>());
+    outputs.add(-1);
+
+    int[] lengths = new int[patterns.size()];
+    List<V> values = new ArrayList<>(patterns.size());
+
+    for (Map.Entry<String, V> pattern : patterns.entrySet()) {
+      String text = pattern.getKey();
+      if (text == null || text.isEmpty()) continue;
+
+      int state = 0;
+      for (int i = 0; i < text.length(); i++) {
+        Integer next = trie.get(state).get(text.charAt(i));
+        if (next == null) {
+          next = trie.size();
+          trie.add(new TreeMap<>());
+          outputs.add(-1);
+          trie.get(state).put(text.charAt(i), next);
+        }
+        state = next;
+      }
+      int index = values.size();
+      values.add(pattern.getValue());
+      lengths[index] = text.length();
+      outputs.set(state, index);
+    }
+
+    int states = trie.size();
+    char[][] edgeChars = new char[states][];
+    int[][] edgeTargets = new int[states][];
+    int[] output = new int[states];
+    for (int s = 0; s < states; s++) {
+      TreeMap<Character, Integer> edges = trie.get(s);
+      char[] chars = edges.isEmpty() ? NO_CHARS : new char[edges.size()];
+      int[] targets = edges.isEmpty() ? NO_STATES : new int[edges.size()];
+      int i = 0;
+      for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+        chars[i] = edge.getKey();
+        targets[i] = edge.getValue();
+        i++;
+      }
+      edgeChars[s] = chars;
+      edgeTargets[s] = targets;
+      output[s] = outputs.get(s);
+    }
+
+    // Breadth-first: a state's failure link is computed from its parent's, which is shallower
+    int[] fail = new int[states];
+    int[] outputLink = new int[states];
+    Arrays.fill(outputLink, -1);
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    for (int target : edgeTargets[0]) {
+      fail[target] = 0;
+      queue.add(target);
+    }
+    while (!queue.isEmpty()) {
+      int s = queue.poll();
+      for (int i = 0; i < edgeChars[s].length; i++) {
+        char c = edgeChars[s][i];
+        int child = edgeTargets[s][i];
+
+        int f = fail[s];
+        int next;
+        while ((next = step(edgeChars, edgeTargets, f, c)) < 0 && f != 0) {
+          f = fail[f];
+        }
+        fail[child] = next >= 0 && next != child ? next : 0;
+        outputLink[child] = output[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+        queue.add(child);
+      }
+    }
+
+    return new AhoCorasick<>(edgeChars, edgeTargets, fail, output, outputLink,
+            Arrays.copyOf(lengths, values.size()), List.copyOf(values));
+  }
+
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * All dictionary patterns occurring in {@code text} as whole words (bounded by the text edges
+   * or by characters that are not letters or digits), in order of their end position.
+   */
+  public List<Match<V>> findAll(CharSequence text) {
+    List<Match<V>> matches = new ArrayList<>(4);
+    int state = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      int next;
+      while ((next = step(edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+        state = fail[state];
+      }
+      state = Math.max(next, 0);
+
+      for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+        int pattern = output[s];
+        int end = i + 1;
+        int start = end - patternLengths[pattern];
+        if (isBoundary(text, start - 1) && isBoundary(text, end)) {
+          matches.add(new Match<>(start, end, values.get(pattern)));
+        }
+      }
+    }
+    return matches;
+  }
+
+  private static int step(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+    int i = Arrays.binarySearch(edgeChars[state], c);
+    return i >= 0 ? edgeTargets[state][i] : -1;
+  }
+
+  private static boolean isBoundary(CharSequence text, int index) {
+    return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+  }
+}
@@ -0,0 +1,82 @@
+package com.knowtify.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Minimal consecutive-failure circuit breaker.
+ * <p>
+ * CLOSED lets every call through. After {@code failureThreshold} consecutive failures it
+ * turns OPEN and rejects calls for {@code openDuration}. It then lets a single trial call
+ * through (HALF_OPEN). Success closes the circuit again; failure re-opens it. A call that
+ * ends without an outcome (cancelled) gives its permit back with {@link #release()}.
+ */
+public class CircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final int failureThreshold;
+  private final Duration openDuration;
+  private final Clock clock;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures = 0;
+  private Instant openedAt = Instant.EPOCH;
+
+  public CircuitBreaker(int failureThreshold, Duration openDuration) {
+    this(failureThreshold, openDuration, Clock.systemUTC());
+  }
+
+  public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+    this.failureThreshold = Math.max(1, failureThreshold);
+    this.openDuration = openDuration;
+    this.clock = clock;
+  }
+
+  /**
+   * @return true if the caller may attempt the protected call now
+   */
+  public synchronized boolean tryAcquire() {
+    switch (state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (!clock.instant().isBefore(openedAt.plus(openDuration))) {
+          state = State.HALF_OPEN; // this caller is the trial
+          return true;
+        }
+        return false;
+      default:
+        return false; // a trial call is already in flight
+    }
+  }
+
+  public synchronized void recordSuccess() {
+    consecutiveFailures = 0;
+    state = State.CLOSED;
+  }
+
+  public synchronized void recordFailure() {
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAt = clock.instant();
+    }
+  }
+
+  /**
+   * For a permitted call that was abandoned before it succeeded or failed. If it was the
+   * HALF_OPEN trial, the circuit goes back to OPEN with its elapsed wait kept, so the next
+   * caller becomes the trial instead of the circuit staying HALF_OPEN for good.
+   */
+  public synchronized void release() {
+    if (state == State.HALF_OPEN) {
+      state = State.OPEN;
+    }
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+}
@@ -3,6 +3,7 @@ package com.knowtify.util;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -21,6 +22,12 @@ public class JwtUtil {
 
   private final SecretKey secretKey;
   private final long expirationHours;
+  private final JwtParser parser; // immutable and thread-safe, built once
+
+  /**
+   * Identity carried by a verified token.
+   */
+  public static record TokenPrincipal(UUID userId, String username, Instant expiresAt) {}
 
   public JwtUtil(
     @Value("${jwt.secret}") String secret,
@@ -28,6 +35,9 @@ public class JwtUtil {
   ) {
     this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
     this.expirationHours = expirationHours;
+    this.parser = Jwts.parserBuilder()
+      .setSigningKey(secretKey)
+      .build();
   }
 
   public String generateToken(UUID userId, String username) {
@@ -46,9 +56,7 @@ public class JwtUtil {
 
   public Claims validateToken(String token) {
     try {
-      return Jwts.parserBuilder()
-        .setSigningKey(secretKey)
-        .build()
+      return parser
         .parseClaimsJws(token)
         .getBody();
     } catch (ExpiredJwtException e) {
@@ -60,6 +68,21 @@ public class JwtUtil {
     }
   }
 
+  /**
+   * Verifies the token once and returns everything the auth filter needs from it.
+   */
+  public TokenPrincipal parsePrincipal(String token) {
+    Claims claims = validateToken(token);
+    String userIdStr = claims.get("user_id", String.class);
+    if (userIdStr == null) {
+      throw new RuntimeException("Invalid token");
+    }
+    return new TokenPrincipal(
+      UUID.fromString(userIdStr),
+      claims.getSubject(),
+      claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+  }
+
   public UUID getUserIdFromToken(String token) {
     Claims claims = validateToken(token);
     String userIdStr = claims.get("user_id", String.class);
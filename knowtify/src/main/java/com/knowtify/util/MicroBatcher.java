@@ -0,0 +1,127 @@
+package com.knowtify.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces individual requests into batches. A batch is dispatched when it reaches
+ * {@code maxBatchSize} items or when {@code window} has passed since its first item arrived.
+ * <p>
+ * The batch handler returns results keyed by the item's index in the batch. Items it leaves
+ * out (partial failure) and every item of a batch whose handler throws are completed through
+ * {@code fallback} instead.
+ */
+@Slf4j
+public class MicroBatcher<I, O> implements AutoCloseable {
+
+  private final Function<List<I>, Map<Integer, O>> batchHandler;
+  private final Function<I, O> fallback;
+  private final int maxBatchSize;
+  private final Duration window;
+
+  private final ScheduledExecutorService timer;
+  private final ExecutorService dispatcher;
+
+  private final Object lock = new Object();
+  private List<Pending<I, O>> buffer = new ArrayList<>();
+  private long generation = 0; // identifies the buffer a scheduled flush belongs to
+
+  private record Pending<I, O>(I item, CompletableFuture<O> result) {}
+
+  public MicroBatcher(Function<List<I>, Map<Integer, O>> batchHandler,
+                      Function<I, O> fallback,
+                      int maxBatchSize,
+                      Duration window,
+                      String name) {
+    this.batchHandler = batchHandler;
+    this.fallback = fallback;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.window = window;
+    this.timer = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name(name + "-timer").daemon(true).factory());
+    this.dispatcher = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name(name + "-", 0).factory());
+  }
+
+  public CompletableFuture<O> submit(I item) {
+    Pending<I, O> pending = new Pending<>(item, new CompletableFuture<>());
+    List<Pending<I, O>> full = null;
+
+    synchronized (lock) {
+      buffer.add(pending);
+      if (buffer.size() >= maxBatchSize) {
+        full = swapBuffer();
+      } else if (buffer.size() == 1) {
+        long scheduledFor = generation;
+        timer.schedule(() -> flush(scheduledFor), window.toNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+
+    if (full != null) {
+      dispatch(full);
+    }
+    return pending.result();
+  }
+
+  private void flush(long scheduledFor) {
+    List<Pending<I, O>> batch;
+    synchronized (lock) {
+      // Buffer was already dispatched because it filled up before the window closed
+      if (scheduledFor != generation || buffer.isEmpty()) return;
+      batch = swapBuffer();
+    }
+    dispatch(batch);
+  }
+
+  private List<Pending<I, O>> swapBuffer() {
+    List<Pending<I, O>> batch = buffer;
+    buffer = new ArrayList<>();
+    generation++;
+    return batch;
+  }
+
+  private void dispatch(List<Pending<I, O>> batch) {
+    dispatcher.execute(() -> {
+      Map<Integer, O> results;
+      try {
+        results = batchHandler.apply(batch.stream().map(Pending::item).toList());
+      } catch (Exception e) {
+        log.warn("Batch of {} failed, completing all items with fallback: {}", batch.size(), e.getMessage());
+        results = Map.of();
+      }
+
+      for (int i = 0; i < batch.size(); i++) {
+        Pending<I, O> pending = batch.get(i);
+        O result = results.get(i);
+        try {
+          pending.result().complete(result != null ? result : fallback.apply(pending.item()));
+        } catch (Exception e) {
+          pending.result().completeExceptionally(e);
+        }
+      }
+    });
+  }
+
+  @Override
+  public void close() {
+    timer.shutdownNow();
+    List<Pending<I, O>> remaining;
+    synchronized (lock) {
+      remaining = swapBuffer();
+    }
+    if (!remaining.isEmpty()) {
+      dispatch(remaining);
+    }
+    dispatcher.shutdown();
+  }
+}
@@ -0,0 +1,207 @@
+package com.knowtify.util;
+
+import java.util.Arrays;
+
+/**
+ * Splits a study sentence into topic segments in a single pass over its chars, without regex,
+ * {@code split} or intermediate strings.
+ * <p>
+ * A leading "I studied" / "studied" / "I learned" / "learned" is skipped. Segments are separated
+ * by ',', ';', line breaks or the word "and". A segment starting with '!' is a priority topic.
+ * Segments are trimmed and deduplicated case-insensitively (hash and compare over the char
+ * ranges), and a repeated topic is priority if any occurrence was.
+ * <p>
+ * Results are char offsets into the input; {@link #segment(int)} allocates the lower-cased
+ * name only when the caller asks for it. An instance reuses its buffers between calls and is
+ * not thread-safe.
+ */
+public final class SentenceTokenizer {
+
+  private static final String[] LEADING_VERBS = {"studied", "learned"};
+  private static final String AND = "and";
+
+  private CharSequence text = "";
+  private int count = 0;
+  private int[] starts = new int[8];
+  private int[] ends = new int[8];
+  private int[] hashes = new int[8];
+  private boolean[] priority = new boolean[8];
+  private int[] table = new int[16]; // open addressing, segment index + 1, 0 = empty
+
+  /**
+   * Tokenizes {@code sentence}, replacing the previous result. Returns the number of distinct
+   * segments.
+   */
+  public int tokenize(CharSequence sentence) {
+    clear();
+    text = sentence == null ? "" : sentence;
+    int length = text.length();
+
+    int from = skipLeadingPhrase(skipWhitespace(0, length), length);
+    int segmentStart = from;
+    for (int i = from; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == ',' || c == ';' || c == '\n' || c == '\r') {
+        addSegment(segmentStart, i);
+        segmentStart = i + 1;
+      } else if (isAndSeparator(i, length)) {
+        addSegment(segmentStart, i);
+        segmentStart = i + AND.length() + 1;
+        i += AND.length();
+      }
+    }
+    addSegment(segmentStart, length);
+    return count;
+  }
+
+  public int size() {
+    return count;
+  }
+
+  public int start(int index) {
+    return starts[checkIndex(index)];
+  }
+
+  public int end(int index) {
+    return ends[checkIndex(index)];
+  }
+
+  public boolean isPriority(int index) {
+    return priority[checkIndex(index)];
+  }
+
+  /**
+   * Lower-cased text of segment {@code index}.
+   */
+  public String segment(int index) {
+    checkIndex(index);
+    char[] chars = new char[ends[index] - starts[index]];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toLowerCase(text.charAt(starts[index] + i));
+    }
+    return new String(chars);
+  }
+
+  private void clear() {
+    if (count > 0) {
+      Arrays.fill(table, 0);
+    }
+    count = 0;
+  }
+
+  private void addSegment(int from, int to) {
+    int start = skipWhitespace(from, to);
+    boolean isPriority = start < to && text.charAt(start) == '!';
+    if (isPriority) {
+      start = skipWhitespace(start + 1, to);
+    }
+    int end = to;
+    while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+    if (start == end) return;
+
+    if ((count + 1) * 2 > table.length) {
+      rehash(table.length * 2);
+    }
+    int hash = hash(start, end);
+    int mask = table.length - 1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      int existing = table[slot] - 1;
+      if (existing < 0) {
+        table[slot] = append(start, end, hash, isPriority) + 1;
+        return;
+      }
+      if (hashes[existing] == hash && regionEqualsIgnoreCase(starts[existing], ends[existing], start, end)) {
+        priority[existing] |= isPriority;
+        return;
+      }
+    }
+  }
+
+  private int append(int start, int end, int hash, boolean isPriority) {
+    if (count == starts.length) {
+      int capacity = count * 2;
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      hashes = Arrays.copyOf(hashes, capacity);
+      priority = Arrays.copyOf(priority, capacity);
+    }
+    int index = count++;
+    starts[index] = start;
+    ends[index] = end;
+    hashes[index] = hash;
+    priority[index] = isPriority;
+    return index;
+  }
+
+  private void rehash(int capacity) {
+    table = new int[capacity];
+    int mask = capacity - 1;
+    for (int i = 0; i < count; i++) {
+      int slot = hashes[i] & mask;
+      while (table[slot] != 0) slot = (slot + 1) & mask;
+      table[slot] = i + 1;
+    }
+  }
+
+  private int hash(int start, int end) {
+    int h = 0;
+    for (int i = start; i < end; i++) {
+      h = 31 * h + Character.toLowerCase(text.charAt(i));
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private boolean regionEqualsIgnoreCase(int aStart, int aEnd, int bStart, int bEnd) {
+    if (aEnd - aStart != bEnd - bStart) return false;
+    for (int i = 0; i < aEnd - aStart; i++) {
+      if (Character.toLowerCase(text.charAt(aStart + i)) != Character.toLowerCase(text.charAt(bStart + i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // " and " as a whole word between whitespace, starting at the whitespace before it
+  private boolean isAndSeparator(int i, int length) {
+    int end = i + 1 + AND.length();
+    return end < length
+        && Character.isWhitespace(text.charAt(i))
+        && Character.isWhitespace(text.charAt(end))
+        && startsWithIgnoreCase(i + 1, AND);
+  }
+
+  // "I studied" / "studied" / "I learned" / "learned" followed by whitespace, '!' or a separator
+  private int skipLeadingPhrase(int from, int length) {
+    int at = from;
+    if (at + 1 < length && Character.toLowerCase(text.charAt(at)) == 'i' && Character.isWhitespace(text.charAt(at + 1))) {
+      at = skipWhitespace(at + 1, length);
+    }
+    for (String verb : LEADING_VERBS) {
+      int end = at + verb.length();
+      if (end <= length && startsWithIgnoreCase(at, verb) && (end == length || !Character.isLetterOrDigit(text.charAt(end)))) {
+        return end;
+      }
+    }
+    return from;
+  }
+
+  private boolean startsWithIgnoreCase(int at, String word) {
+    if (at + word.length() > text.length()) return false;
+    for (int i = 0; i < word.length(); i++) {
+      if (Character.toLowerCase(text.charAt(at + i)) != word.charAt(i)) return false;
+    }
+    return true;
+  }
+
+  private int skipWhitespace(int from, int to) {
+    while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+    return from;
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Segment " + index + " of " + count);
+    }
+    return index;
+  }
+}
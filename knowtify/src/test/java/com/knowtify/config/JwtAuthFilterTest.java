@@ -0,0 +1,151 @@
+package com.knowtify.config;
+
+import com.knowtify.config.JwtAuthFilter.AuthenticatedUser;
+import com.knowtify.util.JwtUtil;
+import com.knowtify.util.JwtUtil.TokenPrincipal;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtAuthFilterTest {
+
+  private static final String SECRET = "jwt-auth-filter-test-secret-0123456789abcdef";
+  private static final UUID USER_ID = UUID.fromString("0190f3a2-7c4e-7d1a-9b2c-3d4e5f607182");
+
+  private final CountingJwtUtil jwtUtil = new CountingJwtUtil();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, registry, 100);
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void secondRequestWithTheSameTokenIsACacheHit() {
+    String token = jwtUtil.generateToken(USER_ID, "alice");
+
+    AuthenticatedUser first = filter.authenticate(token);
+    AuthenticatedUser second = filter.authenticate(token);
+
+    assertThat(second).isEqualTo(first).isEqualTo(new AuthenticatedUser(USER_ID, "alice"));
+    assertThat(jwtUtil.parses.get()).isEqualTo(1);
+    assertThat(registry.get("knowtify.auth.jwt").tag("cache", "hit").timer().count()).isEqualTo(1);
+    assertThat(registry.get("knowtify.auth.jwt").tag("cache", "miss").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void cachedTokenStopsWorkingOnceItExpires() throws Exception {
+    Instant expiresAt = Instant.now().plusSeconds(2);
+    String token = token(USER_ID, "alice", expiresAt);
+
+    assertThat(filter.authenticate(token).userId()).isEqualTo(USER_ID);
+    assertThat(filter.authenticate(token).userId()).isEqualTo(USER_ID);
+    assertThat(jwtUtil.parses.get()).isEqualTo(1);
+
+    Thread.sleep(Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis()) + 1100);
+
+    assertThatThrownBy(() -> filter.authenticate(token)).hasMessage("Token expired");
+    assertThat(jwtUtil.parses.get()).isEqualTo(2);
+  }
+
+  @Test
+  void tamperedSignatureIsVerifiedNotServedFromTheCache() {
+    String token = jwtUtil.generateToken(USER_ID, "alice");
+    filter.authenticate(token);
+
+    // Same header and payload, one signature character changed
+    String tampered = tamperSignature(token);
+
+    assertThatThrownBy(() -> filter.authenticate(tampered)).hasMessage("Invalid token");
+    assertThat(jwtUtil.parses.get()).isEqualTo(2);
+  }
+
+  @Test
+  void tamperedPayloadWithTheOriginalSignatureIsRejected() {
+    String token = jwtUtil.generateToken(USER_ID, "alice");
+    filter.authenticate(token);
+
+    String[] parts = token.split("\\.");
+    String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+        .replace(USER_ID.toString(), new UUID(0, 1).toString());
+    String forged = parts[0] + "."
+        + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+        + "." + parts[2];
+
+    assertThatThrownBy(() -> filter.authenticate(forged)).hasMessage("Invalid token");
+    assertThat(filter.authenticate(token).userId()).isEqualTo(USER_ID);
+  }
+
+  @Test
+  void requestWithATamperedTokenStaysAnonymous() throws Exception {
+    String token = jwtUtil.generateToken(USER_ID, "alice");
+    filter.authenticate(token);
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader("Authorization", "Bearer " + tamperSignature(token));
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertThat(chain.getRequest()).isNotNull();
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+  }
+
+  @Test
+  void requestWithAValidTokenIsAuthenticated() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(USER_ID, "alice"));
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+        .isEqualTo(new AuthenticatedUser(USER_ID, "alice"));
+  }
+
+  // Not the last character: its low bits are padding and may not change the decoded signature
+  private static String tamperSignature(String token) {
+    int i = token.length() - 10;
+    char replacement = token.charAt(i) == 'A' ? 'B' : 'A';
+    return token.substring(0, i) + replacement + token.substring(i + 1);
+  }
+
+  private static String token(UUID userId, String username, Instant expiresAt) {
+    return Jwts.builder()
+        .setSubject(username)
+        .claim("user_id", userId.toString())
+        .setIssuedAt(new Date())
+        .setExpiration(Date.from(expiresAt))
+        .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+        .compact();
+  }
+
+  private static final class CountingJwtUtil extends JwtUtil {
+    private final AtomicInteger parses = new AtomicInteger();
+
+    CountingJwtUtil() {
+      super(SECRET, 1);
+    }
+
+    @Override
+    public TokenPrincipal parsePrincipal(String token) {
+      parses.incrementAndGet();
+      return super.parsePrincipal(token);
+    }
+  }
+}
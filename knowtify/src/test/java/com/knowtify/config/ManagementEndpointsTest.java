@@ -0,0 +1,50 @@
+package com.knowtify.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "jwt.secret=management-test-secret-that-is-long-enough-for-hs256",
+    "gemini.api.key=test-key",
+    "gemini.api.base-url=http://localhost:9",
+    "management.server.port=0"
+})
+@AutoConfigureObservability(tracing = false) // tests switch metrics export off by default
+class ManagementEndpointsTest {
+
+  @LocalServerPort private int port;
+  @LocalManagementPort private int managementPort;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  @Test
+  void metricsAreScrapedFromTheManagementPort() throws Exception {
+    HttpResponse<String> response = get(managementPort, "/actuator/prometheus");
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.body()).contains("application=\"knowtify\"");
+    assertThat(get(managementPort, "/actuator/health").statusCode()).isEqualTo(200);
+  }
+
+  @Test
+  void applicationPortDoesNotServeMetricsAnonymously() throws Exception {
+    assertThat(managementPort).isNotEqualTo(port);
+    assertThat(get(port, "/actuator/prometheus").statusCode()).isEqualTo(403);
+    assertThat(get(port, "/actuator/health").statusCode()).isEqualTo(403);
+  }
+
+  private HttpResponse<String> get(int port, String path) throws Exception {
+    return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+}
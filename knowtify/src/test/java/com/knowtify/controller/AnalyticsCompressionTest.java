@@ -0,0 +1,99 @@
+package com.knowtify.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowtify.entity.User;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.service.BulkImportService;
+import com.knowtify.service.BulkImportService.ImportMode;
+import com.knowtify.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Analytics responses through the real container: large ones must actually leave gzipped,
+ * which Tomcat only does when the ETag is weak.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "jwt.secret=compression-test-secret-that-is-long-enough-for-hs256",
+    "gemini.api.key=test-key",
+    "gemini.api.base-url=http://localhost:9",
+    "management.server.port=0"
+})
+class AnalyticsCompressionTest {
+
+  @LocalServerPort private int port;
+  @Autowired private UserRepository userRepository;
+  @Autowired private BulkImportService bulkImportService;
+  @Autowired private JwtUtil jwtUtil;
+
+  private final HttpClient client = HttpClient.newHttpClient(); // doesn't decompress on its own
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private String token;
+
+  @BeforeEach
+  void importHistory() throws Exception {
+    User user = userRepository.save(User.builder().username("gzip-user-" + System.nanoTime()).passwordHash("x").build());
+    token = jwtUtil.generateToken(user.getId(), user.getUsername());
+
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < 120; i++) {
+      lines.append("{\"sentence\":\"studied widget").append(i).append(" internals\",\"studiedAt\":\"")
+          .append(LocalDate.now().minusDays(i % 7)).append("T09:00:00\"}\n");
+    }
+    bulkImportService.importEntries(user.getId(),
+        new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8)), ImportMode.OFFLINE);
+  }
+
+  @Test
+  void knowledgeMapIsSentGzippedWithAWeakETag() throws Exception {
+    HttpResponse<byte[]> response = get("/api/v1/knowledge-map", null);
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.headers().firstValue("Content-Encoding")).contains("gzip");
+    String etag = response.headers().firstValue("ETag").orElseThrow();
+    assertThat(etag).startsWith("W/\"");
+    assertThat(gunzip(response.body()).get("subjects")).isNotEmpty();
+
+    assertThat(get("/api/v1/knowledge-map", etag).statusCode()).isEqualTo(304);
+  }
+
+  @Test
+  void weeklyReportIsSentGzipped() throws Exception {
+    HttpResponse<byte[]> response = get("/api/v1/reports/weekly", null);
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.headers().firstValue("Content-Encoding")).contains("gzip");
+    assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).startsWith("W/\""));
+    gunzip(response.body());
+  }
+
+  private HttpResponse<byte[]> get(String path, String ifNoneMatch) throws Exception {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .header("Authorization", "Bearer " + token)
+        .header("Accept", "application/json")
+        .header("Accept-Encoding", "gzip");
+    if (ifNoneMatch != null) request.header("If-None-Match", ifNoneMatch);
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  private JsonNode gunzip(byte[] body) throws Exception {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return objectMapper.readTree(in);
+    }
+  }
+}
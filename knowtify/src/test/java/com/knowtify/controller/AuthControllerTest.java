@@ -0,0 +1,97 @@
+package com.knowtify.controller;
+
+import com.knowtify.dto.AuthDtos.LoginRequest;
+import com.knowtify.dto.AuthDtos.RegisterRequest;
+import com.knowtify.entity.User;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.service.AuthService;
+import com.knowtify.service.PasswordHashingService;
+import com.knowtify.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * What a client sees when the hashing pool is saturated: 503 with Retry-After, not a hung request.
+ */
+class AuthControllerTest {
+
+  private final CountDownLatch hashReleased = new CountDownLatch(1);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final PasswordHashingService hashing = new PasswordHashingService(new BlockedEncoder(), registry, 1, 1);
+  private final AuthController controller = new AuthController(new AuthService(userRepository, hashing,
+      new JwtUtil("auth-controller-test-secret-0123456789abcdef", 1), registry));
+
+  @BeforeEach
+  void saturateHashing() {
+    // One request on the worker, one in the queue
+    hashing.encode("busy-1");
+    hashing.encode("busy-2");
+  }
+
+  @AfterEach
+  void tearDown() {
+    hashReleased.countDown();
+  }
+
+  @Test
+  void registerIsRefusedWith503WhenTheHashQueueIsFull() throws Exception {
+    ResponseEntity<?> response = controller.register(new RegisterRequest("alice", "correct horse")).get(5, TimeUnit.SECONDS);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    verify(userRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  void loginIsRefusedWith503AndCountedAsRejected() throws Exception {
+    when(userRepository.findByUsername("alice")).thenReturn(Optional.of(
+        User.builder().id(UUID.randomUUID()).username("alice").passwordHash("hash").build()));
+
+    ResponseEntity<?> response = controller.login(new LoginRequest("alice", "correct horse")).get(5, TimeUnit.SECONDS);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    assertThat(registry.get("knowtify.auth.login").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+  }
+
+  private class BlockedEncoder implements PasswordEncoder {
+    @Override
+    public String encode(CharSequence rawPassword) {
+      await();
+      return "hash";
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      await();
+      return true;
+    }
+
+    private void await() {
+      try {
+        hashReleased.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
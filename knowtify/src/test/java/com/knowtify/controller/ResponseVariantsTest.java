@@ -0,0 +1,72 @@
+package com.knowtify.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseVariantsTest {
+
+  @Test
+  void noAcceptOrWildcardIsJson() {
+    assertThat(suffix(null)).isEmpty();
+    assertThat(suffix("*/*")).isEmpty();
+    assertThat(suffix("application/*")).isEmpty();
+  }
+
+  @Test
+  void explicitBinaryFormats() {
+    assertThat(suffix("application/x-jackson-smile")).isEqualTo("-smile");
+    assertThat(suffix("application/cbor")).isEqualTo("-cbor");
+  }
+
+  @Test
+  void qualityWinsOverPosition() {
+    assertThat(suffix("application/json;q=0.1, application/cbor")).isEqualTo("-cbor");
+    assertThat(suffix("application/cbor;q=0.5, application/x-jackson-smile;q=0.8, */*;q=0.1")).isEqualTo("-smile");
+    assertThat(suffix("application/cbor;q=0.5, */*")).isEmpty();
+  }
+
+  @Test
+  void equalQualityKeepsAcceptOrder() {
+    assertThat(suffix("application/cbor, application/json")).isEqualTo("-cbor");
+    assertThat(suffix("application/json, application/cbor")).isEmpty();
+  }
+
+  @Test
+  void typesNoConverterWritesAreIgnored() {
+    assertThat(suffix("text/html, application/cbor;q=0.2")).isEqualTo("-cbor");
+    assertThat(suffix("text/html")).isEmpty();
+  }
+
+  @Test
+  void everyAcceptHeaderIsConsidered() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(HttpHeaders.ACCEPT, "application/json;q=0.2");
+    request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+
+    assertThat(ResponseVariants.suffix(new ServletWebRequest(request), null)).isEqualTo("-cbor");
+  }
+
+  @Test
+  void unparseableAcceptIsJson() {
+    assertThat(suffix("application/")).isEmpty();
+  }
+
+  @Test
+  void columnarLayoutHasItsOwnVariant() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+
+    assertThat(ResponseVariants.suffix(new ServletWebRequest(request), "Columnar")).isEqualTo("-smile-col");
+    assertThat(ResponseVariants.suffix(new ServletWebRequest(request), "rows")).isEqualTo("-smile");
+  }
+
+  private static String suffix(String accept) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    if (accept != null) request.addHeader(HttpHeaders.ACCEPT, accept);
+    return ResponseVariants.suffix(new ServletWebRequest(request), null);
+  }
+}
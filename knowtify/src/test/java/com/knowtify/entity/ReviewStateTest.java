@@ -0,0 +1,89 @@
+package com.knowtify.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ReviewStateTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+  private final ReviewState state = ReviewState.builder().build();
+
+  @Test
+  void passedReviewsGrowTheInterval() {
+    state.recordStudy(START, false);
+    assertSchedule(1, 1, START.plusDays(1));
+
+    state.recordStudy(START.plusDays(1), false);
+    assertSchedule(2, 6, START.plusDays(7));
+
+    // Third pass onwards multiplies by the ease, which a pass (quality 4) leaves at 2.5
+    state.recordStudy(START.plusDays(7), false);
+    assertSchedule(3, 15, START.plusDays(22));
+    assertThat(state.getEaseFactor()).isCloseTo(ReviewState.INITIAL_EASE, within(1e-9));
+    assertThat(state.getLapses()).isZero();
+  }
+
+  @Test
+  void struggleResetsTheIntervalAndLowersTheEase() {
+    state.recordStudy(START, false);
+    state.recordStudy(START.plusDays(1), false);
+    state.recordStudy(START.plusDays(7), true);
+
+    assertSchedule(0, 1, START.plusDays(8));
+    assertThat(state.getLapses()).isEqualTo(1);
+    assertThat(state.getEaseFactor()).isCloseTo(2.18, within(1e-9));
+
+    // Passing again starts over from a one-day interval
+    state.recordStudy(START.plusDays(8), false);
+    assertSchedule(1, 1, START.plusDays(9));
+  }
+
+  @Test
+  void easeNeverDropsBelowTheMinimum() {
+    for (int day = 0; day < 6; day++) {
+      state.recordStudy(START.plusDays(day), true);
+    }
+
+    assertThat(state.getEaseFactor()).isEqualTo(ReviewState.MIN_EASE);
+    assertThat(state.getLapses()).isEqualTo(6);
+  }
+
+  @Test
+  void repeatWithinTheSameSessionIsNotAnotherReview() {
+    state.recordStudy(START, false);
+    state.recordStudy(START.plusHours(2), false);
+
+    assertSchedule(1, 1, START.plusDays(1));
+    assertThat(state.getLastStudiedAt()).isEqualTo(START.plusHours(2));
+  }
+
+  @Test
+  void struggleWithinTheSameSessionStillCounts() {
+    state.recordStudy(START, false);
+    state.recordStudy(START.plusHours(2), true);
+
+    assertSchedule(0, 1, START.plusHours(2).plusDays(1));
+    assertThat(state.getLapses()).isEqualTo(1);
+  }
+
+  @Test
+  void olderStudyThanTheLastOneIsIgnored() {
+    state.recordStudy(START.plusDays(1), false);
+    state.recordStudy(START, true);
+
+    assertSchedule(1, 1, START.plusDays(2));
+    assertThat(state.getLapses()).isZero();
+    assertThat(state.getLastStudiedAt()).isEqualTo(START.plusDays(1));
+  }
+
+  private void assertSchedule(int repetitions, double intervalDays, LocalDateTime dueAt) {
+    assertThat(state.getRepetitions()).isEqualTo(repetitions);
+    assertThat(state.getIntervalDays()).isEqualTo(intervalDays);
+    assertThat(state.getDueAt()).isEqualTo(dueAt);
+  }
+}
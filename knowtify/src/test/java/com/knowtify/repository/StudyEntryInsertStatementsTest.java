@@ -0,0 +1,116 @@
+package com.knowtify.repository;
+
+import com.knowtify.config.JpaConfig;
+import com.knowtify.entity.StudyEntry;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements needed to write one entry and its topic links: with ids assigned in Java and JDBC
+ * batching on, that is one INSERT for the entry and one batched INSERT for all of its links,
+ * however many topics the entry has. Counted at the JDBC boundary, so a fall back to one
+ * executeUpdate per row fails even if Hibernate reuses the prepared statement.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session.events.auto=com.knowtify.repository.StudyEntryInsertStatementsTest$JdbcExecutions"
+})
+@Import(JpaConfig.class)
+class StudyEntryInsertStatementsTest {
+
+  @Autowired private StudyEntryRepository studyEntryRepository;
+  @Autowired private StudyEntryTopicRepository studyEntryTopicRepository;
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private User user;
+  private List<Topic> topics;
+
+  @BeforeEach
+  void setUp() {
+    user = entityManager.persist(User.builder().username("batch-user").passwordHash("x").build());
+    Subject subject = entityManager.persist(Subject.builder().name("Operating Systems").build());
+    topics = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      topics.add(entityManager.persist(Topic.builder().name("topic " + i).subject(subject).confidenceScore(0.9).build()));
+    }
+    entityManager.flush();
+  }
+
+  /**
+   * Counts JDBC executions in every session; Hibernate instantiates it per session by class name.
+   */
+  public static class JdbcExecutions implements SessionEventListener {
+    static final AtomicInteger batches = new AtomicInteger();
+    static final AtomicInteger singleStatements = new AtomicInteger();
+
+    static void reset() {
+      batches.set(0);
+      singleStatements.set(0);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+      batches.incrementAndGet();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+      singleStatements.incrementAndGet();
+    }
+  }
+
+  @Test
+  void entryWithOneTopicTakesTwoStatements() {
+    assertThat(statementsToCreateEntryWith(1)).isEqualTo(2);
+    assertThat(JdbcExecutions.batches.get() + JdbcExecutions.singleStatements.get()).isEqualTo(2);
+  }
+
+  @Test
+  void linksOfAnEntryGoOutAsOneBatch() {
+    long prepared = statementsToCreateEntryWith(8);
+
+    // 1 + 8 rows inserted in two executions, the links' one being a JDBC batch
+    assertThat(JdbcExecutions.batches.get()).isGreaterThanOrEqualTo(1);
+    assertThat(JdbcExecutions.batches.get() + JdbcExecutions.singleStatements.get()).isEqualTo(2);
+    assertThat(prepared).isEqualTo(2);
+  }
+
+  private long statementsToCreateEntryWith(int topicCount) {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    JdbcExecutions.reset();
+
+    StudyEntry entry = studyEntryRepository.save(StudyEntry.builder()
+        .user(user)
+        .originalSentence("studied " + topicCount + " topics")
+        .build());
+    List<StudyEntryTopic> links = new ArrayList<>();
+    for (Topic topic : topics.subList(0, topicCount)) {
+      links.add(StudyEntryTopic.builder().studyEntry(entry).topic(topic).isPriority(false).build());
+    }
+    studyEntryTopicRepository.saveAll(links);
+    entityManager.flush();
+
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + topicCount);
+    return statistics.getPrepareStatementCount();
+  }
+}
@@ -0,0 +1,127 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.TimeSeriesResponse;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.entity.UserSubjectActivity;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.repository.UserSubjectActivityRepository;
+import com.knowtify.service.ActivityRollupService.Granularity;
+import com.knowtify.util.UuidV7;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ActivityRollupService.class, SavepointInserts.class})
+class ActivityRollupServiceTest {
+
+  private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+  @Autowired private ActivityRollupService activityRollupService;
+  @Autowired private UserSubjectActivityRepository userSubjectActivityRepository;
+  @Autowired private SavepointInserts savepointInserts;
+  @Autowired private TestEntityManager entityManager;
+
+  private User user;
+  private Subject subject;
+  private Topic hooks;
+  private Topic grid;
+
+  @BeforeEach
+  void setUp() {
+    user = entityManager.persist(User.builder().username("activity-user").passwordHash("x").build());
+    subject = entityManager.persist(Subject.builder().name("Web Development").build());
+    hooks = entityManager.persist(Topic.builder().name("react hooks").subject(subject).confidenceScore(0.9).build());
+    grid = entityManager.persist(Topic.builder().name("css grid").subject(subject).confidenceScore(0.9).build());
+    entityManager.flush();
+  }
+
+  @Test
+  void linksOfOneSubjectAndDayShareOneRow() {
+    activityRollupService.recordLinks(user.getId(), MONDAY, List.of(link(hooks, false), link(grid, true)), subjectIds());
+    activityRollupService.recordLinks(user.getId(), MONDAY.plusHours(8), List.of(link(hooks, true)), subjectIds());
+
+    UserSubjectActivity day = single();
+    assertThat(day.getActivityDate()).isEqualTo(MONDAY.toLocalDate());
+    assertThat(day.getStudyCount()).isEqualTo(3);
+    assertThat(day.getPriorityCount()).isEqualTo(2);
+  }
+
+  @Test
+  void dayInsertedByAnotherWriterIsIncrementedInstead() {
+    // The other writer's row lands between our UPDATE finding nothing and our INSERT
+    assertThat(insertDay()).isTrue();
+    assertThat(insertDay()).isFalse();
+
+    // Only the savepoint was rolled back; the transaction carries on
+    activityRollupService.recordLinks(user.getId(), MONDAY, List.of(link(hooks, false)), subjectIds());
+
+    assertThat(single().getStudyCount()).isEqualTo(2);
+  }
+
+  @Test
+  void subjectComesFromTheCallerNotTheTopic() {
+    // A bare topic like a fresh getReferenceById: reading its subject would fail here
+    Topic reference = Topic.builder().id(hooks.getId()).build();
+
+    activityRollupService.recordLinks(user.getId(), MONDAY, List.of(link(reference, false)), subjectIds());
+
+    assertThat(single().getSubject().getId()).isEqualTo(subject.getId());
+  }
+
+  @Test
+  void seriesIsReadBackFromTheDailyRows() {
+    activityRollupService.recordLinks(user.getId(), MONDAY, List.of(link(hooks, false), link(grid, false)), subjectIds());
+    activityRollupService.recordLinks(user.getId(), MONDAY.plusDays(8), List.of(link(hooks, false)), subjectIds());
+    entityManager.flush();
+    entityManager.clear();
+
+    TimeSeriesResponse series = activityRollupService.getTimeSeries(user.getId(), Granularity.WEEK,
+        MONDAY.toLocalDate(), MONDAY.toLocalDate().plusDays(13));
+
+    assertThat(series.getTotals()).containsExactly(2, 1);
+    assertThat(series.getSubjects()).singleElement()
+        .satisfies(s -> assertThat(s.getSubject()).isEqualTo("Web Development"));
+  }
+
+  @Test
+  void granularityIsParsedCaseInsensitively() {
+    assertThat(Granularity.parse(" Week ")).isEqualTo(Granularity.WEEK);
+    assertThat(Granularity.parse("month")).isEqualTo(Granularity.MONTH);
+    assertThat(Granularity.parse("hour")).isNull();
+    assertThat(Granularity.parse(null)).isNull();
+  }
+
+  private boolean insertDay() {
+    return savepointInserts.insertIfAbsent(UserSubjectActivityRepository.INSERT_DAY,
+        UuidV7.generate(), user.getId(), subject.getId(), MONDAY.toLocalDate(), 1, 0);
+  }
+
+  private Map<UUID, UUID> subjectIds() {
+    return Map.of(hooks.getId(), subject.getId(), grid.getId(), subject.getId());
+  }
+
+  private UserSubjectActivity single() {
+    entityManager.clear(); // increments are bulk updates; read the rows back from the database
+    List<UserSubjectActivity> days = userSubjectActivityRepository.findAll();
+    assertThat(days).hasSize(1);
+    return days.get(0);
+  }
+
+  private static StudyEntryTopic link(Topic topic, boolean priority) {
+    return StudyEntryTopic.builder().topic(topic).isPriority(priority).build();
+  }
+}
@@ -0,0 +1,113 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.ActivityHeatmapResponse;
+import com.knowtify.dto.StudyDtos.SubjectSeries;
+import com.knowtify.dto.StudyDtos.TimeSeriesResponse;
+import com.knowtify.repository.DailyActivityView;
+import com.knowtify.service.ActivityRollupService.Granularity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivitySeriesTest {
+
+  private static final String WEB = "Web Development";
+  private static final String ALGORITHMS = "Algorithms";
+
+  private record Row(String getSubjectName, LocalDate getActivityDate, int getStudyCount, int getPriorityCount)
+      implements DailyActivityView {}
+
+  @Test
+  void dayBucketsCoverTheRangeInclusive() {
+    TimeSeriesResponse response = ActivitySeries.of(Granularity.DAY, day(3, 3), day(3, 5), List.of(
+        new Row(WEB, day(3, 3), 2, 0),
+        new Row(WEB, day(3, 5), 1, 1),
+        new Row(ALGORITHMS, day(3, 5), 4, 0))).toResponse();
+
+    assertThat(response.getGranularity()).isEqualTo("day");
+    assertThat(response.getBuckets()).containsExactly(day(3, 3), day(3, 4), day(3, 5));
+    assertThat(response.getTotals()).containsExactly(2, 0, 5);
+    assertThat(response.getSubjects()).extracting(SubjectSeries::getSubject).containsExactly(ALGORITHMS, WEB);
+    assertThat(response.getSubjects().get(0).getCounts()).containsExactly(0, 0, 4);
+    assertThat(response.getSubjects().get(1).getCounts()).containsExactly(2, 0, 1);
+    assertThat(response.getSubjects().get(1).getTotal()).isEqualTo(3);
+  }
+
+  @Test
+  void daysOutsideTheRangeAreNotCounted() {
+    TimeSeriesResponse response = ActivitySeries.of(Granularity.DAY, day(3, 3), day(3, 4), List.of(
+        new Row(WEB, day(3, 2), 7, 0),
+        new Row(WEB, day(3, 4), 1, 0),
+        new Row(ALGORITHMS, day(3, 5), 7, 0))).toResponse();
+
+    assertThat(response.getTotals()).containsExactly(0, 1);
+    assertThat(response.getSubjects()).extracting(SubjectSeries::getSubject).containsExactly(WEB);
+  }
+
+  @Test
+  void weekBucketsStartOnMondayAndEdgeWeeksArePartial() {
+    // Wednesday to the Tuesday two weeks later: weeks of 3 Mar, 10 Mar and 17 Mar
+    TimeSeriesResponse response = ActivitySeries.of(Granularity.WEEK, day(3, 5), day(3, 18), List.of(
+        new Row(WEB, day(3, 4), 9, 0),  // Tuesday before 'from'
+        new Row(WEB, day(3, 5), 1, 0),
+        new Row(WEB, day(3, 9), 2, 0),  // Sunday, same week
+        new Row(WEB, day(3, 10), 3, 0), // Monday, next week
+        new Row(WEB, day(3, 18), 4, 0),
+        new Row(WEB, day(3, 19), 9, 0))).toResponse();
+
+    assertThat(response.getBuckets()).containsExactly(day(3, 3), day(3, 10), day(3, 17));
+    assertThat(response.getTotals()).containsExactly(3, 3, 4);
+  }
+
+  @Test
+  void monthBucketsCrossTheYearEnd() {
+    TimeSeriesResponse response = ActivitySeries.of(Granularity.MONTH,
+        LocalDate.of(2024, 11, 15), LocalDate.of(2025, 2, 10), List.of(
+            new Row(WEB, LocalDate.of(2024, 11, 30), 1, 0),
+            new Row(WEB, LocalDate.of(2025, 1, 31), 2, 0),
+            new Row(ALGORITHMS, LocalDate.of(2025, 2, 10), 3, 0),
+            new Row(ALGORITHMS, LocalDate.of(2025, 2, 11), 9, 0))).toResponse();
+
+    assertThat(response.getBuckets()).containsExactly(LocalDate.of(2024, 11, 1), LocalDate.of(2024, 12, 1),
+        LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1));
+    assertThat(response.getTotals()).containsExactly(1, 0, 2, 3);
+  }
+
+  @Test
+  void subjectsWithEqualTotalsAreOrderedByName() {
+    TimeSeriesResponse response = ActivitySeries.of(Granularity.DAY, day(3, 3), day(3, 3), List.of(
+        new Row(WEB, day(3, 3), 2, 0),
+        new Row(ALGORITHMS, day(3, 3), 2, 0))).toResponse();
+
+    assertThat(response.getSubjects()).extracting(SubjectSeries::getSubject).containsExactly(ALGORITHMS, WEB);
+  }
+
+  @Test
+  void heatmapSumsSubjectsPerDay() {
+    ActivityHeatmapResponse heatmap = ActivitySeries.of(Granularity.DAY, day(3, 1), day(3, 7), List.of(
+        new Row(WEB, day(3, 2), 2, 0),
+        new Row(ALGORITHMS, day(3, 2), 3, 0),
+        new Row(WEB, day(3, 6), 1, 0))).toHeatmap();
+
+    assertThat(heatmap.getCounts()).containsExactly(0, 5, 0, 0, 0, 1, 0);
+    assertThat(heatmap.getMax()).isEqualTo(5);
+    assertThat(heatmap.getTotal()).isEqualTo(6);
+    assertThat(heatmap.getActiveDays()).isEqualTo(2);
+  }
+
+  @Test
+  void emptyRangeHasZeroBuckets() {
+    TimeSeriesResponse response = ActivitySeries.of(Granularity.WEEK, day(3, 3), day(3, 30), List.of()).toResponse();
+
+    assertThat(response.getBuckets()).hasSize(4);
+    assertThat(response.getTotals()).containsOnly(0);
+    assertThat(response.getSubjects()).isEmpty();
+  }
+
+  private static LocalDate day(int month, int dayOfMonth) {
+    return LocalDate.of(2025, month, dayOfMonth);
+  }
+}
@@ -0,0 +1,79 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.AuthDtos.LoginRequest;
+import com.knowtify.dto.AuthDtos.RegisterRequest;
+import com.knowtify.repository.UserRepository;
+import com.knowtify.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Registration persists on its own thread and commits, so the test must not hold a transaction open
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthServiceTest {
+
+  @Autowired private UserRepository userRepository;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private PasswordHashingService hashing;
+  private AuthService authService;
+
+  @BeforeEach
+  void setUp() {
+    hashing = new PasswordHashingService(new BCryptPasswordEncoder(4), registry, 2, 16);
+    authService = new AuthService(userRepository, hashing, new JwtUtil("auth-service-test-secret-0123456789abcdef", 1), registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    authService.shutdown();
+    hashing.shutdown();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void duplicateUsernameIsReportedFromTheUniqueIndex() throws Exception {
+    authService.register(new RegisterRequest("alice", "correct horse")).get(5, TimeUnit.SECONDS);
+
+    CompletableFuture<?> second = authService.register(new RegisterRequest("alice", "another horse"));
+
+    assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .cause().hasMessage("Username already exists");
+    assertThat(userRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  void loginOutcomesAreCounted() throws Exception {
+    authService.register(new RegisterRequest("alice", "correct horse")).get(5, TimeUnit.SECONDS);
+
+    assertThat(authService.login(new LoginRequest("alice", "correct horse")).get(5, TimeUnit.SECONDS).getAccessToken())
+        .isNotBlank();
+    assertThatThrownBy(() -> authService.login(new LoginRequest("alice", "wrong horse")).get(5, TimeUnit.SECONDS))
+        .hasRootCauseMessage("Invalid credentials");
+    assertThatThrownBy(() -> authService.login(new LoginRequest("bob", "correct horse")).get(5, TimeUnit.SECONDS))
+        .hasRootCauseMessage("Invalid credentials");
+
+    assertThat(loginCount("success")).isEqualTo(1);
+    assertThat(loginCount("invalid")).isEqualTo(2);
+    assertThat(registry.find("knowtify.auth.login").tag("outcome", "rejected").counter()).isNull();
+  }
+
+  private double loginCount(String outcome) {
+    return registry.get("knowtify.auth.login").tag("outcome", outcome).counter().count();
+  }
+}
@@ -0,0 +1,113 @@
+package com.knowtify.service;
+
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.entity.UserTopicChange;
+import com.knowtify.repository.UserTopicChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(DataVersionService.class)
+class DataVersionServiceTest {
+
+  @Autowired private DataVersionService dataVersionService;
+  @Autowired private UserTopicChangeRepository userTopicChangeRepository;
+  @Autowired private TestEntityManager entityManager;
+
+  private User user;
+  private Topic hooks;
+  private Topic grid;
+
+  @BeforeEach
+  void setUp() {
+    user = entityManager.persist(User.builder().username("version-user").passwordHash("x").build());
+    Subject subject = entityManager.persist(Subject.builder().name("Web Development").build());
+    hooks = entityManager.persist(Topic.builder().name("react hooks").subject(subject).confidenceScore(0.9).build());
+    grid = entityManager.persist(Topic.builder().name("css grid").subject(subject).confidenceScore(0.9).build());
+    entityManager.flush();
+  }
+
+  @Test
+  void newUserStartsAtZero() {
+    assertThat(dataVersionService.current(user.getId())).isZero();
+  }
+
+  @Test
+  void everyChangeBumpsTheVersionByOne() {
+    assertThat(dataVersionService.recordChange(user.getId(), List.of())).isEqualTo(1);
+    assertThat(dataVersionService.recordChange(user.getId(), List.of())).isEqualTo(2);
+    assertThat(dataVersionService.current(user.getId())).isEqualTo(2);
+  }
+
+  @Test
+  void versionIsPerUser() {
+    User other = entityManager.persist(User.builder().username("other-user").passwordHash("x").build());
+    entityManager.flush();
+
+    dataVersionService.recordChange(user.getId(), List.of());
+
+    assertThat(dataVersionService.current(other.getId())).isZero();
+  }
+
+  @Test
+  void unknownUserHasVersionZero() {
+    assertThat(dataVersionService.current(UUID.randomUUID())).isZero();
+  }
+
+  @Test
+  void touchedTopicsAreStampedWithTheNewVersion() {
+    long version = dataVersionService.recordChange(user.getId(), List.of(hooks.getId(), grid.getId(), hooks.getId()));
+
+    assertThat(userTopicChangeRepository.findAll())
+        .extracting(UserTopicChange::getChangeSeq)
+        .containsExactly(version, version);
+  }
+
+  @Test
+  void restampingMovesATopicToTheLatestVersion() {
+    dataVersionService.recordChange(user.getId(), List.of(hooks.getId(), grid.getId()));
+    long second = dataVersionService.recordChange(user.getId(), List.of(grid.getId()));
+    long third = dataVersionService.recordChange(user.getId(), List.of(hooks.getId()));
+
+    // Still one row per topic
+    assertThat(userTopicChangeRepository.count()).isEqualTo(2);
+    assertThat(changedSince(0)).containsExactly(grid.getId(), hooks.getId());
+    assertThat(changedSince(second)).containsExactly(hooks.getId());
+    assertThat(changedSince(third)).isEmpty();
+  }
+
+  @Test
+  void changeWithoutTopicsStampsNothing() {
+    dataVersionService.recordChange(user.getId(), List.of());
+
+    assertThat(userTopicChangeRepository.count()).isZero();
+  }
+
+  @Test
+  void etagChangesWithVersionViewAndUser() {
+    UUID userId = new UUID(0x1234, 0x00ff);
+    String etag = DataVersionService.etag(userId, 7, "map-all");
+
+    assertThat(etag).isEqualTo("W/\"map-all-12cb-7\"");
+    assertThat(DataVersionService.etag(userId, 8, "map-all")).isNotEqualTo(etag);
+    assertThat(DataVersionService.etag(userId, 7, "week-2025-10")).isNotEqualTo(etag);
+    assertThat(DataVersionService.etag(new UUID(0x1235, 0x00ff), 7, "map-all")).isNotEqualTo(etag);
+  }
+
+  private List<UUID> changedSince(long since) {
+    entityManager.clear(); // stamp() is a bulk update; read the rows back from the database
+    return userTopicChangeRepository.findTopicIdsChangedSince(user.getId(), since, Limit.of(10));
+  }
+}
@@ -0,0 +1,197 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.knowtify.config.JpaConfig;
+import com.knowtify.entity.StudyEntry;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.repository.StudyEntryRepository;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.service.EntryExportService.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class EntryExportServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 8, 0);
+  private static final int PAGE_SIZE = 500;
+
+  @Autowired private StudyEntryRepository studyEntryRepository;
+  @Autowired private StudyEntryTopicRepository studyEntryTopicRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private TestEntityManager entityManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .findAndRegisterModules()
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private EntryExportService exportService;
+  private User user;
+  private Topic topic;
+
+  @BeforeEach
+  void setUp() {
+    exportService = new EntryExportService(studyEntryRepository, studyEntryTopicRepository,
+        transactionManager, objectMapper, PAGE_SIZE);
+    user = entityManager.persist(User.builder().username("export-user").passwordHash("x").build());
+    Subject subject = entityManager.persist(Subject.builder().name("Web Development").build());
+    topic = entityManager.persist(Topic.builder().name("React hooks").subject(subject).confidenceScore(0.9).build());
+  }
+
+  @Test
+  void ndjsonIsOneEntryPerLineOldestFirst() throws Exception {
+    StudyEntry newer = entry("learned flexbox", START.plusDays(1));
+    StudyEntry older = entry("struggled with hooks", START);
+    link(older, true);
+    entityManager.flush();
+
+    String[] lines = export(ExportFormat.NDJSON).split("\n");
+
+    assertThat(lines).hasSize(2);
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertThat(first.get("id").asText()).isEqualTo(older.getId().toString());
+    assertThat(first.get("sentence").asText()).isEqualTo("struggled with hooks");
+    assertThat(first.get("topics")).hasSize(1);
+    assertThat(first.get("topics").get(0).get("name").asText()).isEqualTo("React hooks");
+    assertThat(objectMapper.readTree(lines[1]).get("id").asText()).isEqualTo(newer.getId().toString());
+  }
+
+  @Test
+  void csvQuotesFieldsAndNeutralisesFormulas() throws Exception {
+    StudyEntry entry = entry("=HYPERLINK(\"http://evil\",\"click\")", START);
+    link(entry, true);
+    entityManager.flush();
+
+    String[] lines = export(ExportFormat.CSV).split("\n");
+
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).isEqualTo("id,studied_at,sentence,topics,subjects,priority_topics");
+    assertThat(lines[1]).isEqualTo(entry.getId() + ",2025-01-01T08:00,"
+        + "\"'=HYPERLINK(\"\"http://evil\"\",\"\"click\"\")\",React hooks,Web Development,React hooks");
+  }
+
+  @Test
+  void csvFieldEscaping() {
+    assertThat(EntryExportService.csvField(null)).isEmpty();
+    assertThat(EntryExportService.csvField("plain text")).isEqualTo("plain text");
+    assertThat(EntryExportService.csvField("a,b")).isEqualTo("\"a,b\"");
+    assertThat(EntryExportService.csvField("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+    assertThat(EntryExportService.csvField("two\nlines")).isEqualTo("\"two\nlines\"");
+    assertThat(EntryExportService.csvField("=1+1")).isEqualTo("'=1+1");
+    assertThat(EntryExportService.csvField("+1")).isEqualTo("'+1");
+    assertThat(EntryExportService.csvField("-1")).isEqualTo("'-1");
+    assertThat(EntryExportService.csvField("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+    assertThat(EntryExportService.csvField("\t=1")).isEqualTo("'\t=1");
+    assertThat(EntryExportService.csvField("=a,b")).isEqualTo("\"'=a,b\"");
+  }
+
+  @Test
+  void largeExportStreamsWithinAFixedHeapBudget() throws Exception {
+    int entries = 40_000;
+    String padding = "x".repeat(950);
+    for (int i = 0; i < entries; i++) {
+      entityManager.persist(StudyEntry.builder()
+          .user(user)
+          .originalSentence("entry " + i + " " + padding)
+          .studiedAt(START.plusMinutes(i))
+          .build());
+      if (i % 1000 == 999) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    HeapSamplingSink sink = new HeapSamplingSink(entries / PAGE_SIZE + 1);
+    long written = exportService.export(user.getId(), ExportFormat.NDJSON, sink);
+
+    // ~40 MB of output; holding it (or the rows behind it) would blow well past the budget
+    assertThat(written).isEqualTo(entries);
+    assertThat(sink.bytes).isGreaterThan(32L * 1024 * 1024);
+    // One flush per page: a flush per row would mean one network write per row
+    assertThat(sink.flushes).isBetween(entries / PAGE_SIZE, entries / PAGE_SIZE + 1);
+    assertThat(sink.peakGrowth()).isLessThan(16L * 1024 * 1024);
+  }
+
+  private String export(ExportFormat format) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exportService.export(user.getId(), format, out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private StudyEntry entry(String sentence, LocalDateTime studiedAt) {
+    return entityManager.persist(StudyEntry.builder()
+        .user(user)
+        .originalSentence(sentence)
+        .studiedAt(studiedAt)
+        .build());
+  }
+
+  private void link(StudyEntry entry, boolean priority) {
+    entityManager.persist(StudyEntryTopic.builder().studyEntry(entry).topic(topic).isPriority(priority).build());
+  }
+
+  /**
+   * Discards the export, sampling live heap after a GC each time the exporter flushes a page.
+   * Flushes past the expected page count are only counted, so a per-row flush fails the
+   * assertion instead of running a GC per row.
+   */
+  private static final class HeapSamplingSink extends OutputStream {
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final long baseline = liveHeap(memory);
+    private final int maxSamples;
+    private long peak = baseline;
+    private long bytes;
+    private int flushes;
+
+    HeapSamplingSink(int maxSamples) {
+      this.maxSamples = maxSamples;
+    }
+
+    @Override
+    public void write(int b) {
+      bytes++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      bytes += len;
+    }
+
+    @Override
+    public void flush() {
+      if (++flushes <= maxSamples) {
+        peak = Math.max(peak, liveHeap(memory));
+      }
+    }
+
+    long peakGrowth() {
+      return peak - baseline;
+    }
+
+    private static long liveHeap(MemoryMXBean memory) {
+      System.gc();
+      return memory.getHeapMemoryUsage().getUsed();
+    }
+  }
+}
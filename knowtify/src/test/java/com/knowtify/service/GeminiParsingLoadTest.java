@@ -0,0 +1,153 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowtify.service.GeminiParsingService.ParseOutcome;
+import com.knowtify.service.GeminiParsingService.ParseOutcome.Source;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares how many entries can be in flight against a slow model endpoint when
+ * the parse blocks a bounded pool of request threads vs. when it runs reactively.
+ * Only structural properties are asserted (peak concurrency at the model, whether the
+ * caller waits), not wall-clock times, so a loaded CI machine can't flip the result.
+ */
+class GeminiParsingLoadTest {
+
+  private static final int REQUEST_THREADS = 8;   // stand-in for a small Tomcat pool
+  private static final int ENTRIES = 64;
+  private static final long MODEL_LATENCY_MS = 150;
+
+  private static final String MODEL_REPLY = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":" +
+          "\"[{\\\"topic\\\":\\\"quicksort\\\",\\\"subject\\\":\\\"Data Structures & Algorithms\\\"," +
+          "\\\"priority\\\":false,\\\"reason\\\":\\\"regular learning\\\",\\\"confidence\\\":0.9}]\"}]}}]}";
+
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+  private volatile CountDownLatch modelGate = new CountDownLatch(0); // open unless a test holds replies
+  private GeminiParsingService service;
+
+  @BeforeEach
+  void startFakeModel() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/", exchange -> {
+      requests.incrementAndGet();
+      peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        exchange.getRequestBody().readAllBytes();
+        Thread.sleep(MODEL_LATENCY_MS);
+        modelGate.await();
+        byte[] body = MODEL_REPLY.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    });
+    server.start();
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    ParseResultCache cache = new ParseResultCache(1000, Duration.ofMinutes(5), false, null, null, null, objectMapper);
+    service = new GeminiParsingService(
+            "test-key", "test-model", "http://localhost:" + server.getAddress().getPort(),
+            false, 16, Duration.ofMillis(25),
+            Duration.ofSeconds(10), 0, Duration.ofMillis(50),
+            1000, Duration.ofSeconds(30),
+            objectMapper, cache,
+            new LocalClassificationService(null, new TopicParsingService(), 0, 0.7),
+            new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void stopFakeModel() {
+    service.shutdown();
+    server.stop(0);
+  }
+
+  @Test
+  void blockingPathIsCappedByTheRequestThreads() throws Exception {
+    ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+    List<Future<ParseOutcome>> futures = new ArrayList<>();
+    for (int i = 0; i < ENTRIES; i++) {
+      String sentence = "blocking entry " + i;
+      futures.add(requestThreads.submit(() -> service.parse(sentence)));
+    }
+    List<ParseOutcome> outcomes = new ArrayList<>();
+    for (Future<ParseOutcome> f : futures) outcomes.add(f.get(30, TimeUnit.SECONDS));
+    requestThreads.shutdown();
+
+    assertAllParsedByTheModel(outcomes);
+    assertThat(peakInFlight.get()).isEqualTo(REQUEST_THREADS);
+  }
+
+  @Test
+  void reactivePathKeepsEveryEntryInFlightWithoutParkingTheCaller() throws Exception {
+    // First call sets up the WebClient's event loop and connection pool
+    service.parseReactive("warm-up entry").block(Duration.ofSeconds(10));
+    requests.set(0);
+    peakInFlight.set(0);
+
+    // The model holds every reply until released: if subscribing waited on a single one, it would never return
+    modelGate = new CountDownLatch(1);
+    Thread caller = Thread.currentThread();
+    Set<Thread> signalThreads = ConcurrentHashMap.newKeySet();
+    CompletableFuture<List<ParseOutcome>> pending = Flux.range(0, ENTRIES)
+            .flatMap(i -> service.parseReactive("reactive entry " + i), ENTRIES)
+            .doOnNext(outcome -> signalThreads.add(Thread.currentThread()))
+            .collectList()
+            .toFuture();
+    assertThat(pending).isNotDone();
+
+    // More calls reach the model at once than the blocking path's request threads ever could
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (inFlight.get() <= REQUEST_THREADS && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(peakInFlight.get()).isGreaterThan(REQUEST_THREADS);
+    modelGate.countDown();
+
+    List<ParseOutcome> outcomes = pending.get(30, TimeUnit.SECONDS);
+    assertAllParsedByTheModel(outcomes);
+    assertThat(signalThreads).isNotEmpty().doesNotContain(caller);
+  }
+
+  private void assertAllParsedByTheModel(List<ParseOutcome> outcomes) {
+    assertThat(outcomes).hasSize(ENTRIES).allSatisfy(outcome -> {
+      assertThat(outcome.source()).isEqualTo(Source.MODEL);
+      assertThat(outcome.topics()).extracting(ParsedTopic::topic).containsExactly("quicksort");
+    });
+    // Distinct sentences: one model call each, no cache hits and no retries
+    assertThat(requests.get()).isEqualTo(ENTRIES);
+  }
+}
@@ -0,0 +1,139 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowtify.service.GeminiParsingService.ParseOutcome;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeminiParsingServiceTest {
+
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final CountDownLatch hangReleased = new CountDownLatch(1);
+  private final CountDownLatch hangStarted = new CountDownLatch(1);
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private volatile byte[] reply; // when set, every request gets this 200 body instead
+  private GeminiParsingService service;
+
+  @BeforeEach
+  void startFakeModel() throws Exception {
+    // Unless a reply is set, request 2 hangs until the test ends and every other request is a
+    // non-retryable 400
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      int request = requests.incrementAndGet();
+      byte[] body = reply;
+      if (body != null) {
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+        return;
+      }
+      if (request == 2) {
+        hangStarted.countDown();
+        try {
+          hangReleased.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      exchange.sendResponseHeaders(400, -1);
+      exchange.close();
+    });
+    server.start();
+
+    ParseResultCache cache = new ParseResultCache(1000, Duration.ofMinutes(5), false, null, null, null, objectMapper);
+    service = new GeminiParsingService(
+            "test-key", "test-model", "http://localhost:" + server.getAddress().getPort(),
+            false, 16, Duration.ofMillis(25),
+            Duration.ofSeconds(10), 0, Duration.ofMillis(50),
+            1, Duration.ZERO, // one failure opens the circuit; the trial is allowed right away
+            objectMapper, cache,
+            new LocalClassificationService(null, new TopicParsingService(), 0, 0.7),
+            meterRegistry);
+  }
+
+  @AfterEach
+  void stopFakeModel() {
+    hangReleased.countDown();
+    service.shutdown();
+    server.stop(0);
+  }
+
+  @Test
+  void cancelledHalfOpenTrialDoesNotWedgeTheCircuit() throws Exception {
+    // CLOSED -> OPEN
+    assertThat(service.parseReactive("first").block(Duration.ofSeconds(5)).fallback()).isTrue();
+
+    // OPEN -> HALF_OPEN: the trial call hangs and its subscriber gives up
+    Disposable trial = service.parseReactive("second").subscribe();
+    assertThat(hangStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    trial.dispose();
+
+    // The next caller must get a new trial instead of being short-circuited forever
+    service.parseReactive("third").block(Duration.ofSeconds(5));
+    assertThat(requests.get()).isEqualTo(3);
+  }
+
+  @Test
+  void completeReplyIsCached() throws Exception {
+    reply = candidate("[{\"topic\":\"React hooks\",\"subject\":\"Web Development\",\"confidence\":0.9}]", "STOP");
+
+    ParseOutcome first = service.parse("learned react hooks");
+    ParseOutcome second = service.parse("learned react hooks");
+
+    assertThat(first.source()).isEqualTo(ParseOutcome.Source.MODEL);
+    assertThat(second.topics()).extracting(ParsedTopic::topic).containsExactly("React hooks");
+    assertThat(requests.get()).isEqualTo(1);
+  }
+
+  @Test
+  void replyCutOffAtMaxTokensIsAFallbackAndNotCached() throws Exception {
+    reply = candidate("[{\"topic\":\"React hooks\",\"subject\":\"Web Development\",\"confidence\":0.9},"
+        + "{\"topic\":\"use", "MAX_TOKENS");
+
+    ParseOutcome first = service.parse("learned react hooks and useEffect");
+    assertThat(first.fallback()).isTrue();
+    assertThat(first.topics()).extracting(ParsedTopic::topic).containsExactly("React hooks");
+
+    ParseOutcome reactive = service.parseReactive("learned react hooks and useEffect").block(Duration.ofSeconds(5));
+    assertThat(reactive.fallback()).isTrue();
+    assertThat(requests.get()).isEqualTo(2);
+  }
+
+  @Test
+  void emptyReplyBodyFallsBackInsteadOfCompletingEmpty() {
+    reply = new byte[0];
+
+    ParseOutcome outcome = service.parseReactive("learned react hooks").block(Duration.ofSeconds(5));
+
+    assertThat(outcome).isNotNull();
+    assertThat(outcome.fallback()).isTrue();
+    assertThat(meterRegistry.counter("knowtify.gemini.fallback", "reason", "empty").count()).isEqualTo(1);
+  }
+
+  private byte[] candidate(String text, String finishReason) throws Exception {
+    return objectMapper.writeValueAsBytes(Map.of("candidates", List.of(Map.of(
+        "content", Map.of("parts", List.of(Map.of("text", text))),
+        "finishReason", finishReason))));
+  }
+}
@@ -0,0 +1,140 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import com.knowtify.service.GeminiResponseReader.Candidate;
+import com.knowtify.service.GeminiResponseReader.Topics;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiResponseReaderTest {
+
+  private static final String HOOKS = "{\"topic\":\"React hooks\",\"subject\":\"Web Development\","
+      + "\"priority\":true,\"reason\":\"user struggled\",\"confidence\":0.9}";
+  private static final String QUICKSORT = "{\"topic\":\"quicksort\",\"subject\":\"Data Structures & Algorithms\","
+      + "\"priority\":false,\"reason\":\"regular learning\",\"confidence\":0.85}";
+
+  private final GeminiResponseReader reader = new GeminiResponseReader(new JsonFactory());
+
+  @Test
+  void readsAPlainArray() throws IOException {
+    Topics topics = reader.readTopics("[" + HOOKS + "," + QUICKSORT + "]");
+
+    assertThat(topics.complete()).isTrue();
+    assertThat(topics.topics()).containsExactly(
+        new ParsedTopic("React hooks", "Web Development", true, "user struggled", 0.9),
+        new ParsedTopic("quicksort", "Data Structures & Algorithms", false, "regular learning", 0.85));
+  }
+
+  @Test
+  void skipsCodeFences() throws IOException {
+    Topics topics = reader.readTopics("```json\n[" + HOOKS + "]\n```");
+
+    assertThat(topics.complete()).isTrue();
+    assertThat(topics.topics()).extracting(ParsedTopic::topic).containsExactly("React hooks");
+  }
+
+  @Test
+  void skipsProseBeforeAndAfterTheArray() throws IOException {
+    Topics topics = reader.readTopics("Here are the topics I found:\n[" + HOOKS + "]\nLet me know if you need more.");
+
+    assertThat(topics.complete()).isTrue();
+    assertThat(topics.topics()).hasSize(1);
+  }
+
+  @Test
+  void missingFieldsGetDefaults() throws IOException {
+    Topics topics = reader.readTopics("[{\"topic\":\"graphs\",\"extra\":{\"nested\":[1,2]}}]");
+
+    assertThat(topics.topics()).containsExactly(new ParsedTopic("graphs", "Other", false, "", 0.5));
+  }
+
+  @Test
+  void cutInsideAnObjectKeepsTheTopicsBeforeIt() throws IOException {
+    Topics topics = reader.readTopics("[" + HOOKS + ",{\"topic\":\"quicksort\",\"subj");
+
+    assertThat(topics.complete()).isFalse();
+    assertThat(topics.topics()).extracting(ParsedTopic::topic).containsExactly("React hooks");
+  }
+
+  @Test
+  void cutBetweenObjectsKeepsEveryCompletedTopic() throws IOException {
+    Topics topics = reader.readTopics("[" + HOOKS + "," + QUICKSORT + ",");
+
+    assertThat(topics.complete()).isFalse();
+    assertThat(topics.topics()).hasSize(2);
+  }
+
+  @Test
+  void cutBeforeTheFirstTopicIsAnError() {
+    assertThatThrownBy(() -> reader.readTopics("[{\"topic\":\"React ho")).isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> reader.readTopics("[{\"topic\":\"React hooks\"")).isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> reader.readTopics("I could not find any topics.")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void batchOutputIsReadPerEntry() throws IOException {
+    Map<String, List<ParsedTopic>> byId = reader.readTopicsById(
+        "```json\n{\"s0\":[" + HOOKS + "],\"s1\":[" + QUICKSORT + "," + HOOKS + "],\"s2\":[]}\n```");
+
+    assertThat(byId).containsOnlyKeys("s0", "s1", "s2");
+    assertThat(byId.get("s1")).extracting(ParsedTopic::topic).containsExactly("quicksort", "React hooks");
+    assertThat(byId.get("s2")).isEmpty();
+  }
+
+  @Test
+  void batchEntryThatIsNotAnArrayIsSkipped() throws IOException {
+    Map<String, List<ParsedTopic>> byId = reader.readTopicsById("{\"s0\":\"no topics\",\"s1\":[" + HOOKS + "]}");
+
+    assertThat(byId).containsOnlyKeys("s1");
+  }
+
+  @Test
+  void batchCutOffLeavesOutTheUnfinishedEntryAndEverythingAfter() throws IOException {
+    Map<String, List<ParsedTopic>> byId = reader.readTopicsById(
+        "{\"s0\":[" + HOOKS + "],\"s1\":[" + QUICKSORT + ",{\"topic\":\"mer");
+
+    assertThat(byId).containsOnlyKeys("s0");
+  }
+
+  @Test
+  void readsTheFirstCandidateAndItsFinishReason() throws IOException {
+    Candidate candidate = reader.readCandidate(body("{\"candidates\":[{\"content\":{\"role\":\"model\","
+        + "\"parts\":[{\"text\":\"[]\"},{\"text\":\"ignored\"}]},\"finishReason\":\"MAX_TOKENS\"},"
+        + "{\"content\":{\"parts\":[{\"text\":\"second\"}]}}],\"usageMetadata\":{\"totalTokenCount\":12}}"));
+
+    assertThat(candidate.text()).isEqualTo("[]");
+    assertThat(candidate.truncated()).isTrue();
+  }
+
+  @Test
+  void candidateWithoutFinishReasonIsNotTruncated() throws IOException {
+    Candidate candidate = reader.readCandidate(body(
+        "{\"modelVersion\":\"x\",\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"[]\"}]}}]}"));
+
+    assertThat(candidate.finishReason()).isNull();
+    assertThat(candidate.truncated()).isFalse();
+  }
+
+  @Test
+  void replyWithoutTextIsRejected() {
+    assertThatThrownBy(() -> reader.readCandidate(body("{\"candidates\":[]}")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> reader.readCandidate(body("{\"candidates\":[{\"finishReason\":\"SAFETY\"}]}")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> reader.readCandidate(body("[]")))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static ByteArrayInputStream body(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,121 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.KnowledgeMapChangesResponse;
+import com.knowtify.dto.StudyDtos.TopicChange;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.repository.SavepointInserts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delta sync: each write bumps the user's version and stamps the topics it touched, and
+ * {@code getChanges(since)} returns the current summary of just those topics.
+ */
+@DataJpaTest
+@Import({KnowledgeMapService.class, DataVersionService.class, UserTopicStatsService.class,
+    SavepointInserts.class, SimpleMeterRegistry.class})
+class KnowledgeMapServiceTest {
+
+  private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+  @Autowired private KnowledgeMapService knowledgeMapService;
+  @Autowired private DataVersionService dataVersionService;
+  @Autowired private UserTopicStatsService userTopicStatsService;
+  @Autowired private TestEntityManager entityManager;
+
+  private User user;
+  private Topic hooks;
+  private Topic graphs;
+
+  @BeforeEach
+  void setUp() {
+    user = entityManager.persist(User.builder().username("map-user").passwordHash("x").build());
+    Subject web = entityManager.persist(Subject.builder().name("Web Development").build());
+    Subject algorithms = entityManager.persist(Subject.builder().name("Algorithms").build());
+    hooks = entityManager.persist(Topic.builder().name("react hooks").subject(web).confidenceScore(0.9).build());
+    graphs = entityManager.persist(Topic.builder().name("graphs").subject(algorithms).confidenceScore(0.9).build());
+    entityManager.flush();
+  }
+
+  @Test
+  void sinceZeroReturnsEveryTopic() {
+    study(hooks, MONDAY, false);
+    long version = study(graphs, MONDAY.plusHours(1), false);
+
+    KnowledgeMapChangesResponse response = knowledgeMapService.getChanges(user.getId(), 0);
+
+    assertThat(response.getVersion()).isEqualTo(version);
+    assertThat(response.isFullSyncRequired()).isFalse();
+    assertThat(names(response)).containsExactlyInAnyOrder("react hooks", "graphs");
+  }
+
+  @Test
+  void onlyTopicsChangedAfterSinceAreReturned() {
+    long first = study(hooks, MONDAY, false);
+    study(graphs, MONDAY.plusHours(1), false);
+    long third = study(hooks, MONDAY.plusDays(1), true);
+
+    KnowledgeMapChangesResponse response = knowledgeMapService.getChanges(user.getId(), first);
+
+    assertThat(response.getSince()).isEqualTo(first);
+    assertThat(response.getVersion()).isEqualTo(third);
+    assertThat(names(response)).containsExactlyInAnyOrder("react hooks", "graphs");
+
+    // The changed topic comes with its all-time summary, not just the latest study
+    TopicChange change = knowledgeMapService.getChanges(user.getId(), third - 1).getChanges().get(0);
+    assertThat(change.getSubject()).isEqualTo("Web Development");
+    assertThat(change.getTopic().getName()).isEqualTo("react hooks");
+    assertThat(change.getTopic().getCount()).isEqualTo(2);
+    assertThat(change.getTopic().isPriority()).isTrue();
+    assertThat(change.getTopic().getLastStudiedAt()).isEqualTo(MONDAY.plusDays(1));
+  }
+
+  @Test
+  void upToDateClientGetsNoChanges() {
+    long version = study(hooks, MONDAY, false);
+
+    KnowledgeMapChangesResponse response = knowledgeMapService.getChanges(user.getId(), version);
+
+    assertThat(response.getVersion()).isEqualTo(version);
+    assertThat(response.isFullSyncRequired()).isFalse();
+    assertThat(response.getChanges()).isEmpty();
+  }
+
+  @Test
+  void sinceAheadOfTheServerRequiresAFullSync() {
+    long version = study(hooks, MONDAY, false);
+
+    KnowledgeMapChangesResponse response = knowledgeMapService.getChanges(user.getId(), version + 5);
+
+    assertThat(response.isFullSyncRequired()).isTrue();
+    assertThat(response.getChanges()).isEmpty();
+    assertThat(response.getVersion()).isEqualTo(version);
+  }
+
+  // What StudyEntryService does per entry: update the stats, then bump the version
+  private long study(Topic topic, LocalDateTime studiedAt, boolean priority) {
+    userTopicStatsService.recordLinks(user.getId(), studiedAt,
+        List.of(StudyEntryTopic.builder().topic(topic).isPriority(priority).build()));
+    long version = dataVersionService.recordChange(user.getId(), List.of(topic.getId()));
+    entityManager.flush();
+    entityManager.clear();
+    return version;
+  }
+
+  private static List<String> names(KnowledgeMapChangesResponse response) {
+    return response.getChanges().stream().map(change -> change.getTopic().getName()).toList();
+  }
+}
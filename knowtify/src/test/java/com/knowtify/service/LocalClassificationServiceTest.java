@@ -0,0 +1,69 @@
+package com.knowtify.service;
+
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import com.knowtify.service.TopicClassifier.Classification;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Offline classification of typical study sentences with the seeded subject keywords only,
+ * as before the topic catalogue is loaded.
+ */
+class LocalClassificationServiceTest {
+
+  private final LocalClassificationService service =
+      new LocalClassificationService(null, new TopicParsingService(), 0, 0.7);
+
+  private record Expected(String topic, String subject, boolean priority) {}
+
+  @Test
+  void leadingPhraseIsDroppedAndKeywordPicksTheSubject() {
+    assertClassifies("I studied binary search trees",
+        new Expected("binary search trees", "Data Structures & Algorithms", false));
+  }
+
+  @Test
+  void struggleMarksPriority() {
+    assertClassifies("Struggled with React Hooks",
+        new Expected("react hooks", "Web Development", true));
+    assertClassifies("had trouble with dijkstra",
+        new Expected("dijkstra", "Data Structures & Algorithms", true));
+    assertClassifies("need to review tcp",
+        new Expected("tcp", "Computer Networks", true));
+  }
+
+  @Test
+  void eachSegmentIsClassifiedOnItsOwn() {
+    assertClassifies("learned gradient descent and deadlocks; !docker",
+        new Expected("gradient descent", "Machine Learning", false),
+        new Expected("deadlocks", "Operating Systems", false),
+        new Expected("docker", "DevOps", true));
+  }
+
+  @Test
+  void unknownTermIsOtherWithLowConfidence() {
+    Classification result = service.classify("I studied photosynthesis");
+
+    assertThat(result.topics()).extracting(ParsedTopic::subject).containsExactly("Other");
+    assertThat(result.confidence()).isEqualTo(TopicClassifier.UNKNOWN_CONFIDENCE);
+    assertThat(result.unknownTerms()).isEqualTo(1);
+  }
+
+  @Test
+  void keywordsFromTwoSubjectsAreAmbiguous() {
+    Classification result = service.classify("java sql");
+
+    assertThat(result.topics()).extracting(ParsedTopic::subject).containsExactly("Programming Languages");
+    assertThat(result.confidence()).isEqualTo(TopicClassifier.AMBIGUOUS_CONFIDENCE);
+  }
+
+  private void assertClassifies(String sentence, Expected... expected) {
+    List<Expected> actual = service.classify(sentence).topics().stream()
+        .map(t -> new Expected(t.topic(), t.subject(), t.priority()))
+        .toList();
+    assertThat(actual).containsExactly(expected);
+  }
+}
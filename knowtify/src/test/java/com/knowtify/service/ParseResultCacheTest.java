@@ -0,0 +1,95 @@
+package com.knowtify.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knowtify.entity.User;
+import com.knowtify.repository.ParseCacheEntryRepository;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(SavepointInserts.class)
+class ParseResultCacheTest {
+
+  private static final List<ParsedTopic> TOPICS =
+      List.of(new ParsedTopic("React hooks", "Web Development", false, "regular learning", 0.9));
+
+  @Autowired private ParseCacheEntryRepository repository;
+  @Autowired private SavepointInserts savepointInserts;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private TestEntityManager entityManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void tableServesAColdInstance() {
+    ParseResultCache writer = cache();
+    String key = writer.key("learned react hooks", "model", "v1");
+    writer.put(key, "model", "v1", TOPICS);
+
+    ParseResultCache restarted = cache();
+
+    assertThat(restarted.get(key)).contains(TOPICS);
+    assertThat(restarted.stats().persistentHits()).isEqualTo(1);
+  }
+
+  @Test
+  void sameSentenceStoredTwiceLeavesTheCallerTransactionUsable() {
+    ParseResultCache first = cache();
+    String key = first.key("learned react hooks", "model", "v1");
+    first.put(key, "model", "v1", TOPICS);
+
+    // Another instance parsed the same sentence at the same time
+    cache().put(key, "model", "v1", TOPICS);
+
+    assertThat(repository.count()).isEqualTo(1);
+    assertEntryCanStillBeWritten();
+  }
+
+  @Test
+  void resultTooLargeForTheTableStaysInMemoryOnly() {
+    List<ParsedTopic> huge = List.of(new ParsedTopic("React hooks", "Web Development", false, "x".repeat(9000), 0.9));
+    ParseResultCache cache = cache();
+    String key = cache.key("learned react hooks", "model", "v1");
+
+    cache.put(key, "model", "v1", huge);
+
+    assertThat(repository.count()).isZero();
+    assertThat(cache.get(key)).contains(huge);
+    assertEntryCanStillBeWritten();
+  }
+
+  @Test
+  void expiredRowIsAMissAndIsDeleted() {
+    ParseResultCache cache = cache();
+    String key = cache.key("learned react hooks", "model", "v1");
+    savepointInserts.insertIfAbsent(ParseCacheEntryRepository.INSERT_ENTRY, key, "model", "v1",
+        "[]", OffsetDateTime.now(ZoneOffset.UTC).minusDays(2));
+
+    assertThat(cache.get(key)).isEmpty();
+    assertThat(cache.stats().persistentMisses()).isEqualTo(1);
+    assertThat(repository.count()).isZero();
+  }
+
+  private ParseResultCache cache() {
+    return new ParseResultCache(100, Duration.ofDays(1), true, repository, savepointInserts, transactionManager, objectMapper);
+  }
+
+  // What the ingest transaction does after parsing: it must not have been poisoned by the cache
+  private void assertEntryCanStillBeWritten() {
+    entityManager.persist(User.builder().username("cache-user").passwordHash("x").build());
+    entityManager.flush();
+  }
+}
@@ -0,0 +1,133 @@
+package com.knowtify.service;
+
+import com.knowtify.repository.TopicCatalogView;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.service.GeminiParsingService.ParseOutcome;
+import com.knowtify.service.GeminiParsingService.ParseOutcome.Source;
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParseRouterTest {
+
+  private static final ParseOutcome MODEL_OUTCOME = ParseOutcome.model(List.of(
+      new ParsedTopic("React hooks", "Web Development", false, "regular learning", 0.9)));
+
+  private record CatalogRow(String getName, String getSubject) implements TopicCatalogView {}
+
+  private final GeminiParsingService gemini = mock(GeminiParsingService.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private LocalClassificationService local;
+
+  @BeforeEach
+  void setUp() {
+    local = new LocalClassificationService(catalog(
+        new CatalogRow("React Hooks", "Web Development"),
+        new CatalogRow("Dijkstra", "Data Structures & Algorithms")), new TopicParsingService(), 100, 0.7);
+    local.rebuild();
+    when(gemini.parse(anyString())).thenReturn(MODEL_OUTCOME);
+  }
+
+  @Test
+  void catalogueTopicsStayLocal() {
+    ParseOutcome outcome = router(0.8).parse("struggled with react hooks, dijkstra");
+
+    assertThat(outcome.source()).isEqualTo(Source.LOCAL);
+    assertThat(outcome.topics()).extracting(ParsedTopic::topic).containsExactly("React Hooks", "Dijkstra");
+    verify(gemini, never()).parse(anyString());
+    assertThat(routeCount("local", "confident")).isEqualTo(1);
+    assertThat(registry.get("knowtify.gemini.calls.avoided").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void keywordGuessEscalatesEvenAboveTheThreshold() {
+    // "css" is a Web Development keyword (0.7), not a catalogue topic
+    assertThat(router(0.5).parse("css grid")).isSameAs(MODEL_OUTCOME);
+    assertThat(routeCount("model", "not_in_catalogue")).isEqualTo(1);
+  }
+
+  @Test
+  void catalogueTopicInsideALongerPhraseEscalates() {
+    assertThat(router(0.8).parse("react hooks cleanup")).isSameAs(MODEL_OUTCOME);
+    assertThat(routeCount("model", "not_in_catalogue")).isEqualTo(1);
+  }
+
+  @Test
+  void unknownTermEscalates() {
+    router(0.8).parse("react hooks, photosynthesis");
+
+    assertThat(routeCount("model", "unknown_terms")).isEqualTo(1);
+  }
+
+  @Test
+  void sentenceWithoutTopicsEscalates() {
+    router(0.8).parse("struggled");
+
+    assertThat(routeCount("model", "no_topics")).isEqualTo(1);
+  }
+
+  @Test
+  void thresholdAboveCatalogueConfidenceEscalates() {
+    router(0.99).parse("react hooks");
+
+    assertThat(routeCount("model", "low_confidence")).isEqualTo(1);
+  }
+
+  @Test
+  void disabledRoutingAlwaysCallsTheModel() {
+    ParseRouter router = new ParseRouter(local, gemini, registry, false, 0.8);
+
+    assertThat(router.parse("react hooks")).isSameAs(MODEL_OUTCOME);
+    assertThat(routeCount("model", "routing_disabled")).isEqualTo(1);
+  }
+
+  @Test
+  void reactiveLocalRouteDoesNotCallTheModel() {
+    ParseOutcome outcome = router(0.8).parseReactive("react hooks").block(Duration.ofSeconds(5));
+
+    assertThat(outcome.source()).isEqualTo(Source.LOCAL);
+    verify(gemini, never()).parseReactive(anyString());
+    assertThat(routeCount("local", "confident")).isEqualTo(1);
+  }
+
+  @Test
+  void reactiveEscalationIsRecordedWhenCancelled() {
+    when(gemini.parseReactive(anyString())).thenReturn(Mono.never());
+
+    Disposable subscription = router(0.8).parseReactive("photosynthesis").subscribe();
+    assertThat(registry.find("knowtify.parse.route").counter()).isNull();
+    subscription.dispose();
+
+    assertThat(routeCount("model", "unknown_terms")).isEqualTo(1);
+  }
+
+  private ParseRouter router(double threshold) {
+    return new ParseRouter(local, gemini, registry, true, threshold);
+  }
+
+  private double routeCount(String route, String reason) {
+    return registry.get("knowtify.parse.route").tag("route", route).tag("reason", reason).counter().count();
+  }
+
+  private static TopicRepository catalog(TopicCatalogView... rows) {
+    return (TopicRepository) Proxy.newProxyInstance(TopicRepository.class.getClassLoader(),
+        new Class<?>[]{TopicRepository.class}, (proxy, method, args) -> {
+          if (method.getName().equals("findCatalog")) return List.of(rows);
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
@@ -0,0 +1,73 @@
+package com.knowtify.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+  private final CountDownLatch workerStarted = new CountDownLatch(1);
+  private final CountDownLatch hashReleased = new CountDownLatch(1);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  // One worker and one queue slot: the third concurrent request has nowhere to go
+  private final PasswordHashingService service = new PasswordHashingService(new GatedEncoder(), registry, 1, 1);
+
+  @AfterEach
+  void tearDown() {
+    hashReleased.countDown();
+    service.shutdown();
+  }
+
+  @Test
+  void fullQueueFailsFastWithoutWaitingForAWorker() throws Exception {
+    CompletableFuture<String> running = service.encode("first");
+    assertThat(workerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<Boolean> queued = service.matches("second", "hash:second");
+
+    CompletableFuture<String> refused = service.encode("third");
+
+    assertThat(refused).isCompletedExceptionally();
+    assertThatThrownBy(refused::get).isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(registry.get("knowtify.auth.hash.rejected").counter().count()).isEqualTo(1);
+    assertThat(registry.get("knowtify.auth.hash.queue").gauge().value()).isEqualTo(1);
+
+    hashReleased.countDown();
+    assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:first");
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(registry.get("knowtify.auth.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+  }
+
+  private class GatedEncoder implements PasswordEncoder {
+    @Override
+    public String encode(CharSequence rawPassword) {
+      await();
+      return "hash:" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      await();
+      return encodedPassword.equals("hash:" + rawPassword);
+    }
+
+    private void await() {
+      workerStarted.countDown();
+      try {
+        hashReleased.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
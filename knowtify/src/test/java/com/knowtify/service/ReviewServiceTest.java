@@ -0,0 +1,120 @@
+package com.knowtify.service;
+
+import com.knowtify.entity.ReviewState;
+import com.knowtify.entity.StudyEntry;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.repository.ReviewStateRepository;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.util.UuidV7;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ReviewService.class, SavepointInserts.class})
+class ReviewServiceTest {
+
+  private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+  @Autowired private ReviewService reviewService;
+  @Autowired private ReviewStateRepository reviewStateRepository;
+  @Autowired private SavepointInserts savepointInserts;
+  @Autowired private TestEntityManager entityManager;
+
+  private User user;
+  private Topic topic;
+
+  @BeforeEach
+  void setUp() {
+    user = entityManager.persist(User.builder().username("review-user").passwordHash("x").build());
+    Subject subject = entityManager.persist(Subject.builder().name("Operating Systems").build());
+    topic = entityManager.persist(Topic.builder().name("deadlocks").subject(subject).confidenceScore(0.9).build());
+    entityManager.flush();
+  }
+
+  @Test
+  void firstStudyCreatesTheSchedule() {
+    reviewService.recordLinks(user.getId(), MONDAY, List.of(link(false)));
+
+    ReviewState state = single();
+    assertThat(state.getRepetitions()).isEqualTo(1);
+    assertThat(state.getDueAt()).isEqualTo(MONDAY.plusDays(1));
+  }
+
+  @Test
+  void laterStudiesUpdateTheSameRow() {
+    reviewService.recordLinks(user.getId(), MONDAY, List.of(link(false)));
+    reviewService.recordLinks(user.getId(), MONDAY.plusDays(1), List.of(link(false)));
+    reviewService.recordLinks(user.getId(), MONDAY.plusDays(7), List.of(link(true)));
+
+    ReviewState state = single();
+    assertThat(state.getRepetitions()).isZero();
+    assertThat(state.getLapses()).isEqualTo(1);
+    assertThat(state.getDueAt()).isEqualTo(MONDAY.plusDays(8));
+  }
+
+  @Test
+  void stateInsertedByAnotherWriterIsUpdatedInstead() {
+    // The other writer's row lands before ours; the duplicate insert only rolls back its savepoint
+    assertThat(insertState()).isTrue();
+    assertThat(insertState()).isFalse();
+
+    reviewService.recordLinks(user.getId(), MONDAY, List.of(link(false)));
+
+    ReviewState state = single();
+    assertThat(state.getRepetitions()).isEqualTo(1);
+    assertThat(state.getLastStudiedAt()).isEqualTo(MONDAY);
+  }
+
+  @Test
+  void rebuildReplaysStudiesOldestFirst() {
+    // Written newest first; a replay in insertion order would ignore the older struggle
+    persistEntry(MONDAY.plusDays(1), false);
+    persistEntry(MONDAY, true);
+    entityManager.flush();
+
+    assertThat(reviewService.rebuildAll()).isEqualTo(1);
+
+    ReviewState state = single();
+    assertThat(state.getLapses()).isEqualTo(1);
+    assertThat(state.getRepetitions()).isEqualTo(1);
+    assertThat(state.getLastStudiedAt()).isEqualTo(MONDAY.plusDays(1));
+    assertThat(state.getDueAt()).isEqualTo(MONDAY.plusDays(2));
+  }
+
+  private boolean insertState() {
+    return savepointInserts.insertIfAbsent(ReviewStateRepository.INSERT_STATE,
+        UuidV7.generate(), user.getId(), topic.getId(), ReviewState.INITIAL_EASE, 0.0, 0, 0, MONDAY);
+  }
+
+  private void persistEntry(LocalDateTime studiedAt, boolean priority) {
+    StudyEntry entry = entityManager.persist(StudyEntry.builder()
+        .user(user)
+        .originalSentence("deadlocks")
+        .studiedAt(studiedAt)
+        .recordedAt(studiedAt)
+        .build());
+    entityManager.persist(StudyEntryTopic.builder().studyEntry(entry).topic(topic).isPriority(priority).build());
+  }
+
+  private ReviewState single() {
+    List<ReviewState> states = reviewStateRepository.findAll();
+    assertThat(states).hasSize(1);
+    return states.get(0);
+  }
+
+  private StudyEntryTopic link(boolean priority) {
+    return StudyEntryTopic.builder().topic(topic).isPriority(priority).build();
+  }
+}
@@ -0,0 +1,144 @@
+package com.knowtify.service;
+
+import com.knowtify.dto.StudyDtos.SubjectSummary;
+import com.knowtify.dto.StudyDtos.TopicSummary;
+import com.knowtify.repository.TopicAggregateView;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicAggregationTest {
+
+  private static final LocalDateTime T0 = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+  private static final UUID HOOKS = new UUID(0, 1);
+  private static final UUID GRID = new UUID(0, 2);
+  private static final UUID GRAPHS = new UUID(0, 3);
+  private static final UUID TREES = new UUID(0, 4);
+
+  private record Row(UUID topicId, String subjectName, String topicName, Long studyCount,
+                     Integer priorityFlag, LocalDateTime lastStudiedAt) implements TopicAggregateView {
+    @Override public UUID getTopicId() { return topicId; }
+    @Override public String getSubjectName() { return subjectName; }
+    @Override public String getTopicName() { return topicName; }
+    @Override public Long getStudyCount() { return studyCount; }
+    @Override public Integer getPriorityFlag() { return priorityFlag; }
+    @Override public LocalDateTime getLastStudiedAt() { return lastStudiedAt; }
+  }
+
+  @Test
+  void subjectsAreOrderedByTotalStudiesThenName() {
+    TopicAggregation aggregation = TopicAggregation.of(List.of(
+        new Row(HOOKS, "Web Development", "react hooks", 3L, 0, T0),
+        new Row(GRID, "Web Development", "css grid", 2L, 0, T0),
+        new Row(GRAPHS, "Algorithms", "graphs", 5L, 0, T0),
+        new Row(TREES, "Biology", "trees", 5L, 0, T0)));
+
+    List<SubjectSummary> subjects = aggregation.subjectSummaries(TopicAggregation.BY_COUNT);
+
+    assertThat(subjects).extracting(SubjectSummary::getSubject)
+        .containsExactly("Algorithms", "Biology", "Web Development");
+    assertThat(subjects).extracting(SubjectSummary::getTotalStudies).containsExactly(5, 5, 5);
+    assertThat(subjects.get(2).getTopics()).extracting(TopicSummary::getName)
+        .containsExactly("react hooks", "css grid");
+  }
+
+  @Test
+  void rowsOfTheSameTopicAreMerged() {
+    TopicAggregation aggregation = TopicAggregation.of(List.of(
+        new Row(HOOKS, "Web Development", "react hooks", 2L, 0, T0),
+        new Row(HOOKS, "Web Development", "react hooks", 3L, 1, T0.plusDays(2)),
+        new Row(HOOKS, "Web Development", "react hooks", 1L, 0, T0.plusDays(1))));
+
+    List<SubjectSummary> subjects = aggregation.subjectSummaries(TopicAggregation.BY_COUNT);
+
+    assertThat(subjects).hasSize(1);
+    assertThat(subjects.get(0).getTotalStudies()).isEqualTo(6);
+    TopicSummary hooks = subjects.get(0).getTopics().get(0);
+    assertThat(subjects.get(0).getTopics()).hasSize(1);
+    assertThat(hooks.getCount()).isEqualTo(6);
+    assertThat(hooks.isPriority()).isTrue();
+    assertThat(hooks.getLastStudiedAt()).isEqualTo(T0.plusDays(2));
+  }
+
+  @Test
+  void topicsWithTheSameNameInDifferentSubjectsStaySeparate() {
+    TopicAggregation aggregation = TopicAggregation.of(List.of(
+        new Row(TREES, "Biology", "trees", 1L, 0, T0),
+        new Row(GRAPHS, "Algorithms", "trees", 4L, 0, T0)));
+
+    List<SubjectSummary> subjects = aggregation.subjectSummaries(TopicAggregation.BY_COUNT);
+
+    assertThat(subjects).extracting(SubjectSummary::getSubject).containsExactly("Algorithms", "Biology");
+    assertThat(subjects).allSatisfy(subject -> assertThat(subject.getTopics()).hasSize(1));
+  }
+
+  @Test
+  void recencyOrderPutsNeverStudiedLastAndBreaksTiesByName() {
+    TopicAggregation aggregation = TopicAggregation.of(List.of(
+        new Row(HOOKS, "Web Development", "react hooks", 1L, 0, null),
+        new Row(GRID, "Web Development", "css grid", 1L, 0, T0),
+        new Row(GRAPHS, "Web Development", "accessibility", 1L, 0, T0),
+        new Row(TREES, "Web Development", "webpack", 1L, 0, T0.plusHours(1))));
+
+    List<TopicSummary> topics = aggregation.subjectSummaries(TopicAggregation.BY_RECENCY).get(0).getTopics();
+
+    assertThat(topics).extracting(TopicSummary::getName)
+        .containsExactly("webpack", "accessibility", "css grid", "react hooks");
+  }
+
+  @Test
+  void nullStudyCountCountsAsZero() {
+    TopicAggregation aggregation = TopicAggregation.of(List.of(
+        new Row(HOOKS, "Web Development", "react hooks", null, null, null)));
+
+    SubjectSummary subject = aggregation.subjectSummaries(TopicAggregation.BY_COUNT).get(0);
+
+    assertThat(subject.getTotalStudies()).isZero();
+    assertThat(subject.getTopics().get(0).getCount()).isZero();
+    assertThat(subject.getTopics().get(0).isPriority()).isFalse();
+  }
+
+  @Test
+  void recentPriorityTopicsKeepsTheNewestWithinTheLimit() {
+    TopicAggregation aggregation = TopicAggregation.of(List.of(
+        new Row(HOOKS, "Web Development", "react hooks", 1L, 1, T0),
+        new Row(GRID, "Web Development", "css grid", 1L, 0, T0.plusDays(5)),
+        new Row(GRAPHS, "Algorithms", "graphs", 1L, 1, T0.plusDays(2)),
+        new Row(TREES, "Biology", "trees", 1L, 1, T0.plusDays(1))));
+
+    assertThat(aggregation.recentPriorityTopics(2)).extracting(TopicSummary::getName)
+        .containsExactly("graphs", "trees");
+    assertThat(aggregation.recentPriorityTopics(10)).extracting(TopicSummary::getName)
+        .containsExactly("graphs", "trees", "react hooks");
+    assertThat(aggregation.recentPriorityTopics(0)).isEmpty();
+  }
+
+  @Test
+  void emptyInputYieldsNothing() {
+    TopicAggregation aggregation = TopicAggregation.of(List.of());
+
+    assertThat(aggregation.subjectSummaries(TopicAggregation.BY_COUNT)).isEmpty();
+    assertThat(aggregation.recentPriorityTopics(5)).isEmpty();
+  }
+
+  @Test
+  void metricsRecordTopicsAndStudies() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TopicAggregation aggregation = TopicAggregation.of(List.of(
+        new Row(HOOKS, "Web Development", "react hooks", 2L, 0, T0),
+        new Row(GRID, "Web Development", "css grid", 3L, 0, T0)));
+
+    aggregation.recordMetrics(registry, "test", Timer.start(registry));
+
+    assertThat(registry.get("knowtify.aggregation").tag("view", "test").timer().count()).isEqualTo(1);
+    assertThat(registry.get("knowtify.aggregation.topics").tag("view", "test").summary().totalAmount()).isEqualTo(2);
+    assertThat(registry.get("knowtify.aggregation.studies").tag("view", "test").summary().totalAmount()).isEqualTo(5);
+  }
+}
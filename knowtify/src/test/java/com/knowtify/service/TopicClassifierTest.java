@@ -0,0 +1,137 @@
+package com.knowtify.service;
+
+import com.knowtify.service.GeminiParsingService.ParsedTopic;
+import com.knowtify.service.TopicClassifier.CatalogTopic;
+import com.knowtify.service.TopicClassifier.Classification;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicClassifierTest {
+
+  private static final String WEB = "Web Development";
+  private static final String DATABASES = "Database Systems";
+  private static final String OS = "Operating Systems";
+
+  private final TopicClassifier classifier = TopicClassifier.build(new TopicParsingService(), keywords(), List.of(
+      new CatalogTopic("React Hooks", WEB),
+      new CatalogTopic("B-Tree", DATABASES),
+      new CatalogTopic("Scheduling", OS),
+      new CatalogTopic("scheduling", "Mathematics")));
+
+  @Test
+  void exactCatalogueTopicUsesTheCatalogueName() {
+    ParsedTopic topic = single("I studied react hooks");
+
+    assertThat(topic.topic()).isEqualTo("React Hooks");
+    assertThat(topic.subject()).isEqualTo(WEB);
+    assertThat(topic.confidence()).isEqualTo(TopicClassifier.KNOWN_TOPIC_CONFIDENCE);
+  }
+
+  @Test
+  void catalogueTopicInsideALongerPhrase() {
+    ParsedTopic topic = single("react hooks cleanup");
+
+    assertThat(topic.topic()).isEqualTo("react hooks cleanup");
+    assertThat(topic.subject()).isEqualTo(WEB);
+    assertThat(topic.confidence()).isEqualTo(TopicClassifier.PARTIAL_TOPIC_CONFIDENCE);
+  }
+
+  @Test
+  void subjectKeywordDecidesWhenNoCatalogueTopicMatches() {
+    ParsedTopic topic = single("css grid");
+
+    assertThat(topic.subject()).isEqualTo(WEB);
+    assertThat(topic.confidence()).isEqualTo(TopicClassifier.KEYWORD_CONFIDENCE);
+  }
+
+  @Test
+  void tiedKeywordsAreAmbiguous() {
+    ParsedTopic topic = single("sql threads");
+
+    assertThat(topic.subject()).isEqualTo(DATABASES);
+    assertThat(topic.confidence()).isEqualTo(TopicClassifier.AMBIGUOUS_CONFIDENCE);
+  }
+
+  @Test
+  void catalogueNameUnderSeveralSubjectsNeedsAKeywordToDecide() {
+    ParsedTopic alone = single("scheduling");
+    assertThat(alone.subject()).isEqualTo(TopicClassifier.OTHER_SUBJECT);
+    assertThat(alone.confidence()).isEqualTo(TopicClassifier.AMBIGUOUS_CONFIDENCE);
+
+    ParsedTopic withKeyword = single("scheduling threads");
+    assertThat(withKeyword.subject()).isEqualTo(OS);
+    assertThat(withKeyword.confidence()).isEqualTo(TopicClassifier.AMBIGUOUS_CONFIDENCE);
+  }
+
+  @Test
+  void unknownTermFallsBackToOther() {
+    ParsedTopic topic = single("quantum chromodynamics");
+
+    assertThat(topic.subject()).isEqualTo(TopicClassifier.OTHER_SUBJECT);
+    assertThat(topic.confidence()).isEqualTo(TopicClassifier.UNKNOWN_CONFIDENCE);
+  }
+
+  @Test
+  void keywordsMatchWholeWordsOnly() {
+    assertThat(single("reactive streams").subject()).isEqualTo(TopicClassifier.OTHER_SUBJECT);
+  }
+
+  @Test
+  void priorityCuesAreStrippedFromTheTopicName() {
+    ParsedTopic topic = single("really struggled with css grid today");
+
+    assertThat(topic.topic()).isEqualTo("css grid");
+    assertThat(topic.subject()).isEqualTo(WEB);
+    assertThat(topic.priority()).isTrue();
+  }
+
+  @Test
+  void exclamationMarkFlagsPriority() {
+    Classification result = classifier.classify("css grid, !b-tree");
+
+    assertThat(result.topics()).extracting(ParsedTopic::topic).containsExactly("css grid", "B-Tree");
+    assertThat(result.topics()).extracting(ParsedTopic::priority).containsExactly(false, true);
+  }
+
+  @Test
+  void sentenceConfidenceIsTheLowestTopicConfidence() {
+    Classification result = classifier.classify("react hooks, quantum chromodynamics");
+
+    assertThat(result.topics()).hasSize(2);
+    assertThat(result.confidence()).isEqualTo(TopicClassifier.UNKNOWN_CONFIDENCE);
+    assertThat(result.unknownTerms()).isEqualTo(1);
+  }
+
+  @Test
+  void cueWithoutATopicYieldsNothing() {
+    Classification result = classifier.classify("struggled");
+
+    assertThat(result.topics()).isEmpty();
+    assertThat(result.confidence()).isZero();
+    assertThat(classifier.classify("   ").topics()).isEmpty();
+  }
+
+  @Test
+  void catalogueSizeIsReported() {
+    assertThat(classifier.catalogSize()).isEqualTo(4);
+  }
+
+  private ParsedTopic single(String sentence) {
+    Classification result = classifier.classify(sentence);
+    assertThat(result.topics()).hasSize(1);
+    return result.topics().get(0);
+  }
+
+  private static Map<String, List<String>> keywords() {
+    Map<String, List<String>> keywords = new LinkedHashMap<>();
+    keywords.put(WEB, List.of("react", "css"));
+    keywords.put(DATABASES, List.of("sql", "index"));
+    keywords.put(OS, List.of("threads"));
+    return keywords;
+  }
+}
@@ -0,0 +1,42 @@
+package com.knowtify.service;
+
+import com.knowtify.service.TopicParsingService.ParsedTopic;
+import com.knowtify.util.SentenceTokenizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicParsingServiceTest {
+
+  private final TopicParsingService topicParsingService = new TopicParsingService();
+
+  @Test
+  void platformThreadReusesItsTokenizer() {
+    assertThat(TopicParsingService.tokenizer()).isSameAs(TopicParsingService.tokenizer());
+  }
+
+  @Test
+  void virtualThreadGetsAFreshTokenizer() throws Exception {
+    AtomicReference<SentenceTokenizer> first = new AtomicReference<>();
+    AtomicReference<SentenceTokenizer> second = new AtomicReference<>();
+    Thread.ofVirtual().start(() -> {
+      first.set(TopicParsingService.tokenizer());
+      second.set(TopicParsingService.tokenizer());
+    }).join();
+
+    assertThat(first.get()).isNotSameAs(second.get());
+  }
+
+  @Test
+  void reusedTokenizerDoesNotLeakTheLastSentence() throws Exception {
+    try (var platformThread = Executors.newSingleThreadExecutor()) {
+      assertThat(platformThread.submit(() -> topicParsingService.parseSentence("studied graphs, !heaps, tries")).get())
+          .extracting(ParsedTopic::name).containsExactly("graphs", "heaps", "tries");
+      assertThat(platformThread.submit(() -> topicParsingService.parseSentence("learned queues")).get())
+          .containsExactly(new ParsedTopic("queues", false));
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package com.knowtify.service;
+
+import com.knowtify.entity.StudyEntry;
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.repository.StudyEntryTopicRepository;
+import com.knowtify.repository.TopicCatalogView;
+import com.knowtify.repository.TopicRepository;
+import com.knowtify.util.UuidV7;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TopicService.class, SubjectService.class, TopicDeduplicationService.class, DataVersionService.class,
+    LocalClassificationService.class, TopicParsingService.class, SavepointInserts.class})
+class TopicServiceTest {
+
+  // A row as written before topics.name_key existed
+  private static final String INSERT_LEGACY_TOPIC =
+      "INSERT INTO topics (id, subject_id, name, confidence_score) VALUES (?, ?, ?, ?)";
+
+  @Autowired private TopicService topicService;
+  @Autowired private SubjectService subjectService;
+  @Autowired private TopicDeduplicationService topicDeduplicationService;
+  @Autowired private TopicRepository topicRepository;
+  @Autowired private StudyEntryTopicRepository studyEntryTopicRepository;
+  @Autowired private SavepointInserts savepointInserts;
+  @Autowired private TestEntityManager entityManager;
+
+  private Subject subject;
+
+  @BeforeEach
+  void setUp() {
+    topicService.evictAll(); // the cache outlives each test's rolled-back transaction
+    subject = subjectService.findOrCreateSubject("Web Development");
+  }
+
+  @Test
+  void namesDifferingInCaseResolveToOneTopic() {
+    Topic first = topicService.findOrCreateTopic(subject, "React Hooks", 0.9);
+    topicService.evictAll();
+    Topic second = topicService.findOrCreateTopic(subject, " react hooks", 0.8);
+
+    assertThat(second.getId()).isEqualTo(first.getId());
+    assertThat(topicRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  void topicsFromARolledBackTransactionAreNotCached() {
+    UUID rolledBack = topicService.findOrCreateTopic(subject, "React Hooks", 0.9).getId();
+    topicService.evictAll();
+    topicService.findOrCreateTopic(subject, "react hooks", 0.8); // found, but uncommitted
+    TestTransaction.flagForRollback();
+    TestTransaction.end();
+
+    TestTransaction.start();
+    Subject committed = subjectService.findOrCreateSubject("Web Development");
+    Topic recreated = topicService.findOrCreateTopic(committed, "React Hooks", 0.9);
+
+    assertThat(recreated.getId()).isNotEqualTo(rolledBack);
+    assertThat(topicRepository.findById(recreated.getId())).isPresent();
+  }
+
+  @Test
+  void caseVariantIsRejectedByTheUniqueKey() {
+    topicService.findOrCreateTopic(subject, "React Hooks", 0.9);
+
+    // What a concurrent creator's insert runs into; the surrounding transaction stays usable
+    boolean inserted = savepointInserts.insertIfAbsent(TopicRepository.INSERT_TOPIC,
+        UuidV7.generate(), subject.getId(), "REACT HOOKS", Topic.nameKey("REACT HOOKS"), 0.5);
+
+    assertThat(inserted).isFalse();
+    assertThat(topicRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  void newSubjectAndTopicAreCreatedInTheCallersTransaction() {
+    Subject created = subjectService.findOrCreateSubject("Quantum Computing");
+    Topic topic = topicService.findOrCreateTopic(created, "qubits", 0.7);
+
+    entityManager.clear();
+    Topic reloaded = topicRepository.findById(topic.getId()).orElseThrow();
+    assertThat(reloaded.getNameKey()).isEqualTo("qubits");
+    assertThat(reloaded.getSubject().getName()).isEqualTo("Quantum Computing");
+  }
+
+  @Test
+  void catalogueLeavesOutFallbackTopics() {
+    Subject other = subjectService.findOrCreateSubject("Other");
+    topicService.findOrCreateTopic(subject, "React Hooks", 0.9);
+    topicService.findOrCreateTopic(subject, "css grid", 0.7);
+    topicService.findOrCreateTopic(subject, "webpack loaders", 0.5);
+    topicService.findOrCreateTopic(subject, "flexbox", null); // not from the model
+    topicService.findOrCreateTopic(other, "photosynthesis", 0.3);
+    topicService.findOrCreateTopic(other, "origami", 0.9);
+
+    List<TopicCatalogView> catalog = topicRepository.findCatalog(0.7, "Other", PageRequest.ofSize(10));
+
+    assertThat(catalog).extracting(TopicCatalogView::getName).containsExactly("React Hooks", "css grid");
+    assertThat(catalog).extracting(TopicCatalogView::getSubject).containsOnly("Web Development");
+  }
+
+  @Test
+  void legacyCaseDuplicatesAreMergedIntoOneTopic() {
+    User user = entityManager.persist(User.builder().username("merge-user").passwordHash("x").build());
+    UUID upper = insertLegacyTopic("React Hooks", 0.9);
+    UUID lower = insertLegacyTopic("react hooks", 0.6);
+    UUID other = insertLegacyTopic("CSS grid", 0.8);
+
+    StudyEntry both = entry(user, "hooks twice");
+    StudyEntry single = entry(user, "hooks once");
+    link(both, upper);
+    link(both, lower);
+    link(single, lower);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(topicDeduplicationService.mergeCaseDuplicates()).isEqualTo(1);
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Topic> topics = topicRepository.findAll();
+    assertThat(topics).extracting(Topic::getId).containsExactlyInAnyOrder(upper, other);
+    assertThat(topics).extracting(Topic::getNameKey).containsExactlyInAnyOrder("react hooks", "css grid");
+    assertThat(studyEntryTopicRepository.findAll())
+        .extracting(l -> l.getTopic().getId())
+        .containsExactly(upper, upper);
+
+    // Second run: everything is keyed, nothing to do
+    assertThat(topicDeduplicationService.mergeCaseDuplicates()).isZero();
+  }
+
+  private UUID insertLegacyTopic(String name, double confidence) {
+    UUID id = UuidV7.generate();
+    savepointInserts.insertIfAbsent(INSERT_LEGACY_TOPIC, id, subject.getId(), name, confidence);
+    return id;
+  }
+
+  private StudyEntry entry(User user, String sentence) {
+    return entityManager.persist(StudyEntry.builder()
+        .user(user)
+        .originalSentence(sentence)
+        .studiedAt(LocalDateTime.of(2025, 3, 3, 9, 0))
+        .build());
+  }
+
+  private void link(StudyEntry entry, UUID topicId) {
+    entityManager.persist(StudyEntryTopic.builder()
+        .studyEntry(entry)
+        .topic(topicRepository.getReferenceById(topicId))
+        .isPriority(false)
+        .build());
+  }
+}
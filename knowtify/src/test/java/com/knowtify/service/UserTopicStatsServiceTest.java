@@ -0,0 +1,79 @@
+package com.knowtify.service;
+
+import com.knowtify.entity.StudyEntryTopic;
+import com.knowtify.entity.Subject;
+import com.knowtify.entity.Topic;
+import com.knowtify.entity.User;
+import com.knowtify.entity.UserTopicStats;
+import com.knowtify.repository.SavepointInserts;
+import com.knowtify.repository.UserTopicStatsRepository;
+import com.knowtify.util.UuidV7;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({UserTopicStatsService.class, SavepointInserts.class})
+class UserTopicStatsServiceTest {
+
+  private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 3, 3, 9, 0); // ISO 2025-W10
+
+  @Autowired private UserTopicStatsService userTopicStatsService;
+  @Autowired private UserTopicStatsRepository userTopicStatsRepository;
+  @Autowired private SavepointInserts savepointInserts;
+  @Autowired private TestEntityManager entityManager;
+
+  private User user;
+  private Topic topic;
+
+  @BeforeEach
+  void setUp() {
+    user = entityManager.persist(User.builder().username("stats-user").passwordHash("x").build());
+    Subject subject = entityManager.persist(Subject.builder().name("Database Systems").build());
+    topic = entityManager.persist(Topic.builder().name("indexing").subject(subject).confidenceScore(0.9).build());
+    entityManager.flush();
+  }
+
+  @Test
+  void studiesInTheSameWeekShareOneBucket() {
+    userTopicStatsService.recordLinks(user.getId(), MONDAY, List.of(link(false)));
+    userTopicStatsService.recordLinks(user.getId(), MONDAY.plusDays(2), List.of(link(true)));
+
+    List<UserTopicStats> buckets = userTopicStatsRepository.findAll();
+    assertThat(buckets).hasSize(1);
+    assertThat(buckets.get(0).getWeekNumber()).isEqualTo(10);
+    assertThat(buckets.get(0).getStudyCount()).isEqualTo(2);
+    assertThat(buckets.get(0).isAnyPriority()).isTrue();
+    assertThat(buckets.get(0).getLastStudiedAt()).isEqualTo(MONDAY.plusDays(2));
+  }
+
+  @Test
+  void bucketInsertedByAnotherWriterIsIncrementedInstead() {
+    // The other writer's row lands between our UPDATE finding nothing and our INSERT
+    assertThat(insertBucket()).isTrue();
+    assertThat(insertBucket()).isFalse();
+
+    // Only the savepoint was rolled back; the transaction carries on
+    userTopicStatsService.recordLinks(user.getId(), MONDAY, List.of(link(false)));
+    List<UserTopicStats> buckets = userTopicStatsRepository.findAll();
+    assertThat(buckets).hasSize(1);
+    assertThat(buckets.get(0).getStudyCount()).isEqualTo(2);
+  }
+
+  private boolean insertBucket() {
+    return savepointInserts.insertIfAbsent(UserTopicStatsRepository.INSERT_BUCKET,
+        UuidV7.generate(), user.getId(), topic.getId(), 2025, 10, 1, false, MONDAY);
+  }
+
+  private StudyEntryTopic link(boolean priority) {
+    return StudyEntryTopic.builder().topic(topic).isPriority(priority).build();
+  }
+}
@@ -0,0 +1,118 @@
+package com.knowtify.util;
+
+import com.knowtify.util.AhoCorasick.Match;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickTest {
+
+  @Test
+  void matchesOnlyWholeWords() {
+    AhoCorasick<Integer> automaton = AhoCorasick.build(Map.of("he", 1, "she", 2, "his", 3, "hers", 4));
+
+    assertThat(automaton.findAll("she said hers was his")).containsExactly(
+        new Match<>(0, 3, 2),
+        new Match<>(9, 13, 4),
+        new Match<>(18, 21, 3));
+    assertThat(automaton.findAll("ushers")).isEmpty();
+  }
+
+  @Test
+  void overlappingPatternsAreAllReportedInEndOrder() {
+    Map<String, String> patterns = new LinkedHashMap<>();
+    patterns.put("binary search", "bs");
+    patterns.put("search", "s");
+    patterns.put("binary search tree", "bst");
+    AhoCorasick<String> automaton = AhoCorasick.build(patterns);
+
+    assertThat(automaton.findAll("binary search tree")).containsExactly(
+        new Match<>(0, 13, "bs"),
+        new Match<>(7, 13, "s"),
+        new Match<>(0, 18, "bst"));
+  }
+
+  @Test
+  void punctuationIsAWordBoundary() {
+    AhoCorasick<String> automaton = AhoCorasick.build(Map.of("c++", "cpp", "java", "java", "tcp/ip", "tcp"));
+
+    assertThat(automaton.findAll("c++, java; tcp/ip.")).extracting(Match::value)
+        .containsExactly("cpp", "java", "tcp");
+    assertThat(automaton.findAll("javascript")).isEmpty();
+  }
+
+  @Test
+  void matchingIsCaseSensitive() {
+    AhoCorasick<String> automaton = AhoCorasick.build(Map.of("java", "java"));
+
+    assertThat(automaton.findAll("Java")).isEmpty();
+    assertThat(automaton.findAll("java")).hasSize(1);
+  }
+
+  @Test
+  void emptyPatternsAreIgnored() {
+    Map<String, Integer> patterns = new HashMap<>();
+    patterns.put("", 0);
+    patterns.put("dns", 1);
+    AhoCorasick<Integer> automaton = AhoCorasick.build(patterns);
+
+    assertThat(automaton.size()).isEqualTo(1);
+    assertThat(AhoCorasick.build(Map.<String, Integer>of()).findAll("anything at all")).isEmpty();
+  }
+
+  @Test
+  void reportsTheSameMatchForEveryOccurrence() {
+    AhoCorasick<String> automaton = AhoCorasick.build(Map.of("dp", "dp"));
+
+    assertThat(automaton.findAll("dp and dp")).isEqualTo(List.of(new Match<>(0, 2, "dp"), new Match<>(7, 9, "dp")));
+  }
+
+  @Test
+  void agreesWithANaiveScanOnRandomText() {
+    Random random = new Random(7);
+    String[] words = {"a", "ab", "abc", "b", "bc", "ca", "cab", "abca"};
+    Map<String, String> patterns = new HashMap<>();
+    for (int i = 0; i < 40; i++) {
+      StringBuilder pattern = new StringBuilder(words[random.nextInt(words.length)]);
+      for (int n = random.nextInt(3); n > 0; n--) {
+        pattern.append(' ').append(words[random.nextInt(words.length)]);
+      }
+      patterns.put(pattern.toString(), pattern.toString());
+    }
+    AhoCorasick<String> automaton = AhoCorasick.build(patterns);
+
+    for (int round = 0; round < 200; round++) {
+      StringBuilder text = new StringBuilder();
+      for (int n = 1 + random.nextInt(12); n > 0; n--) {
+        if (!text.isEmpty()) text.append(random.nextBoolean() ? " " : ", ");
+        text.append(words[random.nextInt(words.length)]);
+      }
+      assertThat(new HashSet<>(automaton.findAll(text))).isEqualTo(naive(patterns.keySet(), text.toString()));
+    }
+  }
+
+  private static Set<Match<String>> naive(Set<String> patterns, String text) {
+    Set<Match<String>> matches = new HashSet<>();
+    for (String pattern : patterns) {
+      for (int at = text.indexOf(pattern); at >= 0; at = text.indexOf(pattern, at + 1)) {
+        int end = at + pattern.length();
+        if (boundary(text, at - 1) && boundary(text, end)) {
+          matches.add(new Match<>(at, end, pattern));
+        }
+      }
+    }
+    return matches;
+  }
+
+  private static boolean boundary(String text, int index) {
+    return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+  }
+}
@@ -0,0 +1,99 @@
+package com.knowtify.util;
+
+import com.knowtify.util.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+  private static final Duration OPEN_FOR = Duration.ofSeconds(30);
+
+  private final MutableClock clock = new MutableClock();
+  private final CircuitBreaker breaker = new CircuitBreaker(3, OPEN_FOR, clock);
+
+  @Test
+  void opensAfterConsecutiveFailures() {
+    breaker.recordFailure();
+    breaker.recordFailure();
+    breaker.recordSuccess(); // resets the streak
+    breaker.recordFailure();
+    breaker.recordFailure();
+    assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+    breaker.recordFailure();
+    assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+  }
+
+  @Test
+  void letsOneTrialThroughAfterTheOpenDuration() {
+    open();
+    clock.advance(OPEN_FOR.minusMillis(1));
+    assertThat(breaker.tryAcquire()).isFalse();
+
+    clock.advance(Duration.ofMillis(1));
+    assertThat(breaker.tryAcquire()).isTrue();
+    assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+  }
+
+  @Test
+  void trialOutcomeClosesOrReopens() {
+    open();
+    clock.advance(OPEN_FOR);
+    breaker.tryAcquire();
+    breaker.recordFailure();
+    assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+
+    clock.advance(OPEN_FOR);
+    breaker.tryAcquire();
+    breaker.recordSuccess();
+    assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    assertThat(breaker.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void cancelledTrialHandsTheTrialToTheNextCaller() {
+    open();
+    clock.advance(OPEN_FOR);
+    assertThat(breaker.tryAcquire()).isTrue();
+
+    breaker.release();
+    assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    // No new wait: the open duration has already elapsed
+    assertThat(breaker.tryAcquire()).isTrue();
+    assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+  }
+
+  @Test
+  void releaseWhileClosedChangesNothing() {
+    assertThat(breaker.tryAcquire()).isTrue();
+    breaker.release();
+    assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  private void open() {
+    for (int i = 0; i < 3; i++) breaker.recordFailure();
+    assertThat(breaker.getState()).isEqualTo(State.OPEN);
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+    @Override public Clock withZone(ZoneId zone) { return this; }
+    @Override public Instant instant() { return now; }
+  }
+}
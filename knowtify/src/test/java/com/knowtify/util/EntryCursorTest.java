@@ -0,0 +1,55 @@
+package com.knowtify.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntryCursorTest {
+
+  private static final UUID ID = UUID.fromString("01955baf-c27b-7abc-8def-0123456789ab");
+
+  @Test
+  void roundTripsThroughItsEncodedForm() {
+    EntryCursor cursor = new EntryCursor(LocalDateTime.of(2025, 3, 3, 9, 15, 30, 123_456_000), ID);
+
+    assertThat(EntryCursor.decode(cursor.encode())).isEqualTo(cursor);
+  }
+
+  @Test
+  void roundTripsWholeMinutes() {
+    // LocalDateTime.toString drops zero seconds ("2025-03-03T09:15")
+    EntryCursor cursor = new EntryCursor(LocalDateTime.of(2025, 3, 3, 9, 15), ID);
+
+    assertThat(EntryCursor.decode(cursor.encode())).isEqualTo(cursor);
+  }
+
+  @Test
+  void encodedFormIsUrlSafe() {
+    String encoded = new EntryCursor(LocalDateTime.of(2025, 3, 3, 9, 15, 30), ID).encode();
+
+    assertThat(encoded).matches("[A-Za-z0-9_-]+");
+  }
+
+  @Test
+  void rejectsGarbage() {
+    assertThatThrownBy(() -> EntryCursor.decode("not a cursor!"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsWellEncodedButMalformedContent() {
+    String noSeparator = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString("2025-03-03T09:15".getBytes(StandardCharsets.UTF_8));
+    String badId = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString("2025-03-03T09:15|nope".getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> EntryCursor.decode(noSeparator)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> EntryCursor.decode(badId)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
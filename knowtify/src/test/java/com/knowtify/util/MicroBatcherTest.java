@@ -0,0 +1,105 @@
+package com.knowtify.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicroBatcherTest {
+
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+  private MicroBatcher<String, String> batcher;
+
+  @AfterEach
+  void close() {
+    if (batcher != null) batcher.close();
+  }
+
+  @Test
+  void fullBatchIsDispatchedWithoutWaitingForTheWindow() throws Exception {
+    batcher = batcher(upperCase(), 3, Duration.ofMinutes(1));
+
+    CompletableFuture<String> a = batcher.submit("a");
+    CompletableFuture<String> b = batcher.submit("b");
+    CompletableFuture<String> c = batcher.submit("c");
+
+    assertThat(c.get(5, TimeUnit.SECONDS)).isEqualTo("C");
+    assertThat(a.join()).isEqualTo("A");
+    assertThat(b.join()).isEqualTo("B");
+    assertThat(batches).containsExactly(List.of("a", "b", "c"));
+  }
+
+  @Test
+  void windowFlushesAPartialBatch() throws Exception {
+    batcher = batcher(upperCase(), 10, Duration.ofMillis(20));
+
+    CompletableFuture<String> a = batcher.submit("a");
+    CompletableFuture<String> b = batcher.submit("b");
+
+    assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+    assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("B");
+    assertThat(batches).containsExactly(List.of("a", "b"));
+  }
+
+  @Test
+  void itemsLeftOutOfTheResultUseTheFallback() throws Exception {
+    batcher = batcher(items -> Map.of(0, items.get(0).toUpperCase()), 2, Duration.ofMinutes(1));
+
+    CompletableFuture<String> a = batcher.submit("a");
+    CompletableFuture<String> b = batcher.submit("b");
+
+    assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+    assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("fallback:b");
+  }
+
+  @Test
+  void failedBatchFallsBackForEveryItem() throws Exception {
+    batcher = batcher(items -> {
+      throw new IllegalStateException("model unavailable");
+    }, 2, Duration.ofMinutes(1));
+
+    CompletableFuture<String> a = batcher.submit("a");
+    CompletableFuture<String> b = batcher.submit("b");
+
+    assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("fallback:a");
+    assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("fallback:b");
+  }
+
+  @Test
+  void closeDispatchesWhatIsStillBuffered() throws Exception {
+    batcher = batcher(upperCase(), 10, Duration.ofMinutes(1));
+
+    CompletableFuture<String> a = batcher.submit("a");
+    batcher.close();
+
+    assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+    batcher = null;
+  }
+
+  private MicroBatcher<String, String> batcher(Function<List<String>, Map<Integer, String>> handler,
+                                               int maxBatchSize, Duration window) {
+    return new MicroBatcher<>(items -> {
+      batches.add(items);
+      return handler.apply(items);
+    }, item -> "fallback:" + item, maxBatchSize, window, "test-batch");
+  }
+
+  private static Function<List<String>, Map<Integer, String>> upperCase() {
+    return items -> {
+      Map<Integer, String> results = new HashMap<>();
+      for (int i = 0; i < items.size(); i++) {
+        results.put(i, items.get(i).toUpperCase());
+      }
+      return results;
+    };
+  }
+}
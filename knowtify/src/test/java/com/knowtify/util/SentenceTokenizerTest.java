@@ -0,0 +1,127 @@
+package com.knowtify.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SentenceTokenizerTest {
+
+  private final SentenceTokenizer tokenizer = new SentenceTokenizer();
+
+  @Test
+  void splitsOnCommasSemicolonsAndLineBreaks() {
+    assertThat(segments("graphs, heaps; tries\nqueues\r\nstacks"))
+        .containsExactly("graphs", "heaps", "tries", "queues", "stacks");
+  }
+
+  @Test
+  void andSplitsOnlyAsAWholeWordBetweenSpaces() {
+    assertThat(segments("sand and grand")).containsExactly("sand", "grand");
+    assertThat(segments("android AND ios")).containsExactly("android", "ios");
+    assertThat(segments("rock andesite, bandwidth")).containsExactly("rock andesite", "bandwidth");
+    assertThat(segments("graphs,and trees")).containsExactly("graphs", "and trees");
+  }
+
+  @Test
+  void andAtTheEdgesIsKeptInTheSegment() {
+    assertThat(segments("and recursion")).containsExactly("and recursion");
+    assertThat(segments("recursion and")).containsExactly("recursion and");
+  }
+
+  @Test
+  void exclamationMarkAtTheStartOfASegmentMarksPriority() {
+    assertThat(segments("!graphs, ! heaps, tries!")).containsExactly("!graphs", "!heaps", "tries!");
+  }
+
+  @Test
+  void bareExclamationMarkOrEmptySegmentsAreDropped() {
+    assertThat(segments("graphs, !, ;  ,heaps")).containsExactly("graphs", "heaps");
+    assertThat(segments(" , ; ")).isEmpty();
+    assertThat(segments(null)).isEmpty();
+  }
+
+  @Test
+  void duplicatesCollapseCaseInsensitivelyAndKeepPriority() {
+    assertThat(segments("Graphs, heaps, !GRAPHS, graphs")).containsExactly("!graphs", "heaps");
+  }
+
+  @Test
+  void leadingPhraseIsSkipped() {
+    assertThat(segments("I studied graphs")).containsExactly("graphs");
+    assertThat(segments("studied graphs")).containsExactly("graphs");
+    assertThat(segments("  i   learned graphs and heaps")).containsExactly("graphs", "heaps");
+    assertThat(segments("Learned !graphs")).containsExactly("!graphs");
+    assertThat(segments("I studied, graphs")).containsExactly("graphs");
+  }
+
+  @Test
+  void leadingPhraseMustBeAWholeWord() {
+    assertThat(segments("studiedgraphs")).containsExactly("studiedgraphs");
+    assertThat(segments("Istudied graphs")).containsExactly("istudied graphs");
+    assertThat(segments("I am studying graphs")).containsExactly("i am studying graphs");
+  }
+
+  @Test
+  void leadingPhraseAloneYieldsNothing() {
+    assertThat(segments("I studied")).isEmpty();
+    assertThat(segments("learned")).isEmpty();
+  }
+
+  @Test
+  void leadingPhraseIsOnlySkippedAtTheStart() {
+    assertThat(segments("graphs, studied heaps")).containsExactly("graphs", "studied heaps");
+  }
+
+  @Test
+  void offsetsPointIntoTheInput() {
+    String sentence = "I studied  Graphs , !heaps";
+    assertThat(tokenizer.tokenize(sentence)).isEqualTo(2);
+
+    assertThat(sentence.substring(tokenizer.start(0), tokenizer.end(0))).isEqualTo("Graphs");
+    assertThat(sentence.substring(tokenizer.start(1), tokenizer.end(1))).isEqualTo("heaps");
+    assertThat(tokenizer.segment(0)).isEqualTo("graphs");
+  }
+
+  @Test
+  void manySegmentsGrowTheBuffers() {
+    StringBuilder sentence = new StringBuilder();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      if (i > 0) sentence.append(", ");
+      sentence.append("topic ").append(i);
+      expected.add("topic " + i);
+    }
+    sentence.append(", TOPIC 7, topic 99");
+
+    assertThat(segments(sentence.toString())).containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void instanceIsReusableAcrossSentences() {
+    assertThat(segments("graphs, heaps, tries")).hasSize(3);
+    assertThat(segments("!graphs")).containsExactly("!graphs");
+    assertThat(tokenizer.size()).isEqualTo(1);
+  }
+
+  @Test
+  void indexOutsideTheResultIsRejected() {
+    tokenizer.tokenize("graphs");
+
+    assertThatThrownBy(() -> tokenizer.segment(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> tokenizer.start(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  // Lower-cased segments, priority ones prefixed with '!'
+  private List<String> segments(String sentence) {
+    int count = tokenizer.tokenize(sentence);
+    List<String> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add((tokenizer.isPriority(i) ? "!" : "") + tokenizer.segment(i));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,53 @@
+package com.knowtify.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+  @Test
+  void hasVersionSevenAndTheIetfVariant() {
+    UUID id = UuidV7.generate();
+
+    assertThat(id.version()).isEqualTo(7);
+    assertThat(id.variant()).isEqualTo(2);
+  }
+
+  @Test
+  void leadingBitsAreTheMillisecondTimestamp() {
+    long millis = 1_741_000_000_123L;
+
+    UUID id = UuidV7.fromMillis(millis);
+
+    assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(millis);
+    assertThat(id.toString()).startsWith("0195");
+  }
+
+  @Test
+  void idsFromLaterMillisecondsSortAfterEarlierOnes() {
+    List<UUID> ids = new ArrayList<>();
+    for (long millis = 1_741_000_000_000L; millis < 1_741_000_000_100L; millis++) {
+      ids.add(UuidV7.fromMillis(millis));
+    }
+
+    // The database compares uuids as unsigned bytes, i.e. by their string form
+    List<String> asText = ids.stream().map(UUID::toString).toList();
+    assertThat(asText).isSorted();
+  }
+
+  @Test
+  void idsInTheSameMillisecondStayDistinct() {
+    HashSet<UUID> ids = new HashSet<>();
+    for (int i = 0; i < 10_000; i++) {
+      ids.add(UuidV7.fromMillis(1_741_000_000_000L));
+    }
+
+    assertThat(ids).hasSize(10_000);
+  }
+}